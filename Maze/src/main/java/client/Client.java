@@ -1,13 +1,19 @@
 package client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import remote.ProtocolExtension;
 
 /**
  * Connects a given referee to a single player. Players to the specified host at the specified port.
@@ -17,11 +23,24 @@ public class Client {
 
   private final String host;
   private final int port;
+  private final Set<ProtocolExtension> extensions;
   private static final int WAIT_TIME_BEFORE_RETRY_MILLIS = 500;
 
   public Client(String host, int port) {
+    this(host, port, EnumSet.noneOf(ProtocolExtension.class));
+  }
+
+  /**
+   * Constructs a client that asks the server for the given protocol extensions when it signs up.
+   * @param host the host of the server
+   * @param port the port of the server
+   * @param extensions the extensions to ask for, the server may ignore them
+   */
+  public Client(String host, int port, Set<ProtocolExtension> extensions) {
     this.host = host;
     this.port = port;
+    this.extensions = EnumSet.noneOf(ProtocolExtension.class);
+    this.extensions.addAll(extensions);
   }
 
   /**
@@ -47,10 +66,11 @@ public class Client {
    * @throws IllegalStateException if the client is unable to connect to the server
    */
   private remote.Referee createSinglePlayerRemoteRefereeProxy(referee.Player player) throws IllegalStateException {
-    TextNode nameJson = JsonNodeFactory.instance.textNode(player.name());
+    JsonNode nameJson = signupJson(player.name(), extensions);
     try{
       Socket server = new Socket(host, port);
-      PrintStream out = new PrintStream(server.getOutputStream());
+      server.setTcpNoDelay(true);
+      PrintStream out = new PrintStream(server.getOutputStream(), false, StandardCharsets.UTF_8);
       out.println(nameJson);
       out.flush();
       return new remote.Referee(server, player);
@@ -65,4 +85,23 @@ public class Client {
     }
     throw new IllegalStateException("Unable to connect to server");
   }
+
+  /**
+   * Builds what the client signs up with: the name of the player, along with the protocol
+   * extensions if it asks for any.
+   * @param name the name of the player
+   * @param extensions the protocol extensions to ask for
+   * @return the signup JSON
+   */
+  static JsonNode signupJson(String name, Set<ProtocolExtension> extensions) {
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    if(extensions.isEmpty()) {
+      return factory.textNode(name);
+    }
+    ObjectNode signup = factory.objectNode();
+    signup.put("name", name);
+    ArrayNode extensionNames = signup.putArray("extensions");
+    extensions.forEach(extension -> extensionNames.add(extension.toString()));
+    return signup;
+  }
 }
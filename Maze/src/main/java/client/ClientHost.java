@@ -0,0 +1,439 @@
+package client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import json.BinaryJson;
+import json.JsonUtils;
+import remote.ProtocolExtension;
+
+/**
+ * Hosts many players in one process without a thread per player. A single I/O thread reads the
+ * requests of all connections with a selector, and the players compute their responses on a shared
+ * pool of compute threads. A connection has a thread only while its player is computing, so a
+ * player that thinks long holds up no one but itself, and the others keep being read from and
+ * written to. A player that never returns holds a compute thread for good, so the pool should
+ * have more threads than such players.
+ *
+ * Each connection is handled like a remote.Referee handles its own: the framing of the server is
+ * told by the first byte (JSON text or binary frames), requests are handed to the player one at a
+ * time in the order they arrived, and the connection is closed once the player was told whether
+ * it won. A connection whose player throws or that receives a malformed request is closed.
+ */
+public class ClientHost implements Closeable {
+
+  private static final int READ_BUFFER_BYTES = 16 * 1024;
+  // The largest request read, in either framing
+  private static final int MAX_REQUEST_BYTES = 1 << 24;
+
+  private final String host;
+  private final int port;
+  private final Selector selector;
+  private final ExecutorService compute;
+  private final Thread ioThread;
+  private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+
+  // Handed to the I/O thread by the threads that connect players and compute responses
+  private final Queue<Connection> registrations = new ConcurrentLinkedQueue<>();
+  private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger numConnected = new AtomicInteger();
+  private final AtomicLong numFinished = new AtomicLong();
+  private volatile boolean running = true;
+
+  /**
+   * Opens a host for players that connect to the given server, it serves them once it is started.
+   * @param host the host of the server
+   * @param port the port of the server
+   * @param computeThreads the number of threads the players compute their responses on
+   * @throws IOException if the selector cannot be opened
+   * @throws IllegalArgumentException if there are no compute threads
+   */
+  public ClientHost(String host, int port, int computeThreads) throws IOException {
+    if (computeThreads <= 0) {
+      throw new IllegalArgumentException("A host needs compute threads.");
+    }
+    this.host = host;
+    this.port = port;
+    this.selector = Selector.open();
+    this.compute = Executors.newFixedThreadPool(computeThreads);
+    this.ioThread = new Thread(this::runHost, "client-host-" + port);
+  }
+
+  /**
+   * Starts serving the connected players on a background thread.
+   */
+  public void start() {
+    ioThread.start();
+  }
+
+  /**
+   * Connects the given player to the server and signs it up, asking for the given protocol
+   * extensions. The player plays on the threads of this host.
+   * @param player the player to connect
+   * @param extensions the extensions to ask for, the server may ignore them
+   * @throws IOException if the player could not connect
+   */
+  public void connect(referee.Player player, Set<ProtocolExtension> extensions) throws IOException {
+    SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+    try {
+      channel.socket().setTcpNoDelay(true);
+      ByteBuffer signup = ByteBuffer.wrap(
+          (Client.signupJson(player.name(), extensions) + "\n").getBytes(StandardCharsets.UTF_8));
+      while (signup.hasRemaining()) {
+        channel.write(signup);
+      }
+      channel.configureBlocking(false);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    numConnected.incrementAndGet();
+    registrations.add(new Connection(channel, new remote.Referee(player)));
+    selector.wakeup();
+  }
+
+  /**
+   * Returns the number of players whose connections are open.
+   * @return the number of connected players
+   */
+  public int getNumConnected() {
+    return numConnected.get();
+  }
+
+  /**
+   * Returns the number of players that were told whether they won.
+   * @return the number of players that finished their game
+   */
+  public long getNumFinished() {
+    return numFinished.get();
+  }
+
+  /**
+   * Closes the connections of all players and stops the threads of this host. Players that are
+   * computing are interrupted.
+   */
+  @Override
+  public void close() throws IOException {
+    running = false;
+    selector.wakeup();
+    if (ioThread.getState() == Thread.State.NEW) {
+      closeAll();
+    } else {
+      try {
+        ioThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    compute.shutdownNow();
+  }
+
+  private void runHost() {
+    try {
+      while (running) {
+        selector.select();
+        registerAll();
+        sendResponses();
+
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          Connection connection = (Connection) key.attachment();
+          if (key.isValid() && key.isReadable()) {
+            read(connection);
+          }
+          if (key.isValid() && key.isWritable()) {
+            write(connection);
+          }
+        }
+      }
+    } catch (IOException e) {
+      // the selector failed, so the host cannot serve anyone anymore
+    } finally {
+      closeAll();
+    }
+  }
+
+  private void registerAll() {
+    Connection connection;
+    while ((connection = registrations.poll()) != null) {
+      try {
+        connection.channel.register(selector, SelectionKey.OP_READ, connection);
+      } catch (IOException e) {
+        connection.close();
+      }
+    }
+  }
+
+  /**
+   * Queues the responses the players computed for sending, and hands every connection whose
+   * player is free again its next request.
+   */
+  private void sendResponses() {
+    Response response;
+    while ((response = responses.poll()) != null) {
+      Connection connection = response.connection;
+      connection.computing = false;
+      if (connection.closed) {
+        continue;
+      }
+      if (response.bytes == null) {
+        connection.close();
+        continue;
+      }
+      connection.outgoing.addLast(response.bytes);
+      write(connection);
+      computeNext(connection);
+    }
+  }
+
+  /**
+   * Reads whatever the given connection sent so far and queues the requests it completed.
+   */
+  private void read(Connection connection) {
+    try {
+      readBuffer.clear();
+      int read = connection.channel.read(readBuffer);
+      if (read < 0) {
+        connection.close();
+        return;
+      }
+      if (read > 0 && connection.framing == Framing.UNKNOWN) {
+        // a binary frame starts with 0 and JSON text never does
+        connection.framing = readBuffer.get(0) == 0 ? Framing.BINARY : Framing.JSON;
+      }
+      if (connection.framing == Framing.BINARY) {
+        readFrames(connection, read);
+      } else if (read > 0) {
+        readJson(connection, read);
+      }
+      if (!connection.closed) {
+        computeNext(connection);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      connection.close();
+    }
+  }
+
+  private void readJson(Connection connection, int read) throws IOException {
+    ByteArrayFeeder feeder = (ByteArrayFeeder) connection.parser.getNonBlockingInputFeeder();
+    feeder.feedInput(readBuffer.array(), 0, read);
+    connection.requestBytes += read;
+
+    JsonToken token;
+    while ((token = connection.parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+      if (connection.request == null) {
+        if (token != JsonToken.START_ARRAY) {
+          throw new IllegalArgumentException("A request is a JSON array.");
+        }
+        connection.request = new TokenBuffer(connection.parser);
+      }
+      connection.request.copyCurrentEvent(connection.parser);
+      if (token == JsonToken.END_ARRAY && connection.parser.getParsingContext().inRoot()) {
+        connection.requests.addLast(JsonUtils.getMapper().readTree(connection.request.asParser()));
+        connection.request = null;
+        connection.requestBytes = 0;
+      }
+    }
+    if (connection.request != null && connection.requestBytes > MAX_REQUEST_BYTES) {
+      throw new IllegalArgumentException("The request is too big.");
+    }
+  }
+
+  private void readFrames(Connection connection, int read) throws IOException {
+    readBuffer.flip();
+    while (readBuffer.hasRemaining()) {
+      if (connection.frame == null) {
+        transfer(readBuffer, connection.frameLength);
+        if (connection.frameLength.hasRemaining()) {
+          return;
+        }
+        int length = connection.frameLength.getInt(0);
+        if (length < 0 || length >= MAX_REQUEST_BYTES) {
+          throw new IllegalArgumentException("Frame of " + length + " bytes is too big.");
+        }
+        connection.frame = ByteBuffer.allocate(length);
+      }
+      transfer(readBuffer, connection.frame);
+      if (!connection.frame.hasRemaining()) {
+        connection.requests.addLast(BinaryJson.decode(connection.frame.array()));
+        connection.frame = null;
+        connection.frameLength.clear();
+      }
+    }
+  }
+
+  private static void transfer(ByteBuffer from, ByteBuffer to) {
+    int length = Math.min(from.remaining(), to.remaining());
+    ByteBuffer slice = from.duplicate();
+    slice.limit(slice.position() + length);
+    to.put(slice);
+    from.position(from.position() + length);
+  }
+
+  /**
+   * Hands the next request of the given connection to its player on the compute pool, unless the
+   * player is still computing its last response.
+   */
+  private void computeNext(Connection connection) {
+    if (connection.computing || connection.requests.isEmpty()) {
+      return;
+    }
+    JsonNode request = connection.requests.removeFirst();
+    connection.computing = true;
+    Framing framing = connection.framing;
+    compute.execute(() -> {
+      ByteBuffer bytes = null;
+      try {
+        bytes = encode(connection.referee.respond(request), framing);
+      } catch (RuntimeException | IOException e) {
+        // the player failed, so its connection is closed
+      } finally {
+        // posted even if the player threw an Error, so the connection stops computing and is
+        // closed instead of waiting for a response forever
+        responses.add(new Response(connection, bytes));
+        selector.wakeup();
+      }
+    });
+  }
+
+  private static ByteBuffer encode(JsonNode response, Framing framing) throws IOException {
+    if (framing == Framing.BINARY) {
+      byte[] encoded = BinaryJson.encode(response);
+      ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + encoded.length);
+      frame.putInt(encoded.length).put(encoded).flip();
+      return frame;
+    }
+    return ByteBuffer.wrap((JsonUtils.writeObjectToJson(response) + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Writes as much of the responses of the given connection as it takes without blocking, and
+   * closes the connection once its player finished and everything was written.
+   */
+  private void write(Connection connection) {
+    try {
+      while (!connection.outgoing.isEmpty()) {
+        ByteBuffer next = connection.outgoing.peekFirst();
+        connection.channel.write(next);
+        if (next.hasRemaining()) {
+          connection.key().interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+          return;
+        }
+        connection.outgoing.removeFirst();
+      }
+      connection.key().interestOps(SelectionKey.OP_READ);
+      if (connection.referee.isDone() && !connection.computing) {
+        numFinished.incrementAndGet();
+        connection.close();
+      }
+    } catch (IOException e) {
+      connection.close();
+    }
+  }
+
+  private synchronized void closeAll() {
+    if (!selector.isOpen()) {
+      return;
+    }
+    for (SelectionKey key : selector.keys()) {
+      ((Connection) key.attachment()).close();
+    }
+    Connection connection;
+    while ((connection = registrations.poll()) != null) {
+      connection.close();
+    }
+    try {
+      selector.close();
+    } catch (IOException e) {
+      // the connections are closed either way
+    }
+  }
+
+  private enum Framing {
+    UNKNOWN, JSON, BINARY
+  }
+
+  /**
+   * A response a player computed, or null if the player failed.
+   */
+  private static final class Response {
+    private final Connection connection;
+    private final ByteBuffer bytes;
+
+    private Response(Connection connection, ByteBuffer bytes) {
+      this.connection = connection;
+      this.bytes = bytes;
+    }
+  }
+
+  /**
+   * The connection of a hosted player: the requests it received and the responses still to be
+   * written. Only the I/O thread uses it, except for the proxy referee, which computes on one
+   * compute thread at a time.
+   */
+  private final class Connection {
+
+    private final SocketChannel channel;
+    private final remote.Referee referee;
+    private Framing framing = Framing.UNKNOWN;
+    // The request being read in JSON text, and how many bytes of it were read
+    private final JsonParser parser;
+    private TokenBuffer request = null;
+    private long requestBytes = 0;
+    // The frame being read in binary frames
+    private final ByteBuffer frameLength = ByteBuffer.allocate(Integer.BYTES);
+    private ByteBuffer frame = null;
+
+    private final Deque<JsonNode> requests = new ArrayDeque<>();
+    private final Deque<ByteBuffer> outgoing = new ArrayDeque<>();
+    private boolean computing = false;
+    private boolean closed = false;
+
+    private Connection(SocketChannel channel, remote.Referee referee) throws IOException {
+      this.channel = channel;
+      this.referee = referee;
+      this.parser = JsonUtils.getMapper().getFactory().createNonBlockingByteArrayParser();
+    }
+
+    private SelectionKey key() {
+      return channel.keyFor(selector);
+    }
+
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      numConnected.decrementAndGet();
+      try {
+        parser.close();
+        channel.close();
+      } catch (IOException e) {
+        // the connection is dropped either way
+      }
+    }
+  }
+}
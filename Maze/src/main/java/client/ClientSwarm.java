@@ -0,0 +1,148 @@
+package client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import json.JsonUtils;
+import json.PlayerAPIJson;
+import json.PlayerAPIJson.BadFM;
+import referee.Player;
+import remote.ProtocolExtension;
+
+/**
+ * Connects many synthetic players to a server to measure how much load it can take. Every player
+ * is built from one of the given player specs (as taken by the BadPlayerHarness, the mix of
+ * strategies follows how often each spec appears) and named bot<i>. All players are hosted by one
+ * ClientHost, so the swarm needs no thread per player and a slow player does not delay the others.
+ *
+ * Players arrive as a Poisson process at the given rate, so the time between two arrivals is
+ * exponentially distributed. A player whose spec is well behaved misbehaves with the given
+ * probability, throwing an exception on a random method (a BadFM with a count of 0), so its
+ * connection is dropped and the server has to kick it. The swarm never makes a player loop
+ * forever, since such a player would take a core from the swarm rather than from the server.
+ */
+public class ClientSwarm implements Closeable {
+
+  private final ClientHost clientHost;
+  private final Set<ProtocolExtension> extensions;
+  private final List<JsonNode> playerSpecs;
+  private final double misbehavingFraction;
+  private final Random random;
+  private int numLaunched = 0;
+  private int numMisbehaving = 0;
+
+  /**
+   * Constructs a swarm of players that connect to the given server.
+   * @param host the host of the server
+   * @param port the port of the server
+   * @param extensions the protocol extensions every player asks for
+   * @param playerSpecs the specs the players are built from, each a PS or BadPS
+   * @param misbehavingFraction the probability that a well behaved spec makes a misbehaving player
+   * @param seed the seed of the arrival times, specs and misbehavior
+   * @param computeThreads the number of threads the players compute their moves on
+   * @throws IOException if the players cannot be hosted
+   * @throws IllegalArgumentException if there are no specs, a spec is not an array of at least a
+   *     name and a strategy, the fraction is not a probability or there are no compute threads
+   */
+  public ClientSwarm(String host, int port, Set<ProtocolExtension> extensions,
+      List<JsonNode> playerSpecs, double misbehavingFraction, long seed, int computeThreads)
+      throws IOException {
+    if (playerSpecs.isEmpty() || misbehavingFraction < 0 || misbehavingFraction > 1) {
+      throw new IllegalArgumentException("A swarm needs player specs and a misbehaving fraction in [0, 1].");
+    }
+    for (JsonNode spec : playerSpecs) {
+      if (!spec.isArray() || spec.size() < 2) {
+        throw new IllegalArgumentException("Not a player spec: " + spec);
+      }
+    }
+    this.clientHost = new ClientHost(host, port, computeThreads);
+    this.clientHost.start();
+    this.extensions = EnumSet.noneOf(ProtocolExtension.class);
+    this.extensions.addAll(extensions);
+    this.playerSpecs = new ArrayList<>(playerSpecs);
+    this.misbehavingFraction = misbehavingFraction;
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Connects the given number of players, one arriving after the other at the given mean rate, and
+   * returns once the last one sent its name. The players play their games on the threads of the
+   * swarm until it is closed.
+   * @param numPlayers the number of players to connect
+   * @param playersPerSecond the mean number of players that arrive every second
+   * @throws IOException if a player could not connect
+   * @throws InterruptedException if interrupted while waiting for the next arrival
+   * @throws IllegalArgumentException if a spec does not describe a player
+   */
+  public void launch(int numPlayers, double playersPerSecond) throws IOException, InterruptedException {
+    long nextArrival = System.nanoTime();
+    for (int i = 0; i < numPlayers; i++) {
+      nextArrival += (long) (-Math.log(1 - random.nextDouble()) / playersPerSecond * 1e9);
+      long untilArrival = nextArrival - System.nanoTime();
+      if (untilArrival > 0) {
+        TimeUnit.NANOSECONDS.sleep(untilArrival);
+      }
+      clientHost.connect(buildPlayer(), extensions);
+    }
+  }
+
+  private Player buildPlayer() {
+    ObjectMapper mapper = JsonUtils.getMapper();
+    ArrayNode spec = (ArrayNode) playerSpecs.get(random.nextInt(playerSpecs.size())).deepCopy();
+    spec.set(0, mapper.getNodeFactory().textNode("bot" + numLaunched));
+    if (spec.size() == 2 && random.nextDouble() < misbehavingFraction) {
+      spec.add(BadFM.values()[random.nextInt(BadFM.values().length)].toString());
+      spec.add(0);
+    }
+    if (spec.size() > 2) {
+      numMisbehaving++;
+    }
+    numLaunched++;
+    try {
+      return mapper.treeToValue(spec, PlayerAPIJson.class).build();
+    } catch (JsonProcessingException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Not a player spec: " + spec);
+    }
+  }
+
+  /**
+   * Returns the number of players that were connected so far.
+   * @return the number of launched players
+   */
+  public int getNumLaunched() {
+    return numLaunched;
+  }
+
+  /**
+   * Returns the number of launched players that misbehave, whether their spec said so or not.
+   * @return the number of misbehaving players
+   */
+  public int getNumMisbehaving() {
+    return numMisbehaving;
+  }
+
+  /**
+   * Returns the number of launched players that were told whether they won.
+   * @return the number of players that finished their game
+   */
+  public long getNumFinished() {
+    return clientHost.getNumFinished();
+  }
+
+  /**
+   * Disconnects all players and stops the threads of the swarm.
+   */
+  @Override
+  public void close() throws IOException {
+    clientHost.close();
+  }
+}
@@ -0,0 +1,62 @@
+package gamelog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only log of finished games. Every game is appended as one complete game record (see
+ * GameRecorder), so any number of Referees may share a log. Like a PrintStream, a GameLog does not
+ * throw when the underlying stream fails: the game goes on without its record and checkError
+ * reports the failure.
+ */
+public class GameLog implements Closeable {
+
+  private final OutputStream out;
+  private boolean error;
+
+  public GameLog(OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Opens the log in the given file, games are appended after the ones already in it.
+   * @param file the file of the log, it is created if it does not exist
+   * @return the log
+   * @throws IOException if the file cannot be opened
+   */
+  public static GameLog open(Path file) throws IOException {
+    return new GameLog(Files.newOutputStream(file,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+  }
+
+  /**
+   * Appends the given game record to this log and flushes it, so a log only ever misses the games
+   * that did not finish.
+   * @param gameRecord a finished game record
+   */
+  public synchronized void append(byte[] gameRecord) {
+    try {
+      out.write(gameRecord);
+      out.flush();
+    } catch (IOException e) {
+      this.error = true;
+    }
+  }
+
+  /**
+   * Determines if writing to this log ever failed.
+   * @return if a game record could not be written
+   */
+  public synchronized boolean checkError() {
+    return this.error;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    out.close();
+  }
+}
@@ -0,0 +1,200 @@
+package gamelog;
+
+import java.awt.Color;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import model.board.BasicTile;
+import model.board.BitBoard;
+import model.board.Board;
+import model.board.Gem;
+import model.board.RectBoard;
+import model.board.Tile;
+import model.state.MazeState;
+import model.state.PlayerData;
+import model.state.State;
+import util.Direction;
+import util.Posn;
+import util.Tuple;
+
+/**
+ * The binary format of a game log. A log is a sequence of game records, each of which is:
+ * - the MAGIC number and the VERSION of the format
+ * - the initial state of the game (see writeState)
+ * - the events of the game, each a tag byte followed by the event's fields
+ * - the END tag
+ * Locations and indices are written as shorts, a tile as its direction mask (see BitBoard.maskOf)
+ * and the ordinals of its gems.
+ */
+final class GameLogFormat {
+
+  static final int MAGIC = 0x4D5A4C47; // "MZLG"
+  static final int VERSION = 1;
+
+  // [short index, byte direction, byte rotations, posn target]
+  static final int MOVE = 1;
+  static final int PASS = 2;
+  static final int KICK = 3;
+  // [posn goal], the goal the player that just moved was given
+  static final int GOAL = 4;
+  static final int END = 5;
+
+  private static final int EMPTY_TILE = 0xFF;
+  private static final int REACHED_FINAL_GOAL = 1;
+  private static final int RETURNED_HOME = 2;
+  private static final int RECEIVED_ADDITIONAL_GOAL = 4;
+
+  private GameLogFormat() {
+  }
+
+  /**
+   * Writes the board, spare tile, players, previous move and additional goals of the given state.
+   * The player APIs are not written.
+   * @param out the stream to write to
+   * @param state the state to write
+   * @throws IOException if the stream cannot be written
+   */
+  static void writeState(DataOutputStream out, State state) throws IOException {
+    Board board = state.getBoardView();
+    out.writeShort(board.getBoardWidth());
+    out.writeShort(board.getBoardHeight());
+    for (int row = 0; row < board.getBoardHeight(); row++) {
+      for (int col = 0; col < board.getBoardWidth(); col++) {
+        writeTile(out, board.getTile(new Posn(col, row)));
+      }
+    }
+    writeTile(out, Optional.of(state.getSpareTileView()));
+
+    Optional<Tuple<Integer, Direction>> previous = state.getPrevMove();
+    out.writeBoolean(previous.isPresent());
+    if (previous.isPresent()) {
+      out.writeShort(previous.get().getFirst());
+      out.writeByte(previous.get().getSecond().ordinal());
+    }
+
+    List<PlayerData> players = state.getPlayers();
+    out.writeShort(players.size());
+    for (PlayerData player : players) {
+      out.writeInt(player.getAvatar().getRGB());
+      writePosn(out, player.getCurrentLocation());
+      writePosn(out, player.getHomeLocation());
+      writePosn(out, player.getGoalLocation());
+      out.writeShort(player.getNumGoalsVisited());
+      out.writeByte((player.getHasReachedFinalGoal() ? REACHED_FINAL_GOAL : 0)
+          | (player.getHasReturnedHome() ? RETURNED_HOME : 0)
+          | (player.getHasReceivedAdditionalGoal() ? RECEIVED_ADDITIONAL_GOAL : 0));
+    }
+
+    List<Posn> goals = state.getAdditionalGoals();
+    out.writeShort(goals.size());
+    for (Posn goal : goals) {
+      writePosn(out, goal);
+    }
+  }
+
+  /**
+   * Reads a state written by writeState. The players of the state have no player APIs.
+   * @param in the stream to read from
+   * @return the state that was written
+   * @throws IOException if the stream cannot be read or ends early
+   */
+  static State readState(DataInputStream in) throws IOException {
+    int width = in.readShort();
+    int height = in.readShort();
+    Board board = new RectBoard(width, height);
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        Optional<Tile> tile = readTile(in);
+        if (tile.isPresent()) {
+          board.placeTileSafely(new Posn(col, row), tile.get());
+        }
+      }
+    }
+    Tile spare = readTile(in).orElseThrow(() -> new IOException("Missing spare tile."));
+
+    Optional<Tuple<Integer, Direction>> previous = Optional.empty();
+    if (in.readBoolean()) {
+      int index = in.readShort();
+      previous = Optional.of(new Tuple<>(index, readDirection(in)));
+    }
+
+    int numPlayers = in.readShort();
+    List<PlayerData> players = new ArrayList<>();
+    for (int i = 0; i < numPlayers; i++) {
+      Color avatar = new Color(in.readInt(), true);
+      Posn current = readPosn(in);
+      Posn home = readPosn(in);
+      Posn goal = readPosn(in);
+      int numGoalsVisited = in.readShort();
+      int flags = in.readByte();
+      players.add(new PlayerData(avatar, current, home, goal, Optional.empty(), numGoalsVisited,
+          (flags & REACHED_FINAL_GOAL) != 0, (flags & RETURNED_HOME) != 0,
+          (flags & RECEIVED_ADDITIONAL_GOAL) != 0));
+    }
+
+    int numGoals = in.readShort();
+    List<Posn> goals = new ArrayList<>();
+    for (int i = 0; i < numGoals; i++) {
+      goals.add(readPosn(in));
+    }
+    return new MazeState(board, players, spare, previous, goals);
+  }
+
+  static void writePosn(DataOutputStream out, Posn pos) throws IOException {
+    out.writeShort(pos.getX());
+    out.writeShort(pos.getY());
+  }
+
+  static Posn readPosn(DataInputStream in) throws IOException {
+    int x = in.readShort();
+    return new Posn(x, in.readShort());
+  }
+
+  static Direction readDirection(DataInputStream in) throws IOException {
+    int ordinal = in.readByte();
+    if (ordinal < 0 || ordinal >= Direction.values().length) {
+      throw new IOException("Unknown direction " + ordinal);
+    }
+    return Direction.values()[ordinal];
+  }
+
+  private static void writeTile(DataOutputStream out, Optional<Tile> tile) throws IOException {
+    if (tile.isEmpty()) {
+      out.writeByte(EMPTY_TILE);
+      return;
+    }
+    out.writeByte(BitBoard.maskOf(tile.get()));
+    List<Gem> gems = tile.get().getGems();
+    out.writeByte(gems.size());
+    for (Gem gem : gems) {
+      out.writeShort(gem.ordinal());
+    }
+  }
+
+  private static Optional<Tile> readTile(DataInputStream in) throws IOException {
+    int mask = in.readUnsignedByte();
+    if (mask == EMPTY_TILE) {
+      return Optional.empty();
+    }
+    EnumSet<Direction> directions = EnumSet.noneOf(Direction.class);
+    for (Direction dir : Direction.values()) {
+      if ((mask & (1 << dir.ordinal())) != 0) {
+        directions.add(dir);
+      }
+    }
+    int numGems = in.readUnsignedByte();
+    List<Gem> gems = new ArrayList<>();
+    for (int i = 0; i < numGems; i++) {
+      int ordinal = in.readShort();
+      if (ordinal < 0 || ordinal >= Gem.values().length) {
+        throw new IOException("Unknown gem " + ordinal);
+      }
+      gems.add(Gem.values()[ordinal]);
+    }
+    return Optional.of(new BasicTile(directions, gems));
+  }
+}
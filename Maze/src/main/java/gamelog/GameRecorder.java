@@ -0,0 +1,116 @@
+package gamelog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import model.state.Action;
+import model.state.BasicTurnAction;
+import model.state.State;
+import util.Direction;
+import util.Posn;
+import util.Tuple;
+
+/**
+ * Records the events of a single game as a binary game record (see GameLogFormat): the initial
+ * state, then every move, pass, kick and goal update in the order the Referee applied them. The
+ * record is kept in memory until the game ends, so games recorded at the same time do not
+ * interleave when they are appended to the same GameLog.
+ */
+public class GameRecorder {
+
+  private final ByteArrayOutputStream bytes;
+  private final DataOutputStream out;
+  private boolean finished;
+
+  /**
+   * Starts the record of a game that begins with the given state.
+   * @param initialState the state the game starts in
+   */
+  public GameRecorder(State initialState) {
+    this.bytes = new ByteArrayOutputStream();
+    this.out = new DataOutputStream(bytes);
+    this.write(() -> {
+      out.writeInt(GameLogFormat.MAGIC);
+      out.writeByte(GameLogFormat.VERSION);
+      GameLogFormat.writeState(out, initialState);
+    });
+  }
+
+  /**
+   * Records that the current player made the given action.
+   * @param action the action that was applied
+   */
+  public void recordAction(Action action) {
+    Optional<Tuple<Integer, Direction>> move = action.getPlannedBoardMove();
+    if (move.isEmpty()) {
+      this.recordPass();
+      return;
+    }
+    if (!(action instanceof BasicTurnAction)) {
+      throw new IllegalArgumentException("Cannot record action " + action);
+    }
+    BasicTurnAction turn = (BasicTurnAction) action;
+    this.write(() -> {
+      out.writeByte(GameLogFormat.MOVE);
+      out.writeShort(move.get().getFirst());
+      out.writeByte(move.get().getSecond().ordinal());
+      out.writeByte(Math.floorMod(turn.getRotateAmt(), Direction.values().length));
+      GameLogFormat.writePosn(out, turn.getTargetPos());
+    });
+  }
+
+  /**
+   * Records that the current player passed (or its turn was skipped without a kick).
+   */
+  public void recordPass() {
+    this.write(() -> out.writeByte(GameLogFormat.PASS));
+  }
+
+  /**
+   * Records that the current player was kicked.
+   */
+  public void recordKick() {
+    this.write(() -> out.writeByte(GameLogFormat.KICK));
+  }
+
+  /**
+   * Records that the player that just moved was given a new goal.
+   * @param goal the new goal of the player
+   */
+  public void recordGoal(Posn goal) {
+    this.write(() -> {
+      out.writeByte(GameLogFormat.GOAL);
+      GameLogFormat.writePosn(out, goal);
+    });
+  }
+
+  /**
+   * Ends the record, no more events can be recorded.
+   * @return the complete game record
+   */
+  public byte[] finish() {
+    if (!finished) {
+      this.write(() -> out.writeByte(GameLogFormat.END));
+      this.finished = true;
+    }
+    return bytes.toByteArray();
+  }
+
+  // A write to the record, which is in memory and can only fail if the format is misused
+  private interface Write {
+    void run() throws IOException;
+  }
+
+  private void write(Write write) {
+    if (finished) {
+      throw new IllegalStateException("The game record is already finished.");
+    }
+    try {
+      write.run();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package gamelog;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import model.state.Action;
+import model.state.BasicTurnAction;
+import model.state.MazeState;
+import model.state.PassAction;
+import model.state.PlayerData;
+import model.state.State;
+import util.Direction;
+import util.Posn;
+
+/**
+ * A game read back from a GameLog. Any state of the game is reconstructed by re-applying the
+ * recorded events to the initial state, so a log never has to store more than one full state per
+ * game. Event i (counting from 1) is the i-th move, pass, kick or goal update of the game; goal
+ * updates do not change the state, replaying one checks that the state agrees with the log.
+ */
+public class GameReplay {
+
+  private final State initialState;
+  private final List<Event> events;
+
+  private GameReplay(State initialState, List<Event> events) {
+    this.initialState = initialState;
+    this.events = events;
+  }
+
+  /**
+   * Reads every game of a log.
+   * @param inputStream the log, as written by a GameLog
+   * @return the games in the order they were appended
+   * @throws IOException if the log cannot be read or is not a sequence of complete game records
+   */
+  public static List<GameReplay> readAll(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+    List<GameReplay> games = new ArrayList<>();
+    while (true) {
+      int magic;
+      try {
+        magic = in.readInt();
+      } catch (EOFException e) {
+        return games;
+      }
+      games.add(readGame(in, magic));
+    }
+  }
+
+  /**
+   * Returns the number of recorded events of this game.
+   * @return the number of events
+   */
+  public int getNumberOfEvents() {
+    return events.size();
+  }
+
+  /**
+   * Returns a new copy of the state the game started in, its players have no player APIs.
+   * @return the initial state
+   */
+  public State getInitialState() {
+    // replaying a game consumes the additional goals of its state, so every replay gets a copy
+    return new MazeState(initialState.getBoard(), initialState.getPlayers(),
+        initialState.getSpareTile(), initialState.getPrevMove(), initialState.getAdditionalGoals());
+  }
+
+  /**
+   * Reconstructs the state of the game after the given number of events.
+   * @param numEvents the number of events to apply, 0 for the initial state
+   * @return the state after the events
+   * @throws IllegalArgumentException if the game has fewer events
+   * @throws IllegalStateException if a goal update does not agree with the replayed state
+   */
+  public State stateAfter(int numEvents) {
+    if (numEvents < 0 || numEvents > events.size()) {
+      throw new IllegalArgumentException("The game has " + events.size() + " events.");
+    }
+    State state = getInitialState();
+    for (int i = 0; i < numEvents; i++) {
+      state = events.get(i).applyTo(state);
+    }
+    return state;
+  }
+
+  /**
+   * Reconstructs the state the game ended in.
+   * @return the state after every event
+   */
+  public State getFinalState() {
+    return stateAfter(events.size());
+  }
+
+  // Reads the rest of a game record whose magic number was read
+  private static GameReplay readGame(DataInputStream in, int magic) throws IOException {
+    if (magic != GameLogFormat.MAGIC) {
+      throw new IOException("Not a game record.");
+    }
+    int version = in.readByte();
+    if (version != GameLogFormat.VERSION) {
+      throw new IOException("Unsupported game log version " + version);
+    }
+    State initialState = GameLogFormat.readState(in);
+
+    List<Event> events = new ArrayList<>();
+    while (true) {
+      int tag = in.readByte();
+      switch (tag) {
+        case GameLogFormat.MOVE:
+          int index = in.readShort();
+          Direction direction = GameLogFormat.readDirection(in);
+          int rotations = in.readByte();
+          Posn target = GameLogFormat.readPosn(in);
+          events.add(new Event(Optional.of(move(index, direction, rotations, target)),
+              false, Optional.empty()));
+          break;
+        case GameLogFormat.PASS:
+          events.add(new Event(Optional.of(new PassAction()), false, Optional.empty()));
+          break;
+        case GameLogFormat.KICK:
+          events.add(new Event(Optional.empty(), true, Optional.empty()));
+          break;
+        case GameLogFormat.GOAL:
+          events.add(new Event(Optional.empty(), false, Optional.of(GameLogFormat.readPosn(in))));
+          break;
+        case GameLogFormat.END:
+          return new GameReplay(initialState, events);
+        default:
+          throw new IOException("Unknown event " + tag);
+      }
+    }
+  }
+
+  private static Action move(int index, Direction direction, int rotations, Posn target) {
+    // a position on the slid line, which is on the board even if the board is not square
+    boolean horizontal = direction == Direction.LEFT || direction == Direction.RIGHT;
+    return BasicTurnAction.builder()
+        .slideTilePosition(horizontal ? new Posn(0, index) : new Posn(index, 0))
+        .slideTileDirection(direction)
+        .rotateSpare(rotations)
+        .targetPlayerPosition(target)
+        .build();
+  }
+
+  // A recorded event: an action, a kick or a goal update
+  private static class Event {
+    private final Optional<Action> action;
+    private final boolean kick;
+    private final Optional<Posn> goal;
+
+    private Event(Optional<Action> action, boolean kick, Optional<Posn> goal) {
+      this.action = action;
+      this.kick = kick;
+      this.goal = goal;
+    }
+
+    private State applyTo(State state) {
+      if (action.isPresent()) {
+        return state.applyActionWithoutChecking(action.get());
+      }
+      if (kick) {
+        return state.kickCurrentPlayer();
+      }
+      // the player that just moved is now last in the turn order
+      List<PlayerData> players = state.getPlayers();
+      Posn actual = players.get(players.size() - 1).getGoalLocation();
+      if (!actual.equals(goal.get())) {
+        throw new IllegalStateException("Replayed goal " + actual + " does not match the log.");
+      }
+      return state;
+    }
+  }
+}
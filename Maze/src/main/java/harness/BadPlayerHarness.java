@@ -1,6 +1,7 @@
 package harness;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.io.InputStream;
@@ -16,15 +17,19 @@ import model.state.State;
 import observer.GUIObserver;
 import referee.Player;
 import referee.Referee;
+import remote.IsolatedPlayer;
 import util.Tuple;
 import util.Util;
 
 public class BadPlayerHarness {
 
+  private static final String ISOLATED_FLAG = "--isolated";
+
   public static void main(String[] args) {
     InputStream inputStream = System.in;
     PrintStream outputStream = System.out;
-    badPlayerTestHarness(inputStream, outputStream);
+    boolean isolated = Arrays.asList(args).contains(ISOLATED_FLAG);
+    badPlayerTestHarness(inputStream, outputStream, isolated);
     System.exit(0);
   }
 
@@ -33,14 +38,28 @@ public class BadPlayerHarness {
    * This is for both bad player harness 1 and 2 (Milestone 7 and 8)
    */
   public static boolean badPlayerTestHarness(InputStream inputStream, PrintStream outputStream) {
+    return badPlayerTestHarness(inputStream, outputStream, false);
+  }
+
+  /*
+   * Same as above, but if isolated is true every player runs in its own child process, so that
+   * players stuck in an infinite loop are killed instead of spinning until the harness exits
+   */
+  public static boolean badPlayerTestHarness(InputStream inputStream, PrintStream outputStream,
+      boolean isolated) {
     try {
       ObjectMapper mapper = JsonUtils.getMapper();
       JsonParser parser = JsonUtils.getJsonParser(inputStream, mapper);
 
-      List<Player> players = new ArrayList<>(
-          Arrays.asList(mapper.readValue(parser, PlayerAPIJson[].class)))
-          .stream().map(PlayerAPIJson::build)
-          .collect(Collectors.toList());
+      List<Player> players = new ArrayList<>();
+      for (JsonNode playerSpec : mapper.readValue(parser, JsonNode[].class)) {
+        if (isolated) {
+          players.add(new IsolatedPlayer(playerSpec));
+        }
+        else {
+          players.add(mapper.treeToValue(playerSpec, PlayerAPIJson.class).build());
+        }
+      }
 
       StateJson stateJson = mapper.readValue(parser, StateJson.class);
 
@@ -53,6 +72,11 @@ public class BadPlayerHarness {
       //ENABLE FOR MILESTONE 9 LOCAL TESTING:
       Util.reverseList(players);
       Tuple<List<Player>, List<Player>> winnersAndKicked = referee.runFullGame(players);
+      for (Player player : players) {
+        if (player instanceof IsolatedPlayer) {
+          ((IsolatedPlayer) player).close();
+        }
+      }
 
       List<String> winners = winnersAndKicked.getFirst()
           .stream()
@@ -71,7 +95,7 @@ public class BadPlayerHarness {
       outputStream.println(JsonUtils.writeObjectToJson(output));
       return true;
     } catch (IOException e) {
-      System.out.println("Encountered issue parsing JSON...\n" + e.getMessage());
+      outputStream.println("Encountered issue parsing JSON...\n" + e.getMessage());
       e.printStackTrace();
       return false;
     }
@@ -0,0 +1,248 @@
+package harness;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import json.JsonUtils;
+
+/**
+ * Runs many cases of the StrategyHarness or StateHarness within a single JVM, so a regression
+ * corpus pays for JVM startup, Jackson initialization and JIT warm-up only once. Cases are run on
+ * a pool of worker threads, their outputs are printed in input order and the latency of every case
+ * is reported on the error stream.
+ *
+ * Usage: BatchHarness (strategy | state) [directory] [--workers n]
+ * - With a directory, every file ending in -in.json is one case, in numeric order of the file names.
+ * - Without a directory, the cases are read from standard input as one stream of JSON values, where
+ *   every 3 (strategy) or 4 (state) consecutive values make up one case.
+ */
+public class BatchHarness {
+
+  private static final String IN_FILE_SUFFIX = "-in.json";
+  private static final String WORKERS_FLAG = "--workers";
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /**
+   * The harnesses that can be run in batch mode.
+   */
+  public enum Mode {
+    STRATEGY(3, StrategyHarness::strategyTestHarness),
+    STATE(4, StateHarness::stateTestHarness);
+
+    private final int valuesPerCase;
+    private final BiPredicate<InputStream, PrintStream> harness;
+
+    Mode(int valuesPerCase, BiPredicate<InputStream, PrintStream> harness) {
+      this.valuesPerCase = valuesPerCase;
+      this.harness = harness;
+    }
+  }
+
+  public static void main(String[] args) {
+    boolean success = batchHarness(args, System.in, System.out, System.err);
+    System.exit(success ? 0 : 1);
+  }
+
+  /**
+   * Runs the batch configured by the given arguments, reading the cases from the input stream
+   * unless a directory is given.
+   * @param args the arguments of main
+   * @param inputStream where the cases are read from without a directory
+   * @param outputStream where the output of every case is printed
+   * @param latencyStream where the latencies and usage errors are printed
+   * @return if the arguments were valid and every case was handled successfully
+   */
+  public static boolean batchHarness(String[] args, InputStream inputStream,
+      PrintStream outputStream, PrintStream latencyStream) {
+    try {
+      Mode mode = Mode.valueOf(args[0].toUpperCase());
+      int workers = Runtime.getRuntime().availableProcessors();
+      List<BatchCase> cases = null;
+
+      for (int i = 1; i < args.length; i++) {
+        if (args[i].equals(WORKERS_FLAG)) {
+          workers = Integer.parseInt(args[++i]);
+        }
+        else {
+          cases = readCasesFromDirectory(Paths.get(args[i]));
+        }
+      }
+      if (cases == null) {
+        cases = readCasesFromStream(inputStream, mode);
+      }
+
+      return batchTestHarness(mode, cases, workers, outputStream, latencyStream);
+    } catch (IOException | RuntimeException e) {
+      latencyStream.println("Usage: BatchHarness (strategy | state) [directory] [--workers n]\n"
+          + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Runs the given cases on a pool of workers and prints their outputs in the order of the cases.
+   * @param mode the harness to run every case with
+   * @param cases the cases to run
+   * @param workers the number of worker threads
+   * @param outputStream where the output of every case is printed
+   * @param latencyStream where the latency of every case and of the whole batch is printed
+   * @return if every case was handled successfully by its harness
+   */
+  public static boolean batchTestHarness(Mode mode, List<BatchCase> cases, int workers,
+      PrintStream outputStream, PrintStream latencyStream) {
+
+    long batchStart = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    boolean allSucceeded = true;
+    try {
+      List<Future<BatchResult>> results = new ArrayList<>();
+      for (BatchCase batchCase : cases) {
+        results.add(pool.submit(() -> runCase(mode, batchCase)));
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        BatchResult result = results.get(i).get();
+        outputStream.print(result.output);
+        latencyStream.printf("%s: %.3f ms%n", cases.get(i).name, result.nanos / NANOS_PER_MILLI);
+        allSucceeded &= result.succeeded;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      latencyStream.println("Case failed unexpectedly: " + e.getCause());
+      return false;
+    } finally {
+      pool.shutdownNow();
+    }
+
+    latencyStream.printf("%d cases: %.3f ms%n", cases.size(),
+        (System.nanoTime() - batchStart) / NANOS_PER_MILLI);
+    return allSucceeded;
+  }
+
+  /**
+   * Reads every file ending in -in.json in the given directory as one case, ordered by the number
+   * the file name starts with (e.g. 2-in.json before 10-in.json).
+   * @param directory the directory containing the test inputs
+   * @return the cases in order
+   * @throws IOException if the directory or one of the files cannot be read
+   */
+  public static List<BatchCase> readCasesFromDirectory(Path directory) throws IOException {
+    List<Path> inputs;
+    try (Stream<Path> files = Files.list(directory)) {
+      inputs = files
+          .filter(file -> file.getFileName().toString().endsWith(IN_FILE_SUFFIX))
+          .sorted(Comparator.comparingLong(BatchHarness::leadingNumber)
+              .thenComparing(file -> file.getFileName().toString()))
+          .collect(Collectors.toList());
+    }
+
+    List<BatchCase> cases = new ArrayList<>();
+    for (Path input : inputs) {
+      cases.add(new BatchCase(input.getFileName().toString(), Files.readAllBytes(input)));
+    }
+    return cases;
+  }
+
+  /**
+   * Splits a stream of JSON values into cases of as many values as the given harness reads.
+   * @param inputStream the stream of JSON values
+   * @param mode the harness the cases are for
+   * @return the cases in order, the last case may be incomplete if the stream ended early
+   * @throws IOException if the stream is not a sequence of JSON values
+   */
+  public static List<BatchCase> readCasesFromStream(InputStream inputStream, Mode mode)
+      throws IOException {
+
+    ObjectMapper mapper = JsonUtils.getMapper();
+    JsonParser parser = JsonUtils.getJsonParser(inputStream, mapper);
+
+    List<BatchCase> cases = new ArrayList<>();
+    ByteArrayOutputStream current = new ByteArrayOutputStream();
+    int valuesRead = 0;
+
+    while (parser.nextToken() != null) {
+      JsonNode value = mapper.readTree(parser);
+      current.write(mapper.writeValueAsBytes(value));
+      current.write('\n');
+      valuesRead++;
+      if (valuesRead % mode.valuesPerCase == 0) {
+        cases.add(new BatchCase("case " + cases.size(), current.toByteArray()));
+        current.reset();
+      }
+    }
+    if (current.size() > 0) {
+      cases.add(new BatchCase("case " + cases.size(), current.toByteArray()));
+    }
+    return cases;
+  }
+
+  // Runs a single case, capturing its output
+  private static BatchResult runCase(Mode mode, BatchCase batchCase) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    PrintStream outputStream = new PrintStream(output, true, StandardCharsets.UTF_8);
+
+    long start = System.nanoTime();
+    boolean succeeded = mode.harness.test(new ByteArrayInputStream(batchCase.input), outputStream);
+    long nanos = System.nanoTime() - start;
+
+    outputStream.flush();
+    return new BatchResult(output.toString(StandardCharsets.UTF_8), nanos, succeeded);
+  }
+
+  // The number a file name starts with, files without one are sorted last
+  private static long leadingNumber(Path file) {
+    String name = file.getFileName().toString();
+    int end = 0;
+    while (end < name.length() && Character.isDigit(name.charAt(end))) {
+      end++;
+    }
+    return end == 0 ? Long.MAX_VALUE : Long.parseLong(name.substring(0, end));
+  }
+
+  /**
+   * A single input of a harness.
+   */
+  public static class BatchCase {
+    private final String name;
+    private final byte[] input;
+
+    public BatchCase(String name, byte[] input) {
+      this.name = name;
+      this.input = input;
+    }
+  }
+
+  // The captured output of a single case
+  private static class BatchResult {
+    private final String output;
+    private final long nanos;
+    private final boolean succeeded;
+
+    private BatchResult(String output, long nanos, boolean succeeded) {
+      this.output = output;
+      this.nanos = nanos;
+      this.succeeded = succeeded;
+    }
+  }
+}
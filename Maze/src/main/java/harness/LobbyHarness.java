@@ -0,0 +1,74 @@
+package harness;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import server.LobbyServer;
+
+/**
+ * Runs a LobbyServer until the process is killed.
+ *
+ * Usage: LobbyHarness port [--games n] [--wait ms]
+ * At most n games (one per processor by default) are played at the same time, and waiting players
+ * wait up to ms milliseconds (20000 by default) for more players to join. The number of waiting
+ * players, active games and finished games is printed as a JSON object every few seconds.
+ */
+public class LobbyHarness {
+
+  private static final long DEFAULT_WAIT_MILLIS = 20000;
+  private static final long STATUS_INTERVAL_SECS = 5;
+
+  public static void main(String[] args) {
+    PrintStream outputStream = System.out;
+    if (!lobbyHarness(args, outputStream)) {
+      System.exit(1);
+    }
+  }
+
+  // Runs the lobby configured by the given arguments, only returns if it could not be started
+  public static boolean lobbyHarness(String[] args, PrintStream outputStream) {
+    try {
+      if (args.length == 0) {
+        throw new IllegalArgumentException("Missing port");
+      }
+      int port = Integer.parseInt(args[0]);
+      int games = Runtime.getRuntime().availableProcessors();
+      long waitMillis = DEFAULT_WAIT_MILLIS;
+      for (int i = 1; i < args.length; i += 2) {
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("Missing value of " + args[i]);
+        }
+        switch (args[i]) {
+          case "--games":
+            games = Integer.parseInt(args[i + 1]);
+            break;
+          case "--wait":
+            waitMillis = Long.parseLong(args[i + 1]);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i]);
+        }
+      }
+
+      LobbyServer lobby = new LobbyServer(port, games, waitMillis);
+      lobby.start();
+      while (true) {
+        TimeUnit.SECONDS.sleep(STATUS_INTERVAL_SECS);
+        ObjectNode status = JsonNodeFactory.instance.objectNode();
+        status.put("waiting", lobby.getNumWaitingPlayers());
+        status.put("active", lobby.getNumActiveGames());
+        status.put("finished", lobby.getNumGamesFinished());
+        outputStream.println(status);
+        outputStream.flush();
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      outputStream.println("Could not start the lobby: " + e.getMessage());
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return true;
+    }
+  }
+}
@@ -4,16 +4,21 @@ package harness;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.Arrays;
+import observer.AsyncObserver;
+import observer.AsyncObserver.OverflowPolicy;
 import observer.GUIObserver;
 import observer.Observer;
 
 public class ObserverHarness {
 
+  // The GUI lets the user step through every state, so no state may be dropped
+  private static final int MAX_PENDING_STATES = 64;
+
   public static void main(String[] args) {
     InputStream inputStream = System.in;
     PrintStream outputStream = System.out;
 
-    Observer observer = new GUIObserver();
+    Observer observer = new AsyncObserver(new GUIObserver(), MAX_PENDING_STATES, OverflowPolicy.BLOCK);
     RefereeHarness.refereeTestHarness(inputStream, outputStream, Arrays.asList(observer));
   }
 
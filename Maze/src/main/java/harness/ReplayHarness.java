@@ -0,0 +1,57 @@
+package harness;
+
+import gamelog.GameReplay;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import json.JsonUtils;
+import json.StateJson;
+
+/**
+ * Reconstructs a state of a recorded game from a game log (see TournamentHarness --log).
+ *
+ * Usage: ReplayHarness file [game [events]]
+ * - With only the file, prints the number of games in the log and the number of events of each.
+ * - With a game (counting from 0), prints its final state as a RefereeState, with a number of
+ *   events, the state after that many events of the game.
+ */
+public class ReplayHarness {
+
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      System.err.println("Usage: ReplayHarness file [game [events]]");
+      System.exit(1);
+    }
+    try (InputStream inputStream = Files.newInputStream(Paths.get(args[0]))) {
+      boolean success = replayTestHarness(args, inputStream, System.out);
+      System.exit(success ? 0 : 1);
+    } catch (IOException e) {
+      System.err.println("Unable to read " + args[0] + ": " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  // Prints the summary of the log or the requested state of one of its games as JSON
+  public static boolean replayTestHarness(String[] args, InputStream inputStream, PrintStream outputStream) {
+    try {
+      List<GameReplay> games = GameReplay.readAll(inputStream);
+      if (args.length < 2) {
+        int[] events = games.stream().mapToInt(GameReplay::getNumberOfEvents).toArray();
+        outputStream.println(JsonUtils.writeObjectToJson(events));
+        return true;
+      }
+
+      GameReplay game = games.get(Integer.parseInt(args[1]));
+      int numEvents = args.length > 2 ? Integer.parseInt(args[2]) : game.getNumberOfEvents();
+      outputStream.println(JsonUtils.writeObjectToJson(
+          StateJson.serializeRefereeState(game.stateAfter(numEvents))));
+      return true;
+    } catch (IOException | RuntimeException e) {
+      outputStream.println("Unable to replay the game log...\n" + e.getMessage());
+      return false;
+    }
+  }
+}
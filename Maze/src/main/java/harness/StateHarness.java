@@ -7,11 +7,13 @@ import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import json.JsonUtils;
 import json.StateJson;
+import model.board.Board;
+import model.board.Tile;
 import util.Direction;
-import model.state.Action;
 import model.state.BasicTurnAction;
 import model.state.BasicTurnAction.BasicTurnActionBuilder;
 import model.state.PlayerData;
@@ -51,7 +53,7 @@ public class StateHarness {
       outputStream.println(JsonUtils.writeObjectToJson(accessibleTilePosns));
       return true;
     } catch (IOException e) {
-      System.out.println("Encountered issue parsing JSON...\n" + e.getMessage());
+      outputStream.println("Encountered issue parsing JSON...\n" + e.getMessage());
       e.printStackTrace();
       return false;
     }
@@ -65,31 +67,39 @@ public class StateHarness {
     int width = state.getBoardWidth();
     int height = state.getBoardHeight();
 
+    // a position on the slid line, which is on the board even if the board is not square
+    boolean horizontal = direction == Direction.LEFT || direction == Direction.RIGHT;
+    Posn slidePosn = horizontal ? new Posn(0, index) : new Posn(index, 0);
     BasicTurnActionBuilder builder = BasicTurnAction.builder()
-        .slideTilePosition(new Posn(index, index))
+        .slideTilePosition(slidePosn)
         .rotateSpare(clockwiseRotations)
         .slideTileDirection(direction);
 
     PlayerData currentPlayer = state.whichPlayerTurn();
     Posn currentLoc = currentPlayer.getCurrentLocation();
 
+    BasicTurnAction slide = builder.targetPlayerPosition(currentLoc).build();
+
     Posn playerLocationAfterSlide = currentPlayer.updateCurrentLocationIfOnSlide(
-        builder.targetPlayerPosition(currentLoc).build().getPlannedBoardMove(),
-        width, height).getCurrentLocation();
+        slide.getPlannedBoardMove(), width, height).getCurrentLocation();
 
     accessibleTilePosns.add(playerLocationAfterSlide);
 
-    for (int row = 0; row < state.getBoardHeight(); row++) {
-      for (int col = 0; col < state.getBoardWidth(); col++) {
-
-        Posn target = new Posn(col, row);
-
-        Action action = builder
-            .targetPlayerPosition(target)
-            .build();
-
-        if(state.canApplyAction(action) && !accessibleTilePosns.contains(target)) {
-          accessibleTilePosns.add(target);
+    // Every target is reachable by the same slide, so the board is slid and searched once instead
+    // of validating an action for every target
+    if(slide.isValidSlideOn(state.getBoardView(), state.getPrevMove())) {
+      Board board = state.getBoard();
+      Tile spare = state.getSpareTile();
+      spare.rotateCounterClockwiseNTimes(clockwiseRotations);
+      board.slideSafely(slidePosn, direction, spare);
+
+      Set<Tile> accessible = board.findAllAccessibleTiles(playerLocationAfterSlide);
+      for (int row = 0; row < height; row++) {
+        for (int col = 0; col < width; col++) {
+          Posn target = new Posn(col, row);
+          if(accessible.contains(board.getTile(target).get()) && !accessibleTilePosns.contains(target)) {
+            accessibleTilePosns.add(target);
+          }
         }
       }
     }
@@ -47,7 +47,7 @@ public class StrategyHarness {
       return true;
 
     } catch (IOException e) {
-      System.out.println("Encountered issue parsing JSON...\n" + e.getMessage());
+      outputStream.println("Encountered issue parsing JSON...\n" + e.getMessage());
       e.printStackTrace();
       return false;
     }
@@ -0,0 +1,159 @@
+package harness;
+
+import client.ClientSwarm;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import json.JsonUtils;
+import metrics.HistogramMetrics;
+import remote.ProtocolExtension;
+import server.LobbyServer;
+
+/**
+ * Measures the capacity of a LobbyServer by connecting a swarm of synthetic players to one running
+ * in this process (see ClientSwarm).
+ *
+ * Usage: SwarmHarness [--players n] [--rate r] [--misbehave f] [--seed s] [--games n] [--wait ms]
+ *   [--extensions e1,e2] [--threads t] [--timeout secs]
+ * n players (1000 by default) arrive at r players per second (100 by default), a fraction f of
+ * them misbehaves (none by default). The lobby plays at most n games at the same time (one per
+ * processor by default) and waits up to ms milliseconds (1000 by default) for more players to
+ * join. The players compute their moves on t threads (one per processor by default), however many
+ * of them are connected. The swarm is done once every player that could get a game finished it, or after secs
+ * seconds (600 by default).
+ *
+ * The input is a JSON array of player specs as taken by the BadPlayerHarness, the output a JSON
+ * object with the number of players, misbehaving players, players that finished and finished games, the games finished
+ * per second, and the metrics of the lobby: among them the signup latency ("signup.latency"), the
+ * time spent waiting for a game ("lobby.wait") and the round trip of every request
+ * ("player.<method>"), as printed by the TournamentHarness.
+ */
+public class SwarmHarness {
+
+  private static final int DEFAULT_PLAYERS = 1000;
+  private static final double DEFAULT_RATE = 100;
+  private static final long DEFAULT_WAIT_MILLIS = 1000;
+  private static final long DEFAULT_TIMEOUT_SECS = 600;
+  // How long the lobby is given to sign up the last players after they sent their names
+  private static final long SETTLE_MILLIS = 1000;
+  private static final long POLL_MILLIS = 100;
+
+  public static void main(String[] args) {
+    InputStream inputStream = System.in;
+    PrintStream outputStream = System.out;
+    boolean success = swarmHarness(args, inputStream, outputStream);
+    // the threads of players that never finished would keep the process alive
+    System.exit(success ? 0 : 1);
+  }
+
+  // Runs the swarm configured by the given arguments and prints its statistics as JSON
+  public static boolean swarmHarness(String[] args, InputStream inputStream, PrintStream outputStream) {
+    try {
+      int players = DEFAULT_PLAYERS;
+      double rate = DEFAULT_RATE;
+      double misbehave = 0;
+      long seed = 0;
+      int games = Runtime.getRuntime().availableProcessors();
+      int threads = Runtime.getRuntime().availableProcessors();
+      long waitMillis = DEFAULT_WAIT_MILLIS;
+      Set<ProtocolExtension> extensions = EnumSet.noneOf(ProtocolExtension.class);
+      long timeoutSecs = DEFAULT_TIMEOUT_SECS;
+      for (int i = 0; i < args.length; i += 2) {
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("Missing value of " + args[i]);
+        }
+        String value = args[i + 1];
+        switch (args[i]) {
+          case "--players":
+            players = Integer.parseInt(value);
+            break;
+          case "--rate":
+            rate = Double.parseDouble(value);
+            break;
+          case "--misbehave":
+            misbehave = Double.parseDouble(value);
+            break;
+          case "--seed":
+            seed = Long.parseLong(value);
+            break;
+          case "--games":
+            games = Integer.parseInt(value);
+            break;
+          case "--wait":
+            waitMillis = Long.parseLong(value);
+            break;
+          case "--extensions":
+            for (String name : value.split(",")) {
+              extensions.add(ProtocolExtension.fromString(name.trim()).orElseThrow(
+                  () -> new IllegalArgumentException("Unknown extension " + name)));
+            }
+            break;
+          case "--threads":
+            threads = Integer.parseInt(value);
+            break;
+          case "--timeout":
+            timeoutSecs = Long.parseLong(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i]);
+        }
+      }
+
+      ObjectMapper mapper = JsonUtils.getMapper();
+      JsonParser parser = JsonUtils.getJsonParser(inputStream, mapper);
+      JsonNode[] playerSpecs = mapper.readValue(parser, JsonNode[].class);
+
+      HistogramMetrics metrics = new HistogramMetrics();
+      try (LobbyServer lobby = new LobbyServer(0, games, waitMillis)) {
+        lobby.recordMetricsTo(metrics);
+        lobby.start();
+        try (ClientSwarm swarm = new ClientSwarm("localhost", lobby.getPort(), extensions,
+            Arrays.asList(playerSpecs), misbehave, seed, threads)) {
+
+          long start = System.nanoTime();
+          swarm.launch(players, rate);
+          awaitGames(lobby, TimeUnit.SECONDS.toNanos(timeoutSecs) - (System.nanoTime() - start));
+          double seconds = (System.nanoTime() - start) / 1e9;
+
+          ObjectNode json = mapper.createObjectNode();
+          json.put("players", swarm.getNumLaunched());
+          json.put("misbehaving", swarm.getNumMisbehaving());
+          json.put("finished", swarm.getNumFinished());
+          json.put("games", lobby.getNumGamesFinished());
+          json.put("seconds", seconds);
+          json.put("gamesPerSecond", lobby.getNumGamesFinished() / seconds);
+          json.set("metrics", TournamentHarness.serializeMetrics(metrics, mapper));
+          outputStream.println(json);
+        }
+      }
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      outputStream.println("Encountered issue setting up the swarm...\n" + e.getMessage());
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  // Waits until no game is played and too few players wait to start another, or the time is up
+  private static void awaitGames(LobbyServer lobby, long timeoutNanos) throws InterruptedException {
+    long settled = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS);
+    long deadline = System.nanoTime() + timeoutNanos;
+    while (deadline - System.nanoTime() > 0) {
+      if (System.nanoTime() - settled > 0 && lobby.getNumActiveGames() == 0
+          && lobby.getNumWaitingPlayers() < LobbyServer.MIN_PLAYERS_PER_GAME) {
+        return;
+      }
+      TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+    }
+  }
+}
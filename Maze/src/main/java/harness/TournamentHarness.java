@@ -0,0 +1,196 @@
+package harness;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import gamelog.GameLog;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import json.JsonUtils;
+import json.PlayerAPIJson;
+import metrics.Histogram;
+import metrics.HistogramMetrics;
+import referee.GameResult.EndReason;
+import referee.Player;
+import tournament.Tournament;
+import tournament.TournamentResult;
+import util.Tuple;
+
+/**
+ * Runs a tournament of many games between the given players on all cores.
+ *
+ * Usage: TournamentHarness [--games n] [--sizes 7x7,9x9] [--seed s] [--workers n] [--trusted]
+ *   [--log file] [--metrics] [--repetitions n]
+ * The players are read from standard input as a JSON array of PlayerAPIJson (the same players the
+ * BadPlayerHarness takes), every game gets freshly built players. With --trusted the referees call
+ * the players directly instead of on their own threads (see Referee.trustPlayers). With --log the
+ * record of every game is appended to the given file, see ReplayHarness. With --metrics the
+ * output gets a metrics section with the count, mean, p50, p99 and max of every timer of the
+ * referees and players (durations in microseconds) and the total of every counter. With --repetitions a game ends once
+ * the position at the end of a round was seen n times (see Referee.setRepetitionLimit).
+ */
+public class TournamentHarness {
+
+  private static final int DEFAULT_GAMES = 1000;
+  private static final String DEFAULT_SIZES = "7x7";
+  private static final long DEFAULT_SEED = 0;
+
+  public static void main(String[] args) {
+    InputStream inputStream = System.in;
+    PrintStream outputStream = System.out;
+    tournamentTestHarness(args, inputStream, outputStream);
+    System.exit(0);
+  }
+
+  // Runs the tournament configured by the given arguments and prints its statistics as JSON
+  public static boolean tournamentTestHarness(String[] args, InputStream inputStream, PrintStream outputStream) {
+    try {
+      int games = DEFAULT_GAMES;
+      String sizes = DEFAULT_SIZES;
+      long seed = DEFAULT_SEED;
+      int workers = Runtime.getRuntime().availableProcessors();
+      boolean trusted = false;
+      boolean withMetrics = false;
+      Optional<Path> logFile = Optional.empty();
+      Optional<Integer> repetitionLimit = Optional.empty();
+      for (int i = 0; i < args.length; i++) {
+        if (args[i].equals("--trusted")) {
+          trusted = true;
+          continue;
+        }
+        if (args[i].equals("--metrics")) {
+          withMetrics = true;
+          continue;
+        }
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("Missing value of " + args[i]);
+        }
+        String value = args[++i];
+        switch (args[i - 1]) {
+          case "--games":
+            games = Integer.parseInt(value);
+            break;
+          case "--sizes":
+            sizes = value;
+            break;
+          case "--seed":
+            seed = Long.parseLong(value);
+            break;
+          case "--workers":
+            workers = Integer.parseInt(value);
+            break;
+          case "--log":
+            logFile = Optional.of(Paths.get(value));
+            break;
+          case "--repetitions":
+            repetitionLimit = Optional.of(Integer.parseInt(value));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+        }
+      }
+
+      ObjectMapper mapper = JsonUtils.getMapper();
+      JsonParser parser = JsonUtils.getJsonParser(inputStream, mapper);
+
+      List<Supplier<Player>> factories = new ArrayList<>();
+      for (JsonNode playerSpec : mapper.readValue(parser, JsonNode[].class)) {
+        PlayerAPIJson playerJson = mapper.treeToValue(playerSpec, PlayerAPIJson.class);
+        factories.add(playerJson::build);
+      }
+
+      Tournament tournament = new Tournament(factories, workers, trusted);
+      repetitionLimit.ifPresent(tournament::setRepetitionLimit);
+      Optional<GameLog> gameLog = Optional.empty();
+      if (logFile.isPresent()) {
+        gameLog = Optional.of(GameLog.open(logFile.get()));
+        tournament.recordGamesTo(gameLog.get());
+      }
+      HistogramMetrics metrics = new HistogramMetrics();
+      if (withMetrics) {
+        tournament.recordMetricsTo(metrics);
+      }
+
+      TournamentResult result = tournament.run(games, parseSizes(sizes), seed);
+
+      if (gameLog.isPresent()) {
+        if (gameLog.get().checkError()) {
+          outputStream.println("Unable to write the game log " + logFile.get());
+        }
+        gameLog.get().close();
+      }
+      ObjectNode json = serializeResult(result, mapper);
+      if (withMetrics) {
+        json.set("metrics", serializeMetrics(metrics, mapper));
+      }
+      outputStream.println(json);
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      outputStream.println("Encountered issue setting up the tournament...\n" + e.getMessage());
+      return false;
+    }
+  }
+
+  // Parses sizes of the form 7x7,9x7 into (width, height) pairs
+  private static List<Tuple<Integer, Integer>> parseSizes(String sizes) {
+    List<Tuple<Integer, Integer>> boardSizes = new ArrayList<>();
+    for (String size : sizes.split(",")) {
+      String[] dimensions = size.trim().split("x");
+      boardSizes.add(new Tuple<>(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1])));
+    }
+    return boardSizes;
+  }
+
+  private static ObjectNode serializeResult(TournamentResult result, ObjectMapper mapper) {
+    ObjectNode json = mapper.createObjectNode();
+    json.put("games", result.getGames());
+    json.put("seconds", result.getElapsedSeconds());
+    json.put("games/sec", result.getGamesPerSecond());
+    json.put("mean rounds", result.getMeanRounds());
+    json.put("max rounds", result.getMaxRounds());
+    ObjectNode ends = json.putObject("ends");
+    for (EndReason reason : EndReason.values()) {
+      ends.put(reason.toString(), result.getGamesEndedBy(reason));
+    }
+
+    ArrayNode players = json.putArray("players");
+    for (int i = 0; i < result.getNumberOfPlayers(); i++) {
+      ObjectNode player = players.addObject();
+      player.put("name", result.getName(i));
+      player.put("wins", result.getWins(i));
+      player.put("kicks", result.getKicks(i));
+    }
+    return json;
+  }
+
+  // Timers are durations, printed in microseconds, except for rounds, calls and bytes
+  static JsonNode serializeMetrics(HistogramMetrics metrics, ObjectMapper mapper) {
+    ObjectNode json = mapper.createObjectNode();
+    ObjectNode timers = json.putObject("timers");
+    for (Map.Entry<String, Histogram> timer : metrics.getTimers().entrySet()) {
+      Histogram histogram = timer.getValue();
+      String name = timer.getKey();
+      boolean isCount = name.equals("referee.rounds") || name.endsWith(".calls") || name.contains(".bytes");
+      double unit = isCount ? 1 : 1000;
+      ObjectNode node = timers.putObject(timer.getKey());
+      node.put("count", histogram.getCount());
+      node.put("mean", histogram.getMean() / unit);
+      node.put("p50", histogram.getValueAtPercentile(50) / unit);
+      node.put("p99", histogram.getValueAtPercentile(99) / unit);
+      node.put("max", histogram.getMax() / unit);
+    }
+    ObjectNode counters = json.putObject("counters");
+    metrics.getCounters().forEach(counters::put);
+    return json;
+  }
+}
@@ -0,0 +1,315 @@
+package json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import model.board.Gem;
+import util.Direction;
+
+/**
+ * A compact binary encoding of JSON values, used by the binary-frames extension of the remote
+ * protocol. Every value starts with a one byte tag:
+ * - NULL, FALSE, TRUE: the value itself
+ * - INT: a zig-zag varint
+ * - DOUBLE: the 8 bytes of the double
+ * - STRING: a varint byte length followed by the UTF-8 bytes
+ * - WORD: a varint index into the fixed dictionary of the strings the protocol uses all the time,
+ *   the method names, field names, directions and connectors, followed by the gem names
+ * - ARRAY: a varint length followed by the elements
+ * - OBJECT: a varint number of fields followed by the name (a STRING or WORD) and value of each
+ *
+ * The dictionary makes a state less than a third of its JSON size, and since no value refers to
+ * another, encoded values can be spliced into bigger ones: a POJONode holding an Encoded value is
+ * written as is (see StateJson.encodePublicStateBinary).
+ */
+public class BinaryJson {
+
+  private static final byte NULL = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte INT = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte STRING = 5;
+  private static final byte WORD = 6;
+  private static final byte ARRAY = 7;
+  private static final byte OBJECT = 8;
+
+  // Far deeper than any message of the protocol, so a corrupt frame cannot overflow the stack
+  private static final int MAX_DEPTH = 64;
+
+  // Both sides of a connection must use the same dictionary. The words of the protocol come first
+  // and the gem names, which change with the Gem enum, come last, so a new gem is appended without
+  // shifting the index of any protocol word
+  private static final List<String> WORDS = words();
+  private static final Map<String, Integer> WORD_INDICES = wordIndices();
+
+  /**
+   * An encoded value, spliced into the encoding of the value that holds it.
+   */
+  public static final class Encoded {
+    private final byte[] bytes;
+
+    public Encoded(byte[] bytes) {
+      this.bytes = bytes;
+    }
+  }
+
+  /**
+   * Encodes the given value.
+   * @param value the value to encode
+   * @return the encoding
+   */
+  public static byte[] encode(JsonNode value) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encode(value, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Encodes the given value to the given stream.
+   * @param value the value to encode
+   * @param out the stream to write the encoding to
+   * @throws IllegalArgumentException if the value holds an object that is not JSON
+   */
+  public static void encode(JsonNode value, ByteArrayOutputStream out) {
+    switch (value.getNodeType()) {
+      case NULL:
+      case MISSING:
+        out.write(NULL);
+        break;
+      case BOOLEAN:
+        out.write(value.booleanValue() ? TRUE : FALSE);
+        break;
+      case NUMBER:
+        if (value.canConvertToLong() && value.isIntegralNumber()) {
+          out.write(INT);
+          writeVarLong(out, zigZag(value.longValue()));
+        } else {
+          out.write(DOUBLE);
+          long bits = Double.doubleToLongBits(value.doubleValue());
+          for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+          }
+        }
+        break;
+      case STRING:
+        writeString(value.textValue(), out);
+        break;
+      case ARRAY:
+        out.write(ARRAY);
+        writeVarLong(out, value.size());
+        for (JsonNode element : value) {
+          encode(element, out);
+        }
+        break;
+      case OBJECT:
+        out.write(OBJECT);
+        writeVarLong(out, value.size());
+        for (Iterator<Entry<String, JsonNode>> fields = value.fields(); fields.hasNext(); ) {
+          Entry<String, JsonNode> field = fields.next();
+          writeString(field.getKey(), out);
+          encode(field.getValue(), out);
+        }
+        break;
+      case POJO:
+        encodePojo(((POJONode) value).getPojo(), out);
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot encode " + value.getNodeType());
+    }
+  }
+
+  private static void encodePojo(Object pojo, ByteArrayOutputStream out) {
+    if (pojo instanceof Encoded) {
+      byte[] bytes = ((Encoded) pojo).bytes;
+      out.write(bytes, 0, bytes.length);
+    } else if (pojo instanceof RawValue) {
+      try {
+        encode(JsonUtils.getMapper().readTree(((RawValue) pojo).rawValue().toString()), out);
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Cannot encode raw JSON: " + e.getMessage());
+      }
+    } else {
+      throw new IllegalArgumentException("Cannot encode " + pojo);
+    }
+  }
+
+  /**
+   * Decodes the value encoded in the given bytes.
+   * @param bytes the encoding
+   * @return the value
+   * @throws IOException if the bytes are not the encoding of a single value, or it nests arrays and
+   *     objects too deeply
+   */
+  public static JsonNode decode(byte[] bytes) throws IOException {
+    int[] position = {0};
+    JsonNode value = decode(bytes, position, 0);
+    if (position[0] != bytes.length) {
+      throw new IOException("Trailing bytes after an encoded value.");
+    }
+    return value;
+  }
+
+  private static JsonNode decode(byte[] bytes, int[] position, int depth) throws IOException {
+    if (depth > MAX_DEPTH) {
+      throw new IOException("Encoded value nests deeper than " + MAX_DEPTH + " levels.");
+    }
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    byte tag = readByte(bytes, position);
+    switch (tag) {
+      case NULL:
+        return factory.nullNode();
+      case FALSE:
+        return factory.booleanNode(false);
+      case TRUE:
+        return factory.booleanNode(true);
+      case INT: {
+        long value = unZigZag(readVarLong(bytes, position));
+        return value == (int) value ? factory.numberNode((int) value) : factory.numberNode(value);
+      }
+      case DOUBLE: {
+        long bits = 0;
+        for (int i = 0; i < Double.BYTES; i++) {
+          bits = (bits << 8) | (readByte(bytes, position) & 0xFF);
+        }
+        return factory.numberNode(Double.longBitsToDouble(bits));
+      }
+      case STRING:
+      case WORD:
+        position[0]--;
+        return factory.textNode(readString(bytes, position));
+      case ARRAY: {
+        int size = readLength(bytes, position);
+        ArrayNode array = factory.arrayNode(size);
+        for (int i = 0; i < size; i++) {
+          array.add(decode(bytes, position, depth + 1));
+        }
+        return array;
+      }
+      case OBJECT: {
+        int size = readLength(bytes, position);
+        ObjectNode object = factory.objectNode();
+        for (int i = 0; i < size; i++) {
+          String name = readString(bytes, position);
+          object.set(name, decode(bytes, position, depth + 1));
+        }
+        return object;
+      }
+      default:
+        throw new IOException("Unknown tag " + tag);
+    }
+  }
+
+  private static void writeString(String string, ByteArrayOutputStream out) {
+    Integer word = WORD_INDICES.get(string);
+    if (word != null) {
+      out.write(WORD);
+      writeVarLong(out, word);
+    } else {
+      byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+      out.write(STRING);
+      writeVarLong(out, utf8.length);
+      out.write(utf8, 0, utf8.length);
+    }
+  }
+
+  private static String readString(byte[] bytes, int[] position) throws IOException {
+    byte tag = readByte(bytes, position);
+    if (tag == WORD) {
+      long word = readVarLong(bytes, position);
+      if (word < 0 || word >= WORDS.size()) {
+        throw new IOException("Unknown word " + word);
+      }
+      return WORDS.get((int) word);
+    }
+    if (tag != STRING) {
+      throw new IOException("Expected a string, got tag " + tag);
+    }
+    int length = readLength(bytes, position);
+    String string = new String(bytes, position[0], length, StandardCharsets.UTF_8);
+    position[0] += length;
+    return string;
+  }
+
+  private static byte readByte(byte[] bytes, int[] position) throws IOException {
+    if (position[0] >= bytes.length) {
+      throw new IOException("Unexpected end of an encoded value.");
+    }
+    return bytes[position[0]++];
+  }
+
+  // A length that fits in what is left of the bytes, so a corrupt length cannot allocate too much
+  private static int readLength(byte[] bytes, int[] position) throws IOException {
+    long length = readVarLong(bytes, position);
+    if (length < 0 || length > bytes.length - position[0]) {
+      throw new IOException("Length " + length + " runs past the end of an encoded value.");
+    }
+    return (int) length;
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(byte[] bytes, int[] position) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte next = readByte(bytes, position);
+      value |= (long) (next & 0x7F) << shift;
+      if ((next & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Varint is too long.");
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static List<String> words() {
+    List<String> words = new ArrayList<>(Arrays.asList(
+        "setup", "take-turn", "take-turn-delta", "win", "void", "PASS",
+        "board", "connectors", "treasures", "spare", "plmt", "last", "tiles",
+        "tilekey", "1-image", "2-image", "current", "home", "goto", "color", "order", "moved"));
+    for (Direction direction : Direction.values()) {
+      words.add(direction.toString());
+    }
+    for (char connector : "│─┐└┌┘┬├┴┤┼".toCharArray()) {
+      words.add(Character.toString(connector));
+    }
+    for (Gem gem : Gem.values()) {
+      words.add(gem.toString());
+    }
+    return words;
+  }
+
+  private static Map<String, Integer> wordIndices() {
+    Map<String, Integer> indices = new HashMap<>();
+    for (int i = 0; i < WORDS.size(); i++) {
+      indices.put(WORDS.get(i), i);
+    }
+    return indices;
+  }
+}
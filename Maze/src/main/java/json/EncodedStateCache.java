@@ -0,0 +1,77 @@
+package json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe cache of the encodings of states, such as their JSON text or BinaryJson bytes, so a
+ * state that is sent to many players or observers is encoded once. States never change once they
+ * are created, so an encoding is keyed by the identity of its state and never has to be
+ * invalidated.
+ *
+ * The cache is direct-mapped: every key has a single slot, picked by its identity hash, and a new
+ * encoding replaces whatever was in its slot. The cache holds on to at most one state per slot, and
+ * since the states of a game are encoded in turn, the games running at the same time rarely evict
+ * each other's current state.
+ */
+public final class EncodedStateCache<E> {
+
+  private static final int SLOTS = 64;
+
+  private final AtomicReferenceArray<Entry<E>> entries = new AtomicReferenceArray<>(SLOTS);
+  private final Function<JsonNode, E> encoder;
+
+  /**
+   * Constructs a cache of the encodings the given encoder makes of the serialized states.
+   * @param encoder encodes a serialized state
+   */
+  public EncodedStateCache(Function<JsonNode, E> encoder) {
+    this.encoder = encoder;
+  }
+
+  /**
+   * Constructs a cache of the JSON text of states.
+   * @return the cache
+   */
+  public static EncodedStateCache<String> ofJson() {
+    return new EncodedStateCache<>(tree -> {
+      try {
+        return JsonUtils.writeObjectToJson(tree);
+      } catch (IOException e) {
+        throw new IllegalStateException("A state tree could not be written: " + e.getMessage());
+      }
+    });
+  }
+
+  /**
+   * Returns the encoding of the state with the given key, serializing the state only if it was not
+   * encoded yet.
+   * @param stateKey the key of the state, compared by identity
+   * @param serializer serializes the state if needed
+   * @return the encoding of the state
+   */
+  public E encode(Object stateKey, Supplier<JsonNode> serializer) {
+    int slot = System.identityHashCode(stateKey) & (SLOTS - 1);
+    Entry<E> entry = entries.get(slot);
+    if (entry != null && entry.stateKey == stateKey) {
+      return entry.encoding;
+    }
+
+    E encoding = encoder.apply(serializer.get());
+    entries.set(slot, new Entry<>(stateKey, encoding));
+    return encoding;
+  }
+
+  private static final class Entry<E> {
+    private final Object stateKey;
+    private final E encoding;
+
+    private Entry(Object stateKey, E encoding) {
+      this.stateKey = stateKey;
+      this.encoding = encoding;
+    }
+  }
+}
@@ -1,36 +1,106 @@
 package json;
 
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonParser.Feature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for JSON operations using Jackson.
+ *
+ * A configured ObjectMapper is thread-safe and expensive to create, so every caller shares the same
+ * mapper, writer and one reader per type. The shared mapper must not be reconfigured.
  */
 public class JsonUtils {
 
-  public static ObjectMapper getMapper() {
+  private static final ObjectMapper MAPPER = createMapper();
+  private static final ObjectWriter WRITER = MAPPER.writer();
+  // Leaves flushing to the owner of the generator, who may write more before the bytes go out
+  private static final ObjectWriter STREAM_WRITER =
+      WRITER.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+  private static ObjectMapper createMapper() {
     ObjectMapper mapper = new ObjectMapper();
     mapper.configure(Feature.AUTO_CLOSE_SOURCE, false);
+    mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
     return mapper;
   }
 
+  /**
+   * Returns the mapper shared by every caller, parsers and generators it creates do not close their
+   * streams.
+   * @return the shared mapper
+   */
+  public static ObjectMapper getMapper() {
+    return MAPPER;
+  }
+
+  /**
+   * Returns the shared reader of the given type, it knows how to deserialize the type before the
+   * first value is read.
+   * @param type the type of the values to read
+   * @return the shared reader of the type
+   */
+  public static ObjectReader getReader(Class<?> type) {
+    return READERS.computeIfAbsent(type, MAPPER::readerFor);
+  }
+
   public static JsonParser getJsonParser(InputStream input, ObjectMapper mapper) throws IOException {
     JsonFactory factory = mapper.getFactory();
     return factory.createParser(input);
   }
 
+  /**
+   * Creates a parser of the given stream that does not close it. A parser buffers what it reads
+   * ahead, so a stream of many values should be read with a single parser. Creating the parser
+   * blocks until the first bytes of the stream arrive.
+   * @param input the stream to parse
+   * @return the parser of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  public static JsonParser getJsonParser(InputStream input) throws IOException {
+    return getJsonParser(input, MAPPER);
+  }
+
+  /**
+   * Creates a generator of the given stream that does not close it. The generator buffers what it
+   * writes until it is flushed, and writes root values without a separator.
+   * @param output the stream to write to
+   * @return the generator of the stream
+   * @throws IOException if the generator cannot be created
+   */
+  public static JsonGenerator getJsonGenerator(OutputStream output) throws IOException {
+    JsonGenerator generator = MAPPER.getFactory().createGenerator(output);
+    generator.setRootValueSeparator(null);
+    return generator;
+  }
+
+  /**
+   * Writes the given object with the given generator without flushing it.
+   * @param generator the generator to write with
+   * @param obj the object to write
+   * @throws IOException if the object cannot be written
+   */
+  public static void writeObject(JsonGenerator generator, Object obj) throws IOException {
+    STREAM_WRITER.writeValue(generator, obj);
+  }
+
   public static String writeObjectToJson(Object obj) throws IOException {
-    return new ObjectMapper().writeValueAsString(obj);
+    return WRITER.writeValueAsString(obj);
   }
 
   public static <T> T deserialize(InputStream input, Class<T> classToMapTo) throws IOException {
-    ObjectMapper mapper = getMapper();
-    JsonParser parser = getJsonParser(input, mapper);
-    return mapper.readValue(parser, classToMapTo);
+    return getReader(classToMapTo).readValue(getJsonParser(input), classToMapTo);
   }
 
 }
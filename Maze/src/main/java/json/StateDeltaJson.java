@@ -0,0 +1,172 @@
+package json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.List;
+import java.util.Optional;
+import model.board.Board;
+import model.board.Gem;
+import model.board.Tile;
+import model.state.PlayerDataWrapper;
+import model.state.PlayerStateWrapper;
+import util.Direction;
+import util.Posn;
+
+/**
+ * Serializes the difference between two public states, and applies such a difference to the JSON
+ * of the older state, so a remote player that knows the older state only has to be sent what
+ * changed since (see the delta-states protocol extension of remote.Player).
+ *
+ * A delta is an object with
+ * - "tiles": an array of [row, column, connector, [gem, gem]], the tiles that changed, which is
+ *   the slid line after a single slide
+ * - "order": for every player of the newer state, in turn order, its index among the players of
+ *   the older state, which tells the rotation of turns and the players that were kicked
+ * - "moved": an array of [index, current], the players of the newer state, by index, whose avatar
+ *   moved, along with where it is now
+ * - "spare" and "last": the spare tile and previous move of the newer state, as in a State
+ * Players are told apart by their homes, which never change and are unique in a state.
+ */
+public class StateDeltaJson {
+
+  // A delta that changes more tiles than this fraction of the board is no smaller than the state
+  private static final int MAX_CHANGED_TILES_DIVISOR = 2;
+
+  /**
+   * Serializes the difference from the given older public state to the newer one.
+   * @param older the state the receiver knows
+   * @param newer the state to send
+   * @return the delta, or empty if the boards have different sizes or so many tiles changed that
+   *     the full state should be sent instead
+   */
+  public static Optional<JsonNode> serializeDelta(PlayerStateWrapper older, PlayerStateWrapper newer) {
+    Board before = older.getBoard();
+    Board after = newer.getBoard();
+    int width = after.getBoardWidth();
+    int height = after.getBoardHeight();
+    if (!before.isBoardBuilt() || !after.isBoardBuilt()
+        || before.getBoardWidth() != width || before.getBoardHeight() != height) {
+      return Optional.empty();
+    }
+
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    ArrayNode tiles = factory.arrayNode();
+    int maxChangedTiles = (width * height) / MAX_CHANGED_TILES_DIVISOR;
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        Posn posn = new Posn(col, row);
+        Tile tile = after.getTile(posn).get();
+        if (isSameTile(before.getTile(posn).get(), tile)) {
+          continue;
+        }
+        if (tiles.size() == maxChangedTiles) {
+          return Optional.empty();
+        }
+        ArrayNode change = tiles.addArray();
+        change.add(row);
+        change.add(col);
+        change.add("" + Direction.directionsToSpecialChar(tile.getTileDirections()));
+        ArrayNode treasure = change.addArray();
+        for (Gem gem : tile.getGems()) {
+          treasure.add(gem.toString());
+        }
+      }
+    }
+
+    List<PlayerDataWrapper> playersBefore = older.getPlayerPublicInfo();
+    List<PlayerDataWrapper> playersAfter = newer.getPlayerPublicInfo();
+    ArrayNode order = factory.arrayNode();
+    ArrayNode moved = factory.arrayNode();
+    for (int index = 0; index < playersAfter.size(); index++) {
+      PlayerDataWrapper player = playersAfter.get(index);
+      int indexBefore = indexOfHome(playersBefore, player.getHomeLocation());
+      if (indexBefore < 0) {
+        // a player the receiver does not know, only the full state describes it
+        return Optional.empty();
+      }
+      order.add(indexBefore);
+      if (!playersBefore.get(indexBefore).getCurrentLocation().equals(player.getCurrentLocation())) {
+        ArrayNode move = moved.addArray();
+        move.add(index);
+        move.add(player.getCurrentLocation().serialize());
+      }
+    }
+
+    ObjectNode delta = factory.objectNode();
+    delta.set("tiles", tiles);
+    delta.set("order", order);
+    delta.set("moved", moved);
+    delta.set("spare", TileJson.serialize(newer.getSpare()));
+    delta.set("last", StateJson.serializeLastAction(newer.getPrevMove()));
+    return Optional.of(delta);
+  }
+
+  /**
+   * Applies the given delta to the JSON of the state it was computed from, turning it into the JSON
+   * of the newer state.
+   * @param state the JSON of the older state, it is changed
+   * @param delta the delta to apply
+   * @throws IllegalArgumentException if the delta does not fit the state
+   */
+  public static void applyDelta(ObjectNode state, JsonNode delta) {
+    if (!delta.path("spare").isObject() || !delta.path("order").isArray()
+        || !delta.path("moved").isArray()) {
+      throw new IllegalArgumentException("The delta has no spare tile or players.");
+    }
+    JsonNode connectors = state.path("board").path("connectors");
+    JsonNode treasures = state.path("board").path("treasures");
+    for (JsonNode change : delta.path("tiles")) {
+      int row = change.path(0).asInt(-1);
+      int col = change.path(1).asInt(-1);
+      JsonNode connectorRow = connectors.path(row);
+      JsonNode treasureRow = treasures.path(row);
+      if (!connectorRow.isArray() || !treasureRow.isArray() || col < 0 || col >= connectorRow.size()
+          || col >= treasureRow.size() || !change.path(3).isArray()) {
+        throw new IllegalArgumentException("The delta changes a tile that is not on the board.");
+      }
+      ((ArrayNode) connectorRow).set(col, change.get(2));
+      ((ArrayNode) treasureRow).set(col, change.get(3));
+    }
+    state.set("plmt", applyPlayerDelta(state.path("plmt"), delta));
+    for (String field : List.of("spare", "last")) {
+      state.set(field, delta.get(field));
+    }
+  }
+
+  // Reorders the players of the older state and moves the avatars the delta moved
+  private static ArrayNode applyPlayerDelta(JsonNode playersBefore, JsonNode delta) {
+    ArrayNode players = JsonNodeFactory.instance.arrayNode();
+    for (JsonNode index : delta.get("order")) {
+      JsonNode player = playersBefore.path(index.asInt(-1));
+      if (!index.isInt() || !player.isObject()) {
+        throw new IllegalArgumentException("The delta reorders a player that is not in the state.");
+      }
+      players.add(player.deepCopy());
+    }
+    for (JsonNode move : delta.get("moved")) {
+      JsonNode player = players.path(move.path(0).asInt(-1));
+      if (!move.path(0).isInt() || !player.isObject() || !move.path(1).isObject()) {
+        throw new IllegalArgumentException("The delta moves a player that is not in the state.");
+      }
+      ((ObjectNode) player).set("current", move.get(1));
+    }
+    return players;
+  }
+
+  private static int indexOfHome(List<PlayerDataWrapper> players, Posn home) {
+    for (int index = 0; index < players.size(); index++) {
+      if (players.get(index).getHomeLocation().equals(home)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  // Tiles are serialized with their gems in order, so they are the same only if their gems are
+  private static boolean isSameTile(Tile first, Tile second) {
+    return first.getTileDirections().equals(second.getTileDirections())
+        && first.getGems().equals(second.getGems());
+  }
+}
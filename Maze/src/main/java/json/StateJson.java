@@ -28,6 +28,11 @@ import util.Tuple;
  */
 public class StateJson {
 
+  private static final EncodedStateCache<String> PUBLIC_STATES = EncodedStateCache.ofJson();
+  private static final EncodedStateCache<String> REFEREE_STATES = EncodedStateCache.ofJson();
+  private static final EncodedStateCache<BinaryJson.Encoded> BINARY_PUBLIC_STATES =
+      new EncodedStateCache<>(tree -> new BinaryJson.Encoded(BinaryJson.encode(tree)));
+
   private final Board board;
   private final Tile spare;
   private final List<PlayerData> players;
@@ -89,13 +94,41 @@ public class StateJson {
   public static JsonNode serializeRefereeState(State s) {
     ObjectMapper mapper = JsonUtils.getMapper();
     ObjectNode stateJson = mapper.getNodeFactory().objectNode();
-    stateJson.set("board", BoardJson.serialize(s.getBoard()));
-    stateJson.set("spare", TileJson.serialize(s.getSpareTile()));
+    stateJson.set("board", BoardJson.serialize(s.getBoardView()));
+    stateJson.set("spare", TileJson.serialize(s.getSpareTileView()));
     stateJson.set("plmt", PlayerJson.serializeRefereePlmt(s.getPlayers()));
     stateJson.set("last", serializeLastAction(s.getPrevMove()));
     return stateJson;
   }
 
+  /**
+   * Encodes the public state the given wrapper shows as JSON text. The public state is the same for
+   * every player, so every state is encoded at most once for all players (see EncodedStateCache).
+   * @param s the state to encode
+   * @return the JSON text of serializePublicState
+   */
+  public static String encodePublicState(PlayerStateWrapper s) {
+    return PUBLIC_STATES.encode(s.getStateKey(), () -> serializePublicState(s));
+  }
+
+  /**
+   * Encodes the public state the given wrapper shows in BinaryJson, at most once for all players.
+   * @param s the state to encode
+   * @return the BinaryJson encoding of serializePublicState, to be spliced into a request
+   */
+  public static BinaryJson.Encoded encodePublicStateBinary(PlayerStateWrapper s) {
+    return BINARY_PUBLIC_STATES.encode(s.getStateKey(), () -> serializePublicState(s));
+  }
+
+  /**
+   * Encodes the given state as the JSON text of a RefereeState, at most once for all observers.
+   * @param s the state to encode
+   * @return the JSON text of serializeRefereeState
+   */
+  public static String encodeRefereeState(State s) {
+    return REFEREE_STATES.encode(s, () -> serializeRefereeState(s));
+  }
+
   public static JsonNode serializePublicState(PlayerStateWrapper s) {
     ObjectMapper mapper = JsonUtils.getMapper();
     ObjectNode stateJson = mapper.getNodeFactory().objectNode();
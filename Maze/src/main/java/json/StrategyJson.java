@@ -1,6 +1,7 @@
 package json;
 
 import model.strategy.EuclidStrategy;
+import model.strategy.MooreStrategy;
 import model.strategy.RiemannStrategy;
 import model.strategy.Strategy;
 
@@ -26,7 +27,8 @@ public class StrategyJson {
 
   private enum StrategyDesignation {
     Euclid(new EuclidStrategy()),
-    Riemann(new RiemannStrategy());
+    Riemann(new RiemannStrategy()),
+    Moore(new MooreStrategy());
 
     private final Strategy strategy;
 
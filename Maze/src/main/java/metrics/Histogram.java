@@ -0,0 +1,123 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of non-negative values with a bounded relative error, in the style of an
+ * HDR histogram. Values below 2^SUB_BUCKET_BITS are counted exactly; larger values are counted in
+ * log-linear buckets: every power of two is split into 2^SUB_BUCKET_BITS equal sub-buckets, so a
+ * reported percentile is at most 1 / 2^SUB_BUCKET_BITS (under 1%) above the recorded value. The
+ * whole range of a long fits in a fixed array, so recording never allocates.
+ */
+public class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts;
+  private final LongAdder count;
+  private final LongAdder sum;
+  private final LongAccumulator max;
+  private final LongAccumulator min;
+
+  public Histogram() {
+    this.counts = new AtomicLongArray(NUM_BUCKETS);
+    this.count = new LongAdder();
+    this.sum = new LongAdder();
+    this.max = new LongAccumulator(Math::max, 0);
+    this.min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+  }
+
+  /**
+   * Records the given value, negative values are recorded as 0.
+   * @param value the value to record
+   */
+  public void record(long value) {
+    value = Math.max(0, value);
+    counts.incrementAndGet(bucketOf(value));
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+    min.accumulate(value);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the largest recorded value, exactly.
+   * @return the maximum, 0 if nothing was recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the smallest recorded value, exactly.
+   * @return the minimum, 0 if nothing was recorded
+   */
+  public long getMin() {
+    return getCount() == 0 ? 0 : min.get();
+  }
+
+  /**
+   * Returns the mean of the recorded values, exactly.
+   * @return the mean, 0 if nothing was recorded
+   */
+  public double getMean() {
+    long n = getCount();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * Returns the value at the given percentile: the highest value of the bucket that holds the
+   * recorded value at that rank (but never more than the maximum).
+   * @param percentile the percentile, between 0 and 100
+   * @return the value at the percentile, 0 if nothing was recorded
+   * @throws IllegalArgumentException if the percentile is not between 0 and 100
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+    }
+    long n = getCount();
+    if (n == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+    long seen = 0;
+    for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+      seen += counts.get(bucket);
+      if (seen >= rank) {
+        return Math.min(highestValueOf(bucket), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  // The bucket of a non-negative value
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift); // in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+    return ((shift + 1) * SUB_BUCKETS) + (subBucket - SUB_BUCKETS);
+  }
+
+  // The highest value that is counted in the given bucket
+  static long highestValueOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket / SUB_BUCKETS) - 1;
+    long subBucket = (bucket % SUB_BUCKETS) + SUB_BUCKETS;
+    long lowest = subBucket << shift;
+    return lowest + ((1L << shift) - 1);
+  }
+}
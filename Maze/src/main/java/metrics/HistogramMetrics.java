@@ -0,0 +1,50 @@
+package metrics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics that keep a Histogram of every timer and the total of every counter. Recording is
+ * thread-safe and lock-free once a timer or counter exists.
+ */
+public class HistogramMetrics implements Metrics {
+
+  private final Map<String, Histogram> timers;
+  private final Map<String, LongAdder> counters;
+
+  public HistogramMetrics() {
+    this.timers = new ConcurrentHashMap<>();
+    this.counters = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public void record(String name, long value) {
+    timers.computeIfAbsent(name, key -> new Histogram()).record(value);
+  }
+
+  @Override
+  public void increment(String name) {
+    counters.computeIfAbsent(name, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Returns the histograms of all timers that were recorded, by name.
+   * @return the histograms in order of their names
+   */
+  public SortedMap<String, Histogram> getTimers() {
+    return new TreeMap<>(timers);
+  }
+
+  /**
+   * Returns the totals of all counters that were incremented, by name.
+   * @return the totals in order of their names
+   */
+  public SortedMap<String, Long> getCounters() {
+    SortedMap<String, Long> totals = new TreeMap<>();
+    counters.forEach((name, total) -> totals.put(name, total.sum()));
+    return totals;
+  }
+}
@@ -0,0 +1,36 @@
+package metrics;
+
+/**
+ * A sink for the timers and counters of a game. Timers are recorded as values (durations in
+ * nanoseconds, or any other measurement such as the rounds of a game) whose distribution is kept,
+ * counters are only counted. Implementations must be thread-safe, since the Referees of a
+ * tournament and the threads of their players record to the same Metrics.
+ */
+public interface Metrics {
+
+  /**
+   * Metrics that ignore everything they are given, used when no metrics are wanted.
+   */
+  Metrics NONE = new Metrics() {
+    @Override
+    public void record(String name, long value) {
+    }
+
+    @Override
+    public void increment(String name) {
+    }
+  };
+
+  /**
+   * Records a measurement of the given timer.
+   * @param name the name of the timer, such as "player.takeTurn"
+   * @param value the measured value, durations are given in nanoseconds
+   */
+  void record(String name, long value);
+
+  /**
+   * Increments the given counter by one.
+   * @param name the name of the counter, such as "referee.kicks.invalidAction"
+   */
+  void increment(String name);
+}
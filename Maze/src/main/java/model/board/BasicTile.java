@@ -94,6 +94,9 @@ public class BasicTile implements Tile {
       return this.tileDirections.equals(other.tileDirections) &&
           Util.listsContainSameItems(this.gems, other.gems);
     }
+    if(o instanceof ReadOnlyTile) {
+      return o.equals(this);
+    }
     return false;
   }
 
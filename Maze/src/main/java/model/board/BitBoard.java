@@ -0,0 +1,270 @@
+package model.board;
+
+import java.util.Arrays;
+import java.util.Optional;
+import util.Direction;
+import util.Posn;
+
+/**
+ * An immutable connectivity engine for boards with at most 64 cells (such as the 7x7 board). Cell
+ * (x, y) is bit (y * width + x) of a long, and the board is stored as four bitboards: the cells
+ * whose tile points LEFT, UP, RIGHT and DOWN. Reachability is a flood fill of shift-and-mask
+ * iterations over all cells at once, and row/column slides are bit permutations, so neither needs
+ * to copy a Board or visit a Tile.
+ *
+ * A tile is given to this class as a direction mask, where bit n is set if the tile points in the
+ * Direction with ordinal n (see maskOf).
+ */
+public final class BitBoard {
+
+  public static final int MAX_CELLS = Long.SIZE;
+
+  private static final int NUM_DIRECTIONS = Direction.values().length;
+  private static final int LEFT = Direction.LEFT.ordinal();
+  private static final int UP = Direction.UP.ordinal();
+  private static final int RIGHT = Direction.RIGHT.ordinal();
+  private static final int DOWN = Direction.DOWN.ordinal();
+
+  private final int width;
+  private final int height;
+  // open[d] holds the cells whose tile points in the Direction with ordinal d
+  private final long[] open;
+
+  // derived from the dimensions only
+  private final long allCells;
+  private final long firstCol;
+  private final long lastCol;
+
+  private BitBoard(int width, int height, long[] open) {
+    this.width = width;
+    this.height = height;
+    this.open = open;
+    this.allCells = lowBits(width * height);
+    long col = 0;
+    for (int row = 0; row < height; row++) {
+      col |= 1L << (row * width);
+    }
+    this.firstCol = col;
+    this.lastCol = col << (width - 1);
+  }
+
+  /**
+   * Determines if a board of the given dimensions fits in a BitBoard.
+   * @param width the width of the board
+   * @param height the height of the board
+   * @return if the board has at least one and at most 64 cells
+   */
+  public static boolean fits(int width, int height) {
+    return width > 0 && height > 0 && width * height <= MAX_CELLS;
+  }
+
+  /**
+   * Builds the BitBoard of the given board. Locations without a tile are closed in every
+   * direction.
+   * @param board the board to read the tiles from
+   * @return the BitBoard of the board
+   * @throws IllegalArgumentException if the board has more than 64 cells
+   */
+  public static BitBoard of(Board board) {
+    int width = board.getBoardWidth();
+    int height = board.getBoardHeight();
+    int[] masks = new int[width * height];
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        Optional<Tile> tile = board.getTile(new Posn(col, row));
+        masks[(row * width) + col] = tile.map(BitBoard::maskOf).orElse(0);
+      }
+    }
+    return ofMasks(width, height, masks);
+  }
+
+  /**
+   * Builds the BitBoard of a board given as direction masks in row major order.
+   * @param width the width of the board
+   * @param height the height of the board
+   * @param masks the direction mask of every cell, in row major order
+   * @return the BitBoard of the masks
+   * @throws IllegalArgumentException if the board does not fit or the number of masks is wrong
+   */
+  public static BitBoard ofMasks(int width, int height, int[] masks) {
+    if (!fits(width, height) || masks.length != width * height) {
+      throw new IllegalArgumentException("Board does not fit in a BitBoard.");
+    }
+    long[] open = new long[NUM_DIRECTIONS];
+    for (int i = 0; i < masks.length; i++) {
+      for (int dir = 0; dir < NUM_DIRECTIONS; dir++) {
+        if ((masks[i] & (1 << dir)) != 0) {
+          open[dir] |= 1L << i;
+        }
+      }
+    }
+    return new BitBoard(width, height, open);
+  }
+
+  /**
+   * Determines the direction mask of the given tile.
+   * @param tile the tile to convert
+   * @return the mask of the directions the tile points in
+   */
+  public static int maskOf(Tile tile) {
+    int mask = 0;
+    for (Direction dir : tile.getTileDirections()) {
+      mask |= 1 << dir.ordinal();
+    }
+    return mask;
+  }
+
+  /**
+   * Rotates the given direction mask counter-clockwise n times, the same way
+   * Tile.rotateCounterClockwiseNTimes rotates a tile.
+   * @param mask the mask to rotate
+   * @param n the number of counter-clockwise rotations
+   * @return the rotated mask
+   */
+  public static int rotateCounterClockwise(int mask, int n) {
+    n = Math.floorMod(n, NUM_DIRECTIONS);
+    int all = (1 << NUM_DIRECTIONS) - 1;
+    return ((mask >>> n) | (mask << (NUM_DIRECTIONS - n))) & all;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Returns the bit of the given location.
+   * @param pos the location on the board
+   * @return the bit of the location, 0 if it is not on the board
+   */
+  public long bitOf(Posn pos) {
+    if (pos.getX() < 0 || pos.getY() < 0 || pos.getX() >= width || pos.getY() >= height) {
+      return 0;
+    }
+    return 1L << ((pos.getY() * width) + pos.getX());
+  }
+
+  /**
+   * Returns the location of the given bit index.
+   * @param index the index of a bit of this board
+   * @return the location of the cell
+   */
+  public Posn posOf(int index) {
+    return new Posn(index % width, index / width);
+  }
+
+  /**
+   * Computes every cell that can be walked to from the given location, including the location
+   * itself. Two neighboring cells are connected if both of their tiles point at each other.
+   * @param pos the location to start from
+   * @return the reachable cells as a bit set, 0 if the location is not on the board
+   */
+  public long reachableFrom(Posn pos) {
+    long connectedLeft = open[LEFT] & (open[RIGHT] << 1) & ~firstCol;
+    long connectedRight = open[RIGHT] & (open[LEFT] >>> 1) & ~lastCol;
+    long connectedUp = open[UP] & (open[DOWN] << width);
+    long connectedDown = open[DOWN] & (open[UP] >>> width) & allCells;
+
+    long reached = bitOf(pos);
+    long previous = 0;
+    while (reached != previous) {
+      previous = reached;
+      reached |= ((previous & connectedLeft) >>> 1)
+          | ((previous & connectedRight) << 1)
+          | ((previous & connectedUp) >>> width)
+          | ((previous & connectedDown) << width);
+    }
+    return reached;
+  }
+
+  /**
+   * Determines if the target can be walked to from the given location.
+   * @param from the location to start from
+   * @param to the location to reach
+   * @return if both locations are on the board and connected
+   */
+  public boolean canReach(Posn from, Posn to) {
+    long target = bitOf(to);
+    return target != 0 && (reachableFrom(from) & target) != 0;
+  }
+
+  /**
+   * Returns a new BitBoard where the row (LEFT/RIGHT) or column (UP/DOWN) with the given index was
+   * slid in the given direction and a tile with the given mask was inserted into the empty location
+   * caused by the slide.
+   * @param lineIndex the index of the row or column to slide
+   * @param dir the direction of the slide
+   * @param insertedMask the direction mask of the inserted tile
+   * @return the slid BitBoard
+   */
+  public BitBoard slide(int lineIndex, Direction dir, int insertedMask) {
+    long line;
+    int insertedAt;
+    switch (dir) {
+      case LEFT:
+        line = lowBits(width) << (lineIndex * width);
+        insertedAt = (lineIndex * width) + width - 1;
+        break;
+      case RIGHT:
+        line = lowBits(width) << (lineIndex * width);
+        insertedAt = lineIndex * width;
+        break;
+      case UP:
+        line = firstCol << lineIndex;
+        insertedAt = ((height - 1) * width) + lineIndex;
+        break;
+      case DOWN:
+        line = firstCol << lineIndex;
+        insertedAt = lineIndex;
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported Direction: " + dir);
+    }
+
+    long[] slid = new long[NUM_DIRECTIONS];
+    for (int d = 0; d < NUM_DIRECTIONS; d++) {
+      long moved = shift(open[d] & line, dir) & line;
+      long inserted = (insertedMask & (1 << d)) != 0 ? 1L << insertedAt : 0;
+      slid[d] = (open[d] & ~line) | moved | inserted;
+    }
+    return new BitBoard(width, height, slid);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof BitBoard) {
+      BitBoard other = (BitBoard) o;
+      return width == other.width && height == other.height && Arrays.equals(open, other.open);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(open) * 31 + width;
+  }
+
+  // Moves every bit one cell in the given direction, bits leaving their line are dropped by the
+  // caller's mask.
+  private long shift(long bits, Direction dir) {
+    switch (dir) {
+      case LEFT:
+        return bits >>> 1;
+      case RIGHT:
+        return bits << 1;
+      case UP:
+        return bits >>> width;
+      case DOWN:
+        return bits << width;
+      default:
+        throw new IllegalArgumentException("Unsupported Direction: " + dir);
+    }
+  }
+
+  private static long lowBits(int n) {
+    return n >= Long.SIZE ? -1L : (1L << n) - 1;
+  }
+}
@@ -27,6 +27,13 @@ public enum Gem {
   TANZANITE_TRILLION, TIGERS_EYE, TOURMALINE_LASER_CUT, TOURMALINE, UNAKITE, WHITE_SQUARE,
   YELLOW_BAGUETTE, YELLOW_BERYL_OVAL, YELLOW_HEART, YELLOW_JASPER, ZIRCON, ZOISITE;
 
+  // The JSON names of the gems, every tile of every serialized board asks for two of them
+  private static final String[] NAMES = new String[values().length];
+  static {
+    for (Gem gem : values()) {
+      NAMES[gem.ordinal()] = gem.name().toLowerCase().replaceAll("_", "-");
+    }
+  }
 
   /**
    * Retrieves this Gem's image counterpart located in the resources/gems directory.
@@ -45,6 +52,6 @@ public enum Gem {
 
   @Override
   public String toString() {
-    return this.name().toLowerCase().replaceAll("_", "-");
+    return NAMES[this.ordinal()];
   }
 }
@@ -0,0 +1,120 @@
+package model.board;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import util.Direction;
+import util.Posn;
+
+/**
+ * A read-only view of a board. All queries are answered by the viewed board without copying it,
+ * the tiles it returns are read-only views (see ReadOnlyTile) and placing or sliding tiles throws
+ * an UnsupportedOperationException. getCopy still returns a mutable deep copy of the board.
+ */
+public final class ReadOnlyBoard implements Board {
+
+  private final Board board;
+
+  private ReadOnlyBoard(Board board) {
+    this.board = board;
+  }
+
+  /**
+   * Returns a read-only view of the given board.
+   * @param board the board to view
+   * @return the view of the board, the board itself if it is already a view
+   */
+  public static Board of(Board board) {
+    return board instanceof ReadOnlyBoard ? board : new ReadOnlyBoard(board);
+  }
+
+  /**
+   * Returns the board viewed by the given board.
+   * @param board a board or a view of a board
+   * @return the viewed board if the given board is a view, the given board otherwise
+   */
+  static Board unwrap(Board board) {
+    return board instanceof ReadOnlyBoard ? ((ReadOnlyBoard) board).board : board;
+  }
+
+  @Override
+  public boolean placeTileSafely(Posn pos, Tile tile) {
+    throw new UnsupportedOperationException("Cannot place a tile on a read-only board.");
+  }
+
+  @Override
+  public Optional<Tile> getTile(Posn pos) {
+    return board.getTile(pos).map(ReadOnlyTile::of);
+  }
+
+  @Override
+  public boolean hasTileAt(Posn pos) {
+    return board.hasTileAt(pos);
+  }
+
+  @Override
+  public boolean isBoardBuilt() {
+    return board.isBoardBuilt();
+  }
+
+  @Override
+  public Tile slideSafely(Posn pos, Direction dir, Tile tile) {
+    throw new UnsupportedOperationException("Cannot slide a read-only board.");
+  }
+
+  @Override
+  public boolean canSlide(Posn pos, Direction dir) {
+    return board.canSlide(pos, dir);
+  }
+
+  @Override
+  public Set<Tile> findAllAccessibleTiles(Posn pos) {
+    return board.findAllAccessibleTiles(pos).stream()
+        .map(ReadOnlyTile::of)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public int getBoardWidth() {
+    return board.getBoardWidth();
+  }
+
+  @Override
+  public int getBoardHeight() {
+    return board.getBoardHeight();
+  }
+
+  @Override
+  public Posn getPosOfTile(Tile tile) {
+    return board.getPosOfTile(ReadOnlyTile.unwrap(tile));
+  }
+
+  @Override
+  public Board getCopy() {
+    return board.getCopy();
+  }
+
+  @Override
+  public List<Integer> getMovableRowIndices() {
+    return board.getMovableRowIndices();
+  }
+
+  @Override
+  public List<Integer> getMovableColIndices() {
+    return board.getMovableColIndices();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof Board) {
+      return board.equals(unwrap((Board) o));
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return board.hashCode();
+  }
+}
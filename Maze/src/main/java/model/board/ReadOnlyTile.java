@@ -0,0 +1,82 @@
+package model.board;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import util.Direction;
+import util.Tuple;
+
+/**
+ * A read-only view of a tile. All queries are answered by the viewed tile, rotating the view
+ * throws an UnsupportedOperationException. A view is equal to the tile it views (and to any other
+ * view of an equal tile), so views can be looked up in sets of plain tiles.
+ */
+public final class ReadOnlyTile implements Tile {
+
+  private final Tile tile;
+
+  private ReadOnlyTile(Tile tile) {
+    this.tile = tile;
+  }
+
+  /**
+   * Returns a read-only view of the given tile.
+   * @param tile the tile to view
+   * @return the view of the tile, the tile itself if it is already a view
+   */
+  public static Tile of(Tile tile) {
+    return tile instanceof ReadOnlyTile ? tile : new ReadOnlyTile(tile);
+  }
+
+  /**
+   * Returns the tile viewed by the given tile.
+   * @param tile a tile or a view of a tile
+   * @return the viewed tile if the given tile is a view, the given tile otherwise
+   */
+  static Tile unwrap(Tile tile) {
+    return tile instanceof ReadOnlyTile ? ((ReadOnlyTile) tile).tile : tile;
+  }
+
+  @Override
+  public List<Gem> getGems() {
+    return Collections.unmodifiableList(tile.getGems());
+  }
+
+  @Override
+  public List<Tile> getAccessibleNeighbors(List<Tuple<Tile, Direction>> neighbors) {
+    return tile.getAccessibleNeighbors(neighbors);
+  }
+
+  @Override
+  public boolean doesTilePointInDirection(Direction dir) {
+    return tile.doesTilePointInDirection(dir);
+  }
+
+  @Override
+  public EnumSet<Direction> getTileDirections() {
+    return EnumSet.copyOf(tile.getTileDirections());
+  }
+
+  @Override
+  public void rotateCounterClockwiseNTimes(int n) {
+    throw new UnsupportedOperationException("Cannot rotate a read-only tile.");
+  }
+
+  @Override
+  public Tile getCopy() {
+    return tile.getCopy();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof Tile) {
+      return tile.equals(unwrap((Tile) o));
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return tile.hashCode();
+  }
+}
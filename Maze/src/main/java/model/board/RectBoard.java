@@ -25,6 +25,14 @@ public class RectBoard implements Board {
   private final int boardWidth;
   private final int boardHeight;
 
+  // The number of locations that hold a tile. It only grows in placeTileUnsafely, tiles are never
+  // removed and a slide, which needs a built board, replaces one tile with another.
+  private int numTiles;
+
+  // The BitBoard of this board, built by the first search for accessible tiles and kept up to date
+  // by slides; placing a tile discards it (tiles on a board are never rotated)
+  private BitBoard bitBoard;
+
   private static final Predicate<Integer> isMovableRow = (x) -> (x % 2 == 0);
   private static final Predicate<Integer> isMovableCol = (x) -> (x % 2 == 0);
 
@@ -77,14 +85,7 @@ public class RectBoard implements Board {
 
   @Override
   public boolean isBoardBuilt() {
-    for(int row = 0; row < boardHeight; row++) {
-      for(int col = 0; col < boardWidth; col++) {
-        if(!hasTileAt(new Posn(col, row))) {
-          return false;
-        }
-      }
-    }
-    return true;
+    return numTiles == boardWidth * boardHeight;
   }
 
   @Override
@@ -98,6 +99,10 @@ public class RectBoard implements Board {
   }
 
   private Tile slideUnsafely(Posn pos, Direction dir, Tile tile) {
+    if(this.bitBoard != null) {
+      int index = (dir == Direction.LEFT || dir == Direction.RIGHT) ? pos.getY() : pos.getX();
+      this.bitBoard = this.bitBoard.slide(index, dir, BitBoard.maskOf(tile));
+    }
     switch(dir) {
       case LEFT:
         return this.slideHorizontally(new Posn(0, pos.getY()), new Posn(boardWidth, pos.getY()),
@@ -137,6 +142,10 @@ public class RectBoard implements Board {
   public Set<Tile> findAllAccessibleTiles(Posn pos) {
     if(!inBounds(pos) || !hasTileAt(pos)) return new HashSet<>();
 
+    if(BitBoard.fits(boardWidth, boardHeight)) {
+      return this.findAllAccessibleTilesWithBitBoard(pos);
+    }
+
     Set<Tile> explored = new HashSet<>();
     Queue<Tile> queue = new LinkedList<>();
     queue.add(getTile(pos).get());
@@ -172,16 +181,21 @@ public class RectBoard implements Board {
 
   @Override
   public Board getCopy() {
-    Board boardCopy = new RectBoard(boardWidth, boardHeight);
+    // The tiles of this board were checked by placeTileSafely when they were placed (or came in
+    // with a slide), so their copies are placed at the same locations without repeating the
+    // checks. The copy remembers the same placed gems, so its own later placements are checked
+    // exactly as they would be on this board.
+    RectBoard boardCopy = new RectBoard(boardWidth, boardHeight);
+    boardCopy.gems.addAll(this.gems);
     for (int row = 0; row < boardHeight; row += 1) {
       for (int col = 0; col < boardWidth; col += 1) {
-        Posn pos = new Posn(col, row);
-        Optional<Tile> copy = getTile(new Posn(col, row));
-        if(copy.isPresent()) {
-          boardCopy.placeTileSafely(pos, copy.get().getCopy());
+        Optional<Tile> tile = gameboard.get(row).get(col);
+        if(tile.isPresent()) {
+          boardCopy.placeTileUnsafely(new Posn(col, row), tile.get().getCopy());
         }
       }
     }
+    boardCopy.bitBoard = this.bitBoard;
     return boardCopy;
   }
 
@@ -211,6 +225,9 @@ public class RectBoard implements Board {
   public boolean equals(Object o) {
     if(o instanceof RectBoard) {
       RectBoard other = (RectBoard) o;
+      if(boardWidth != other.boardWidth || boardHeight != other.boardHeight) {
+        return false;
+      }
       for(int row = 0; row < boardHeight; row++) {
         for(int col = 0; col < boardWidth; col++) {
           Posn pos = new Posn(col, row);
@@ -219,8 +236,12 @@ public class RectBoard implements Board {
           }
         }
       }
+      return true;
     }
-    return true;
+    if(o instanceof ReadOnlyBoard) {
+      return o.equals(this);
+    }
+    return false;
   }
 
   @Override
@@ -236,7 +257,12 @@ public class RectBoard implements Board {
     return x >= 0 && y >= 0 && x < boardWidth && y < boardHeight;
   }
 
+  // Places the tile at the given location, counting it if the location was empty
   private void placeTileUnsafely(Posn pos, Tile tile) {
+    if(!hasTileAt(pos)) {
+      this.numTiles++;
+    }
+    this.bitBoard = null;
     Optional<Tile> opt = Optional.of(tile);
     this.gameboard.get(pos.getY()).set(pos.getX(), opt);
   }
@@ -273,6 +299,22 @@ public class RectBoard implements Board {
     return neighbors;
   }
 
+  // Flood fills the BitBoard of this board, used for boards with at most 64 cells
+  private Set<Tile> findAllAccessibleTilesWithBitBoard(Posn pos) {
+    if(this.bitBoard == null) {
+      this.bitBoard = BitBoard.of(this);
+    }
+    BitBoard bits = this.bitBoard;
+    Set<Tile> accessible = new HashSet<>();
+    long reachable = bits.reachableFrom(pos);
+    while(reachable != 0) {
+      int index = Long.numberOfTrailingZeros(reachable);
+      getTile(bits.posOf(index)).ifPresent(accessible::add);
+      reachable &= reachable - 1;
+    }
+    return accessible;
+  }
+
   // Runs BFS over a Queue of Tiles.
   private void exploreAccessibleTilesFromTile(Set<Tile> explored, Queue<Tile> queue) {
     while(!queue.isEmpty()) {
@@ -2,6 +2,7 @@ package model.state;
 
 import java.util.List;
 import java.util.Optional;
+import model.board.BitBoard;
 import model.board.Board;
 import util.Direction;
 import model.board.Tile;
@@ -29,6 +30,21 @@ public interface Action {
    */
   boolean isValidActionOn(Board board, Tile spare, PlayerData player, Optional<Tuple<Integer, Direction>> previousBoardMove);
 
+  /**
+   * Same as isValidActionOn, for callers that already hold the BitBoard of the board, so it does
+   * not have to be built again for every action that is checked.
+   * @param bitBoard the BitBoard of the board
+   * @param board the board this action acts on
+   * @param spare the spare tile used with this action
+   * @param player the player that uses this action
+   * @param previousBoardMove the previous board movement
+   * @return a boolean of whether this action would be valid
+   */
+  default boolean isValidActionOn(BitBoard bitBoard, Board board, Tile spare, PlayerData player,
+      Optional<Tuple<Integer, Direction>> previousBoardMove) {
+    return isValidActionOn(board, spare, player, previousBoardMove);
+  }
+
   /**
    * Applies this action to the board, spare, and players (Mutates all three Objects).
    * @param board the board this action acts on
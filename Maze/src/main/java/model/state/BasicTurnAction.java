@@ -3,6 +3,7 @@ package model.state;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import model.board.BitBoard;
 import model.board.Board;
 import util.Direction;
 import model.board.Tile;
@@ -32,10 +33,14 @@ public class BasicTurnAction implements Action {
 
   @Override
   public boolean isValidActionOn(Board board, Tile spare, PlayerData player, Optional<Tuple<Integer, Direction>> previousBoardMove) {
+    if(BitBoard.fits(board.getBoardWidth(), board.getBoardHeight())) {
+      return isValidActionOn(BitBoard.of(board), board, spare, player, previousBoardMove);
+    }
+
     Tile spareCopy = spare.getCopy();
     Board boardCopy = board.getCopy();
 
-    if(!boardCopy.canSlide(pos, dir) || willUndoPreviousMove(previousBoardMove)) {
+    if(!isValidSlideOn(boardCopy, previousBoardMove)) {
       return false;
     }
 
@@ -63,6 +68,46 @@ public class BasicTurnAction implements Action {
 
 
 
+  /**
+   * Determines if the slide of this action can be done on the given board, ignoring where the
+   * player moves to afterwards.
+   * @param board the board to slide
+   * @param previousBoardMove the slide of the previous turn, which may not be undone
+   * @return if the row/column of this action can be slid and the slide does not undo the
+   *         previous one
+   */
+  public boolean isValidSlideOn(Board board, Optional<Tuple<Integer, Direction>> previousBoardMove) {
+    return board.canSlide(pos, dir) && !willUndoPreviousMove(previousBoardMove);
+  }
+
+  // Slides and flood fills the BitBoard instead of a copy of the board
+  @Override
+  public boolean isValidActionOn(BitBoard bitBoard, Board board, Tile spare, PlayerData player,
+      Optional<Tuple<Integer, Direction>> previousBoardMove) {
+
+    if(!isValidSlideOn(board, previousBoardMove)) {
+      return false;
+    }
+
+    Tuple<Integer, Direction> move = getPlannedBoardMove().get();
+    int insertedMask = BitBoard.rotateCounterClockwise(BitBoard.maskOf(spare), rotateAmt);
+    BitBoard slid = bitBoard.slide(move.getFirst(), move.getSecond(), insertedMask);
+
+    Tuple<Posn, Posn> boundaries = this.getBoundaryPosnsOfSlide(pos, dir, board);
+    Posn playerCurrentLocation = player.getCurrentLocation();
+
+    if(playerCurrentLocation.equals(boundaries.getFirst())) {
+      playerCurrentLocation = boundaries.getSecond();
+    }
+    else {
+      player = player.updateCurrentLocationIfOnSlide(getPlannedBoardMove(), board.getBoardWidth(), board.getBoardHeight());
+      playerCurrentLocation = player.getCurrentLocation();
+    }
+
+    return !playerCurrentLocation.equals(targetPos)
+        && slid.canReach(playerCurrentLocation, targetPos);
+  }
+
   @Override
   public Tile accept(Board board, Tile spare, List<PlayerData> players, List<Posn> additionalGoals) {
     spare.rotateCounterClockwiseNTimes(rotateAmt);
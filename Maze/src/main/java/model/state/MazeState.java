@@ -3,7 +3,10 @@ package model.state;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import model.board.BitBoard;
 import model.board.Board;
+import model.board.ReadOnlyBoard;
+import model.board.ReadOnlyTile;
 import referee.Player;
 import util.Direction;
 import model.board.Tile;
@@ -28,6 +31,9 @@ public class MazeState implements State {
 
   private final List<Posn> additionalGoals;
 
+  // The BitBoard of the board (if it fits in one), built when it is first needed
+  private BitBoard bitBoard;
+
 
   public MazeState(Board board, List<PlayerData> players,
       Tile spareTile, Optional<Tuple<Integer, Direction>> previousMove, List<Posn> additionalGoals) {
@@ -91,9 +97,21 @@ public class MazeState implements State {
 
   @Override
   public boolean canApplyAction(Action action) {
+    if(BitBoard.fits(getBoardWidth(), getBoardHeight())) {
+      return action.isValidActionOn(this.getBitBoard(), this.board, this.spareTile,
+          whichPlayerTurn(), this.previousMove);
+    }
     return action.isValidActionOn(this.board, this.spareTile, whichPlayerTurn(), this.previousMove);
   }
 
+  // The BitBoard of the board is built once, by the first action that is checked on this state
+  private BitBoard getBitBoard() {
+    if(this.bitBoard == null) {
+      this.bitBoard = BitBoard.of(this.board);
+    }
+    return this.bitBoard;
+  }
+
   @Override
   public State applyActionWithoutChecking(Action action) {
     Board newBoard = this.board.getCopy();
@@ -165,6 +183,12 @@ public class MazeState implements State {
   @Override
   public Tile getSpareTile() { return spareTile.getCopy(); }
 
+  @Override
+  public Board getBoardView() { return ReadOnlyBoard.of(board); }
+
+  @Override
+  public Tile getSpareTileView() { return ReadOnlyTile.of(spareTile); }
+
   @Override
   public Optional<Tuple<Integer, Direction>> getPrevMove() {
     return this.previousMove;
@@ -44,11 +44,19 @@ public class PlayerData {
   // This constructor is used by the Referee and this class to create a full Player
   public PlayerData(Color avatar, Posn currentLocation, Posn homeLocation, Posn goalLocation, Optional<Player> playerAPI,
                     int numGoalsVisited, boolean hasReachedFinalGoal, boolean hasReturnedHome, boolean hasReceivedAdditionalGoal) {
+    this(playerAPI.map(SafePlayer::new), avatar, currentLocation, homeLocation, goalLocation,
+        numGoalsVisited, hasReachedFinalGoal, hasReturnedHome, hasReceivedAdditionalGoal);
+  }
+
+  // This constructor is used by this class to copy a player, the copy keeps the same SafePlayer
+  // (and with it the thread the player's calls run on)
+  private PlayerData(Optional<SafePlayer> playerAPI, Color avatar, Posn currentLocation, Posn homeLocation, Posn goalLocation,
+                    int numGoalsVisited, boolean hasReachedFinalGoal, boolean hasReturnedHome, boolean hasReceivedAdditionalGoal) {
     this.avatar = avatar;
     this.currentLocation = currentLocation;
     this.homeLocation = homeLocation;
     this.goalLocation = goalLocation;
-    this.playerAPI = playerAPI.map(SafePlayer::new);
+    this.playerAPI = playerAPI;
     this.numGoalsVisited = numGoalsVisited;
     this.hasReachedFinalGoal = hasReachedFinalGoal;
     this.hasReturnedHome = hasReturnedHome;
@@ -64,8 +72,8 @@ public class PlayerData {
   }
 
   public PlayerData updateCurrentLocation(Posn currentLocation) {
-    return new PlayerData(this.avatar, currentLocation,
-        this.homeLocation, this.goalLocation, this.playerAPI.map(SafePlayer::getPlayer), this.numGoalsVisited, this.hasReachedFinalGoal, this.hasReturnedHome, this.hasReceivedAdditionalGoal);
+    return new PlayerData(this.playerAPI, this.avatar, currentLocation,
+        this.homeLocation, this.goalLocation, this.numGoalsVisited, this.hasReachedFinalGoal, this.hasReturnedHome, this.hasReceivedAdditionalGoal);
   }
 
   public Posn getHomeLocation() {
@@ -108,8 +116,8 @@ public class PlayerData {
       y = y < 0 ? height - 1: y;
 
       newPos = new Posn(x, y);
-      return new PlayerData(avatar, newPos, homeLocation,  this.goalLocation,
-              this.playerAPI.map(SafePlayer::getPlayer), this.numGoalsVisited, this.hasReachedFinalGoal, this.hasReturnedHome, this.hasReceivedAdditionalGoal);
+      return new PlayerData(this.playerAPI, avatar, newPos, homeLocation,  this.goalLocation,
+              this.numGoalsVisited, this.hasReachedFinalGoal, this.hasReturnedHome, this.hasReceivedAdditionalGoal);
     }
     return this;
   }
@@ -157,28 +165,24 @@ public class PlayerData {
   public PlayerData updateIfReachedTarget(List<Posn> additionalGoals) {
     // if there are still goals in the additional goals list
     if (this.goalLocation.equals(this.currentLocation) && additionalGoals.size() > 0){
-      return new PlayerData(this.avatar, this.currentLocation, this.homeLocation,
-              additionalGoals.remove(0), this.playerAPI.map(SafePlayer::getPlayer),
-              this.numGoalsVisited + 1, false, false, true);
+      return new PlayerData(this.playerAPI, this.avatar, this.currentLocation, this.homeLocation,
+              additionalGoals.remove(0), this.numGoalsVisited + 1, false, false, true);
     }
     // if there are no more goals in the additional goals list and the player just reached the last goal
     else if (this.goalLocation.equals(this.currentLocation) && additionalGoals.size() == 0 && !this.hasReachedFinalGoal) {
       // if the player's final goal came from the additional goals list and is the same as their home
       // they don't get a treasure but it counts as going home
       if(this.currentLocation.equals(this.homeLocation) && this.hasReceivedAdditionalGoal) {
-        return new PlayerData(this.avatar, this.currentLocation, this.homeLocation,
-                this.homeLocation, this.playerAPI.map(SafePlayer::getPlayer),
-                this.numGoalsVisited, true, true, true);
+        return new PlayerData(this.playerAPI, this.avatar, this.currentLocation, this.homeLocation,
+                this.homeLocation, this.numGoalsVisited, true, true, true);
       }
-      return new PlayerData(this.avatar, this.currentLocation, this.homeLocation,
-              this.homeLocation, this.playerAPI.map(SafePlayer::getPlayer),
-              this.numGoalsVisited + 1, true, false, this.hasReceivedAdditionalGoal);
+      return new PlayerData(this.playerAPI, this.avatar, this.currentLocation, this.homeLocation,
+              this.homeLocation, this.numGoalsVisited + 1, true, false, this.hasReceivedAdditionalGoal);
     }
     //if the player has reached the last goal and is on the home location
     else if (this.goalLocation.equals(this.currentLocation) && this.hasReachedFinalGoal){
-      return new PlayerData(this.avatar, this.currentLocation, this.homeLocation,
-              this.homeLocation, this.playerAPI.map(SafePlayer::getPlayer),
-              this.numGoalsVisited, true, true, this.hasReceivedAdditionalGoal);
+      return new PlayerData(this.playerAPI, this.avatar, this.currentLocation, this.homeLocation,
+              this.homeLocation, this.numGoalsVisited, true, true, this.hasReceivedAdditionalGoal);
     }
     return this;
   }
@@ -191,6 +195,10 @@ public class PlayerData {
     return this.hasReturnedHome;
   }
 
+  public boolean getHasReceivedAdditionalGoal() {
+    return this.hasReceivedAdditionalGoal;
+  }
+
   @Override
   public boolean equals(Object o) {
     if(o instanceof PlayerData) {
@@ -12,6 +12,10 @@ import util.Tuple;
  * This is a wrapper over the State to hide certain methods and information from the current player.
  * This class only provides enough information for the current player to make an informed action on
  * the current State of the game.
+ *
+ * The board and spare tile are read-only views of the state, not copies, so a player can look at
+ * them as often as it likes for free. A player that wants to change them asks for a copy with
+ * getCopy.
  */
 public class PlayerStateWrapper {
 
@@ -35,12 +39,20 @@ public class PlayerStateWrapper {
         .collect(Collectors.toList());
    }
 
+  /**
+   * Gets the public information of the player whose turn it is.
+   * @return the public information of the current player
+   */
+  public PlayerDataWrapper getCurrentPlayerInfo() {
+    return new PlayerDataWrapper(this.currentPlayer);
+  }
+
    public Board getBoard() {
-    return state.getBoard();
+    return state.getBoardView();
    }
 
    public Tile getSpare() {
-    return state.getSpareTile();
+    return state.getSpareTileView();
    }
 
    public int getBoardWidth() {
@@ -54,4 +66,13 @@ public class PlayerStateWrapper {
    public Optional<Tuple<Integer, Direction>> getPrevMove() {
     return this.state.getPrevMove();
    }
+
+  /**
+   * Returns a key that is the same for the wrappers of the same state, no matter which player
+   * they are for. What is public about a state never changes, so it can be cached under its key.
+   * @return an opaque key of the wrapped state, compared by identity
+   */
+  public Object getStateKey() {
+    return this.state;
+  }
 }
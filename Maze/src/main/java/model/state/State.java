@@ -59,10 +59,32 @@ public interface State {
 
   int getBoardHeight();
 
+  /**
+   * Returns a deep copy of the board of this State, for callers that change it. Callers that only
+   * read the board use getBoardView.
+   * @return the copy of the board
+   */
   Board getBoard();
 
+  /**
+   * Returns a copy of the spare tile of this State, for callers that change it. Callers that only
+   * read the tile use getSpareTileView.
+   * @return the copy of the spare tile
+   */
   Tile getSpareTile();
 
+  /**
+   * Returns a read-only view of the board of this State, which is not copied.
+   * @return the view of the board
+   */
+  Board getBoardView();
+
+  /**
+   * Returns a read-only view of the spare tile of this State, which is not copied.
+   * @return the view of the spare tile
+   */
+  Tile getSpareTileView();
+
   Optional<Tuple<Integer, Direction>> getPrevMove();
 
   /**
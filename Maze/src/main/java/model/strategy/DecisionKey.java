@@ -0,0 +1,109 @@
+package model.strategy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import model.board.Board;
+import model.board.Gem;
+import model.board.Tile;
+import model.state.PlayerDataWrapper;
+import model.state.PlayerStateWrapper;
+import util.Direction;
+import util.Posn;
+import util.Tuple;
+
+/**
+ * An immutable fingerprint of everything a Strategy can see when it makes a decision: the board,
+ * the spare tile, the previous slide, the location of every player (current player first), and
+ * the target. Two keys are equal only if all of that information is equal, so a cached decision
+ * can never be handed out for a different position even when the hashes collide.
+ */
+final class DecisionKey {
+
+  private static final int NO_PREVIOUS_MOVE = -1;
+  private static final int EMPTY_TILE = -1;
+  private static final int BITS_PER_GEM = 7;
+
+  private final int[] contents;
+  private final int hash;
+
+  private DecisionKey(int[] contents) {
+    this.contents = contents;
+    this.hash = Arrays.hashCode(contents);
+  }
+
+  /**
+   * Builds the key for the decision the current player of the given state makes for the given
+   * target.
+   * @param state the state the decision is made on
+   * @param target the target the decision is made for
+   * @return the key of the decision
+   */
+  static DecisionKey of(PlayerStateWrapper state, Posn target) {
+    Board board = state.getBoard();
+    List<PlayerDataWrapper> players = state.getPlayerPublicInfo();
+    int width = board.getBoardWidth();
+    int height = board.getBoardHeight();
+
+    int[] contents = new int[2 + (width * height) + 1 + 2 + 1 + (2 * players.size()) + 2];
+    int i = 0;
+
+    contents[i++] = width;
+    contents[i++] = height;
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        contents[i++] = encodeTile(board.getTile(new Posn(col, row)));
+      }
+    }
+    contents[i++] = encodeTile(Optional.of(state.getSpare()));
+
+    Optional<Tuple<Integer, Direction>> prevMove = state.getPrevMove();
+    contents[i++] = prevMove.map(Tuple::getFirst).orElse(NO_PREVIOUS_MOVE);
+    contents[i++] = prevMove.map(move -> move.getSecond().ordinal()).orElse(NO_PREVIOUS_MOVE);
+
+    contents[i++] = players.size();
+    for (PlayerDataWrapper player : players) {
+      contents[i++] = player.getCurrentLocation().getX();
+      contents[i++] = player.getCurrentLocation().getY();
+    }
+
+    contents[i++] = target.getX();
+    contents[i] = target.getY();
+
+    return new DecisionKey(contents);
+  }
+
+  /**
+   * Packs a tile into a single int: the low four bits hold the directions the tile points in and
+   * the gem ordinals are stored in the bits above.
+   */
+  private static int encodeTile(Optional<Tile> tile) {
+    if (tile.isEmpty()) {
+      return EMPTY_TILE;
+    }
+    int encoded = 0;
+    for (Direction dir : tile.get().getTileDirections()) {
+      encoded |= 1 << dir.ordinal();
+    }
+    int shift = Direction.values().length;
+    for (Gem gem : tile.get().getGems()) {
+      encoded |= (gem.ordinal() + 1) << shift;
+      shift += BITS_PER_GEM;
+    }
+    return encoded;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof DecisionKey) {
+      DecisionKey other = (DecisionKey) o;
+      return this.hash == other.hash && Arrays.equals(this.contents, other.contents);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+}
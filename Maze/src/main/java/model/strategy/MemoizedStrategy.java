@@ -0,0 +1,70 @@
+package model.strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import model.state.Action;
+import model.state.PlayerStateWrapper;
+import util.Posn;
+
+/**
+ * A Strategy decorator that remembers the decisions of the given strategy in a bounded
+ * least-recently-used cache. A decision is keyed by everything the strategy can see (board, spare,
+ * previous slide, player locations) and the target, so a position that was already evaluated
+ * (which happens often when every player passes for many rounds) costs a single lookup.
+ *
+ * Note: the decorated strategy must be deterministic, its decisions are handed out again as-is.
+ */
+public class MemoizedStrategy implements Strategy {
+
+  private static final int DEFAULT_CAPACITY = 256;
+
+  private final Strategy strategy;
+  private final Map<DecisionKey, Action> decisions;
+
+  public MemoizedStrategy(Strategy strategy) {
+    this(strategy, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a MemoizedStrategy that remembers at most the given number of decisions.
+   * @param strategy the strategy to compute decisions that have not been seen yet
+   * @param capacity the maximum number of decisions to remember
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public MemoizedStrategy(Strategy strategy, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.strategy = strategy;
+    this.decisions = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<DecisionKey, Action> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  @Override
+  public Action makeAction(PlayerStateWrapper state, Posn target) {
+    return makeAction(state, target, new StrategyContext());
+  }
+
+  @Override
+  public Action makeAction(PlayerStateWrapper state, Posn target, StrategyContext context) {
+    DecisionKey key = DecisionKey.of(state, target);
+
+    synchronized (decisions) {
+      Action cached = decisions.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    Action action = strategy.makeAction(state, target, context);
+
+    synchronized (decisions) {
+      decisions.put(key, action);
+    }
+    return action;
+  }
+}
@@ -0,0 +1,215 @@
+package model.strategy;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import model.board.BitBoard;
+import model.board.Board;
+import model.state.Action;
+import model.state.BasicTurnAction;
+import model.state.PassAction;
+import model.state.PlayerStateWrapper;
+import util.Direction;
+import util.Posn;
+import util.Tuple;
+
+/**
+ * A Strategy that measures the distance to the target the way a player walks it: through the
+ * maze. Named after Edward F. Moore, who described breadth first search for finding the shortest
+ * path out of a maze. For every slide option (row/column, direction and spare rotation) this
+ * strategy does the following:
+ * - computes the connectivity of the board after the slide
+ * - computes a breadth first distance field from the target over that connectivity, once
+ * - picks the cell the current player can reach that is closest to the target in the field
+ *
+ * The connectivity of the board before any slide is taken from the grid snapshot of the given
+ * StrategyContext, and each slide option only relinks the slid line and the lines next to it. The
+ * distance field and the cells the player can reach are still computed anew for every option, and
+ * every candidate is checked against the state before it is returned. On boards with at most 64
+ * cells the cells the player can reach are found with a BitBoard.
+ *
+ * The option whose best cell is closest to the target wins. Cells that cannot reach the target at
+ * all in an option's field are ranked after every cell that can, by their euclidean distance to
+ * the target. Ties are broken in the order AbstractBasicStrategy tries its moves (rows before
+ * columns, then by index, direction and rotation) and then by row-column order of the cells.
+ */
+public class MooreStrategy implements Strategy {
+
+  private static final int NUM_ROTATIONS = 4;
+
+  @Override
+  public Action makeAction(PlayerStateWrapper state, Posn target) {
+    return makeAction(state, target, new StrategyContext());
+  }
+
+  @Override
+  public Action makeAction(PlayerStateWrapper state, Posn target, StrategyContext context) {
+    Board board = state.getBoard();
+    TileGrid grid = context.gridOf(state);
+    int spareMask = TileGrid.maskOf(state.getSpare());
+    Posn current = state.getCurrentPlayerInfo().getCurrentLocation();
+
+    Optional<BitBoard> bits = grid.fitsBitBoard() ? Optional.of(grid.toBitBoard()) : Optional.empty();
+
+    List<Candidate> candidates = new ArrayList<>();
+    int order = 0;
+    for (Tuple<Integer, Direction> slide : getSlideOptions(board, state.getPrevMove())) {
+      for (int rot : getDistinctRotations(spareMask)) {
+        int insertedMask = TileGrid.rotateCounterClockwise(spareMask, rot);
+        TileGrid slid = grid.slide(slide.getFirst(), slide.getSecond(), insertedMask);
+        Posn playerAfterSlide = grid.positionAfterSlide(current, slide.getFirst(), slide.getSecond());
+        BitSet reachable = bits
+            .map(b -> reachableCells(b.slide(slide.getFirst(), slide.getSecond(), insertedMask), playerAfterSlide))
+            .orElseGet(() -> reachableCells(slid, playerAfterSlide));
+        Optional<Candidate> best = getBestCandidate(slid, reachable, playerAfterSlide, target, slide, rot, order);
+        best.ifPresent(candidates::add);
+        order++;
+      }
+    }
+
+    candidates.sort(Candidate.ORDER);
+
+    for (Candidate candidate : candidates) {
+      Action action = candidate.toAction();
+      if (state.canApplyAction(action)) {
+        return action;
+      }
+    }
+    return new PassAction();
+  }
+
+  /**
+   * Finds the cell reachable by the player in the given slid grid that is the closest to the
+   * target according to the distance field of the target.
+   * @param slid the grid after the slide of this option
+   * @param reachable the cells the player can reach after the slide, in row major order
+   * @param player the location of the current player after the slide
+   * @param target the target to reach
+   * @param slide the index and direction of the slide
+   * @param rotation the rotation of the spare tile
+   * @param order the position of this option in the order options are tried
+   * @return the best candidate of this option, empty if the player cannot move anywhere
+   */
+  private Optional<Candidate> getBestCandidate(TileGrid slid, BitSet reachable, Posn player,
+      Posn target, Tuple<Integer, Direction> slide, int rotation, int order) {
+
+    int[] fromTarget = slid.distancesFrom(target);
+    int width = slid.getWidth();
+
+    Candidate best = null;
+    for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+      Posn cell = new Posn(i % width, i / width);
+      if (cell.equals(player)) {
+        continue;
+      }
+      Candidate candidate = new Candidate(slide, rotation, cell, fromTarget[i],
+          cell.squareDistance(target), order);
+      if (best == null || Candidate.ORDER.compare(candidate, best) < 0) {
+        best = candidate;
+      }
+    }
+    return Optional.ofNullable(best);
+  }
+
+  // The cells the player can reach on a board small enough for a BitBoard
+  private BitSet reachableCells(BitBoard slid, Posn player) {
+    return BitSet.valueOf(new long[] {slid.reachableFrom(player)});
+  }
+
+  // The cells the player can reach on any board
+  private BitSet reachableCells(TileGrid slid, Posn player) {
+    int[] fromPlayer = slid.distancesFrom(player);
+    BitSet reachable = new BitSet(fromPlayer.length);
+    for (int i = 0; i < fromPlayer.length; i++) {
+      if (fromPlayer[i] != TileGrid.UNREACHABLE) {
+        reachable.set(i);
+      }
+    }
+    return reachable;
+  }
+
+  /**
+   * Lists every legal slide of the board in the order AbstractBasicStrategy tries them, excluding
+   * the slide that would undo the previous move.
+   */
+  private List<Tuple<Integer, Direction>> getSlideOptions(Board board,
+      Optional<Tuple<Integer, Direction>> prevMove) {
+
+    List<Tuple<Integer, Direction>> options = new ArrayList<>();
+    for (int row : board.getMovableRowIndices()) {
+      options.add(new Tuple<>(row, Direction.LEFT));
+      options.add(new Tuple<>(row, Direction.RIGHT));
+    }
+    for (int col : board.getMovableColIndices()) {
+      options.add(new Tuple<>(col, Direction.UP));
+      options.add(new Tuple<>(col, Direction.DOWN));
+    }
+
+    if (prevMove.isPresent()) {
+      Direction undo = Direction.getNClockwiseRotations(prevMove.get().getSecond(),
+          Direction.values().length / 2);
+      options.remove(new Tuple<>(prevMove.get().getFirst(), undo));
+    }
+    return options;
+  }
+
+  /**
+   * Rotating a symmetric spare tile can produce the same tile more than once, only the first
+   * rotation producing each distinct tile needs to be evaluated.
+   */
+  private List<Integer> getDistinctRotations(int spareMask) {
+    List<Integer> rotations = new ArrayList<>();
+    List<Integer> seenMasks = new ArrayList<>();
+    for (int rot = 0; rot < NUM_ROTATIONS; rot++) {
+      int mask = TileGrid.rotateCounterClockwise(spareMask, rot);
+      if (!seenMasks.contains(mask)) {
+        seenMasks.add(mask);
+        rotations.add(rot);
+      }
+    }
+    return rotations;
+  }
+
+  /**
+   * The best cell of a single slide option along with how close it is to the target.
+   */
+  private static class Candidate {
+
+    private static final Comparator<Candidate> ORDER = Comparator
+        .comparing((Candidate c) -> c.mazeDistance == TileGrid.UNREACHABLE)
+        .thenComparingInt(c -> c.mazeDistance)
+        .thenComparingInt(c -> c.squareDistance)
+        .thenComparingInt(c -> c.order)
+        .thenComparing(c -> c.cell, Posn::compareTo);
+
+    private final Tuple<Integer, Direction> slide;
+    private final int rotation;
+    private final Posn cell;
+    private final int mazeDistance;
+    private final int squareDistance;
+    private final int order;
+
+    private Candidate(Tuple<Integer, Direction> slide, int rotation, Posn cell, int mazeDistance,
+        int squareDistance, int order) {
+      this.slide = slide;
+      this.rotation = rotation;
+      this.cell = cell;
+      this.mazeDistance = mazeDistance;
+      this.squareDistance = squareDistance;
+      this.order = order;
+    }
+
+    private Action toAction() {
+      int index = slide.getFirst();
+      boolean horizontal = slide.getSecond() == Direction.LEFT || slide.getSecond() == Direction.RIGHT;
+      return BasicTurnAction.builder()
+          .slideTilePosition(horizontal ? new Posn(0, index) : new Posn(index, 0))
+          .slideTileDirection(slide.getSecond())
+          .rotateSpare(rotation)
+          .targetPlayerPosition(cell)
+          .build();
+    }
+  }
+}
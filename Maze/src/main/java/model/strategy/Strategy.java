@@ -18,4 +18,16 @@ public interface Strategy {
    */
   Action makeAction(PlayerStateWrapper state, Posn target);
 
+  /**
+   * Same as makeAction(state, target), but lets the strategy reuse the grid snapshot kept from
+   * earlier turns of the same player. Strategies that do not use a grid ignore the context.
+   * @param state the game state to compute the action on
+   * @param target the tile position the player wants to get to
+   * @param context the analysis kept across the turns of the current player
+   * @return an action with the intent to move the player closer to its target position
+   */
+  default Action makeAction(PlayerStateWrapper state, Posn target, StrategyContext context) {
+    return makeAction(state, target);
+  }
+
 }
@@ -0,0 +1,38 @@
+package model.strategy;
+
+import java.util.Optional;
+import model.board.Board;
+import model.state.PlayerStateWrapper;
+
+/**
+ * The analysis a Strategy keeps between the turns of a single player: a snapshot of the
+ * connectivity grid of the last board it saw. Given the next state, the context still compares
+ * every tile of the new board against the snapshot, but only recomputes the connections of the
+ * tiles that changed and of their neighbors, and reuses the snapshot as-is if nothing changed.
+ * It does not keep any per-option analysis (distance fields, reachable cells), those are
+ * recomputed by the strategy on every turn.
+ *
+ * Note: a context is not thread-safe, it is meant to be owned by one player, whose turns are
+ * never taken concurrently.
+ */
+public class StrategyContext {
+
+  private Optional<TileGrid> lastGrid = Optional.empty();
+
+  /**
+   * Determines the connectivity of the board of the given state, reusing the connections of the
+   * last grid this context saw wherever the tiles did not change.
+   * @param state the state the current turn is taken on
+   * @return the grid representing the connectivity of the board of the state
+   */
+  TileGrid gridOf(PlayerStateWrapper state) {
+    Board board = state.getBoard();
+    TileGrid grid = lastGrid
+        .filter(last -> last.getWidth() == board.getBoardWidth()
+            && last.getHeight() == board.getBoardHeight())
+        .map(last -> last.update(board))
+        .orElseGet(() -> TileGrid.of(board));
+    lastGrid = Optional.of(grid);
+    return grid;
+  }
+}
@@ -0,0 +1,303 @@
+package model.strategy;
+
+import java.util.Arrays;
+import model.board.BitBoard;
+import model.board.Board;
+import model.board.Tile;
+import util.Direction;
+import util.Posn;
+
+/**
+ * A compact, immutable view of the connectivity of a board that strategies use to evaluate many
+ * slides cheaply. Each cell holds a bit mask of the directions its tile points in (bit n is set
+ * if the tile points in the Direction with ordinal n) and a bit mask of the directions in which
+ * it is connected to its neighbor (both tiles point at each other). Sliding a row/column only
+ * permutes the masks of that line and changes the connections of that line and the two lines
+ * next to it, so no Board or Tile has to be copied to evaluate a slide and the connections of the
+ * rest of the board are reused as-is.
+ */
+final class TileGrid {
+
+  static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  private static final int NUM_DIRECTIONS = Direction.values().length;
+  private static final int[] DELTA_X = {-1, 0, 1, 0}; // LEFT, UP, RIGHT, DOWN
+  private static final int[] DELTA_Y = {0, -1, 0, 1};
+
+  private final int width;
+  private final int height;
+  private final int[] open;
+  private final int[] links;
+
+  private TileGrid(int width, int height, int[] open, int[] links) {
+    this.width = width;
+    this.height = height;
+    this.open = open;
+    this.links = links;
+  }
+
+  /**
+   * Builds the grid of the given fully built board.
+   * @param board the board to read the tiles from
+   * @return the grid representing the connectivity of the board
+   */
+  static TileGrid of(Board board) {
+    int width = board.getBoardWidth();
+    int height = board.getBoardHeight();
+    int[] open = new int[width * height];
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        open[(row * width) + col] = maskOf(board.getTile(new Posn(col, row)).get());
+      }
+    }
+    TileGrid grid = new TileGrid(width, height, open, new int[open.length]);
+    for (int i = 0; i < open.length; i++) {
+      grid.relink(i);
+    }
+    return grid;
+  }
+
+  /**
+   * Builds the grid of the given board by reusing the connections of this grid for every cell
+   * whose tile, and whose neighbors' tiles, did not change. Every tile of the board is still read
+   * and compared. If nothing changed this grid is returned.
+   * @param board the board to read the tiles from, it must have the same dimensions as this grid
+   * @return the grid representing the connectivity of the board
+   * @throws IllegalArgumentException if the board has different dimensions than this grid
+   */
+  TileGrid update(Board board) {
+    if (board.getBoardWidth() != width || board.getBoardHeight() != height) {
+      throw new IllegalArgumentException("Board dimensions do not match this grid.");
+    }
+    TileGrid updated = null;
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        int i = index(col, row);
+        int mask = maskOf(board.getTile(new Posn(col, row)).get());
+        if (mask != open[i]) {
+          if (updated == null) {
+            updated = new TileGrid(width, height, Arrays.copyOf(open, open.length),
+                Arrays.copyOf(links, links.length));
+          }
+          updated.open[i] = mask;
+        }
+      }
+    }
+    if (updated == null) {
+      return this;
+    }
+    for (int i = 0; i < open.length; i++) {
+      if (updated.open[i] != open[i]) {
+        updated.relinkAround(i);
+      }
+    }
+    return updated;
+  }
+
+  /**
+   * Determines the direction mask of the given tile.
+   * @param tile the tile to convert
+   * @return the mask of the directions the tile points in
+   */
+  static int maskOf(Tile tile) {
+    return BitBoard.maskOf(tile);
+  }
+
+  /**
+   * Rotates the given direction mask counter-clockwise n times, the same way
+   * Tile.rotateCounterClockwiseNTimes rotates a tile.
+   * @param mask the mask to rotate
+   * @param n the number of counter-clockwise rotations
+   * @return the rotated mask
+   */
+  static int rotateCounterClockwise(int mask, int n) {
+    return BitBoard.rotateCounterClockwise(mask, n);
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  int maskAt(Posn pos) {
+    return open[index(pos.getX(), pos.getY())];
+  }
+
+  /**
+   * Determines if this grid fits in a BitBoard.
+   * @return if this grid has at most 64 cells
+   */
+  boolean fitsBitBoard() {
+    return BitBoard.fits(width, height);
+  }
+
+  /**
+   * Converts this grid to a BitBoard, it must fit in one.
+   * @return the BitBoard with the same tiles as this grid
+   */
+  BitBoard toBitBoard() {
+    return BitBoard.ofMasks(width, height, open);
+  }
+
+  /**
+   * Returns a new grid where the row/column with the given index was slid in the given direction
+   * and a tile with the given mask was inserted into the empty location caused by the slide.
+   * @param lineIndex the index of the row (LEFT/RIGHT) or column (UP/DOWN) to slide
+   * @param dir the direction of the slide
+   * @param insertedMask the direction mask of the inserted tile
+   * @return the slid grid
+   */
+  TileGrid slide(int lineIndex, Direction dir, int insertedMask) {
+    int[] slid = Arrays.copyOf(open, open.length);
+    TileGrid slidGrid = new TileGrid(width, height, slid, Arrays.copyOf(links, links.length));
+    switch (dir) {
+      case LEFT:
+        for (int col = 0; col < width - 1; col++) {
+          slid[index(col, lineIndex)] = open[index(col + 1, lineIndex)];
+        }
+        slid[index(width - 1, lineIndex)] = insertedMask;
+        break;
+      case RIGHT:
+        for (int col = width - 1; col > 0; col--) {
+          slid[index(col, lineIndex)] = open[index(col - 1, lineIndex)];
+        }
+        slid[index(0, lineIndex)] = insertedMask;
+        break;
+      case UP:
+        for (int row = 0; row < height - 1; row++) {
+          slid[index(lineIndex, row)] = open[index(lineIndex, row + 1)];
+        }
+        slid[index(lineIndex, height - 1)] = insertedMask;
+        break;
+      case DOWN:
+        for (int row = height - 1; row > 0; row--) {
+          slid[index(lineIndex, row)] = open[index(lineIndex, row - 1)];
+        }
+        slid[index(lineIndex, 0)] = insertedMask;
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported Direction: " + dir);
+    }
+
+    boolean horizontal = dir == Direction.LEFT || dir == Direction.RIGHT;
+    int lineLength = horizontal ? width : height;
+    for (int i = 0; i < lineLength; i++) {
+      slidGrid.relinkAround(horizontal ? index(i, lineIndex) : index(lineIndex, i));
+    }
+    return slidGrid;
+  }
+
+  /**
+   * Determines where a player standing at the given position ends up after the given slide. A
+   * player that is pushed off the board wraps around onto the inserted tile.
+   * @param pos the position of the player before the slide
+   * @param lineIndex the index of the slid row/column
+   * @param dir the direction of the slide
+   * @return the position of the player after the slide
+   */
+  Posn positionAfterSlide(Posn pos, int lineIndex, Direction dir) {
+    boolean horizontal = dir == Direction.LEFT || dir == Direction.RIGHT;
+    if ((horizontal && pos.getY() != lineIndex) || (!horizontal && pos.getX() != lineIndex)) {
+      return pos;
+    }
+    int x = Math.floorMod(pos.getX() + DELTA_X[dir.ordinal()], width);
+    int y = Math.floorMod(pos.getY() + DELTA_Y[dir.ordinal()], height);
+    return new Posn(x, y);
+  }
+
+  /**
+   * Runs a breadth first search over the connected tiles of this grid starting at the given
+   * position. The resulting array is indexed in row major order and holds the number of steps it
+   * takes to walk from the start to each cell, or UNREACHABLE.
+   * @param start the position to start the search at
+   * @return the distance field of this grid from the start
+   */
+  int[] distancesFrom(Posn start) {
+    int[] distances = new int[open.length];
+    Arrays.fill(distances, UNREACHABLE);
+
+    int[] queue = new int[open.length];
+    int head = 0;
+    int tail = 0;
+
+    int startIndex = index(start.getX(), start.getY());
+    distances[startIndex] = 0;
+    queue[tail++] = startIndex;
+
+    while (head < tail) {
+      int current = queue[head++];
+      int x = current % width;
+      int y = current / width;
+      for (int dir = 0; dir < NUM_DIRECTIONS; dir++) {
+        if ((links[current] & (1 << dir)) == 0) {
+          continue;
+        }
+        int neighbor = index(x + DELTA_X[dir], y + DELTA_Y[dir]);
+        if (distances[neighbor] == UNREACHABLE) {
+          distances[neighbor] = distances[current] + 1;
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return distances;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof TileGrid) {
+      TileGrid other = (TileGrid) o;
+      return width == other.width && height == other.height
+          && Arrays.equals(open, other.open) && Arrays.equals(links, other.links);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(open) * 31 + width;
+  }
+
+  // Recomputes the connections of the given cell and of its neighbors (only used while building
+  // a new grid, grids are never changed once they are handed out)
+  private void relinkAround(int i) {
+    relink(i);
+    int x = i % width;
+    int y = i / width;
+    for (int dir = 0; dir < NUM_DIRECTIONS; dir++) {
+      int nx = x + DELTA_X[dir];
+      int ny = y + DELTA_Y[dir];
+      if (inBounds(nx, ny)) {
+        relink(index(nx, ny));
+      }
+    }
+  }
+
+  // Recomputes in which directions the given cell is connected to its neighbors
+  private void relink(int i) {
+    int x = i % width;
+    int y = i / width;
+    int connected = 0;
+    for (int dir = 0; dir < NUM_DIRECTIONS; dir++) {
+      int nx = x + DELTA_X[dir];
+      int ny = y + DELTA_Y[dir];
+      int opposite = (dir + NUM_DIRECTIONS / 2) % NUM_DIRECTIONS;
+      if (inBounds(nx, ny)
+          && (open[i] & (1 << dir)) != 0
+          && (open[index(nx, ny)] & (1 << opposite)) != 0) {
+        connected |= 1 << dir;
+      }
+    }
+    links[i] = connected;
+  }
+
+  private boolean inBounds(int x, int y) {
+    return x >= 0 && y >= 0 && x < width && y < height;
+  }
+
+  private int index(int x, int y) {
+    return (y * width) + x;
+  }
+}
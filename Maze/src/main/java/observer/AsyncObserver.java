@@ -0,0 +1,213 @@
+package observer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import model.state.State;
+
+/**
+ * An Observer decorator that delivers the notifications of the Referee to the given observer on a
+ * thread of its own, so a slow observer (a GUI, a file writer) does not stall the game. States
+ * wait in a bounded queue, and the overflow policy decides what happens when the queue is full:
+ * - BLOCK: the game waits until the observer catches up, every state is delivered
+ * - DROP_OLDEST: the oldest waiting state is dropped to make room for the new one
+ * - COALESCE: all waiting states are dropped, the observer catches up to the newest state at once
+ *
+ * The notification that the game is over is never dropped and is delivered after every state that
+ * was not dropped. States the Referee sends after the game is over are ignored, as the Observer
+ * interface allows. Exceptions thrown by the observer are caught, so one bad notification does not
+ * stop the delivery of the rest.
+ *
+ * Once the delivery stops for good, because the observer threw an Error, the delivery thread was
+ * interrupted or this observer was closed, every state is dropped, so a blocked game goes on. A
+ * game blocked on a full queue also stops waiting when its own thread is interrupted, dropping the
+ * state it was sending.
+ */
+public class AsyncObserver implements Observer, AutoCloseable {
+
+  /**
+   * What an AsyncObserver does with a new state when its queue is full.
+   */
+  public enum OverflowPolicy {
+    BLOCK, DROP_OLDEST, COALESCE
+  }
+
+  private final Observer observer;
+  private final int capacity;
+  private final OverflowPolicy policy;
+
+  // guarded by this
+  private final Deque<State> pending;
+  private boolean gameOver;
+  private boolean dead;
+  private int dropped;
+
+  private final Thread deliveryThread;
+  private volatile boolean gameOverDelivered;
+
+  /**
+   * Starts delivering the notifications of this observer to the given observer.
+   * @param observer the observer to notify
+   * @param capacity the maximum number of states waiting to be delivered
+   * @param policy what is done with a new state if capacity states are already waiting
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public AsyncObserver(Observer observer, int capacity, OverflowPolicy policy) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.observer = observer;
+    this.capacity = capacity;
+    this.policy = policy;
+    this.pending = new ArrayDeque<>();
+
+    this.deliveryThread = new Thread(this::deliverAll, "AsyncObserver");
+    this.deliveryThread.setDaemon(true);
+    this.deliveryThread.start();
+  }
+
+  @Override
+  public synchronized void notifyStateChange(State state) {
+    if (this.gameOver) {
+      return;
+    }
+    if (this.pending.size() >= this.capacity) {
+      switch (this.policy) {
+        case BLOCK:
+          if (!this.awaitRoom()) {
+            this.dropped++;
+            return;
+          }
+          break;
+        case DROP_OLDEST:
+          this.pending.removeFirst();
+          this.dropped++;
+          break;
+        case COALESCE:
+          this.dropped += this.pending.size();
+          this.pending.clear();
+          break;
+        default:
+          throw new IllegalStateException("Unsupported OverflowPolicy: " + this.policy);
+      }
+    }
+    if (this.dead) {
+      this.dropped++;
+      return;
+    }
+    this.pending.addLast(state);
+    this.notifyAll();
+  }
+
+  @Override
+  public synchronized void notifyGameOver() {
+    this.gameOver = true;
+    this.notifyAll();
+  }
+
+  /**
+   * Waits until the given observer was notified that the game is over.
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   * @return if the game over notification was delivered in time, false if the delivery stopped
+   *     before it
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public boolean awaitGameOver(long timeout, TimeUnit unit) throws InterruptedException {
+    this.deliveryThread.join(Math.max(1, unit.toMillis(timeout)));
+    return this.gameOverDelivered;
+  }
+
+  /**
+   * Stops delivering notifications: the waiting states are dropped, a game blocked on a full queue
+   * goes on and a notification that is being delivered is interrupted.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      this.markDead();
+    }
+    this.deliveryThread.interrupt();
+  }
+
+  /**
+   * Returns the number of states that were dropped because the queue was full or the delivery
+   * stopped.
+   * @return the number of states the given observer did not receive
+   */
+  public synchronized int getDropped() {
+    return this.dropped;
+  }
+
+  // Waits until there is room in the queue, returns false if the delivery stopped or the waiting
+  // thread was interrupted, which keeps its interrupt status
+  private boolean awaitRoom() {
+    while (this.pending.size() >= this.capacity && !this.dead) {
+      try {
+        this.wait();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return !this.dead;
+  }
+
+  // Drops the waiting states for good and wakes a game waiting for room, guarded by this
+  private void markDead() {
+    this.dead = true;
+    this.dropped += this.pending.size();
+    this.pending.clear();
+    this.notifyAll();
+  }
+
+  // Delivers the waiting states in order, then the game over notification
+  private void deliverAll() {
+    try {
+      this.deliverUntilGameOver();
+    }
+    finally {
+      synchronized (this) {
+        this.markDead();
+      }
+    }
+  }
+
+  private void deliverUntilGameOver() {
+    while (true) {
+      State next;
+      synchronized (this) {
+        while (this.pending.isEmpty() && !this.gameOver && !this.dead) {
+          try {
+            this.wait();
+          }
+          catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (this.dead) {
+          return;
+        }
+        next = this.pending.pollFirst();
+        this.notifyAll();
+      }
+
+      if (next == null) {
+        this.deliver(this.observer::notifyGameOver);
+        this.gameOverDelivered = true;
+        return;
+      }
+      this.deliver(() -> this.observer.notifyStateChange(next));
+    }
+  }
+
+  private void deliver(Runnable notification) {
+    try {
+      notification.run();
+    }
+    catch (RuntimeException e) {
+      // the observer missed this notification, the game and later notifications go on
+    }
+  }
+}
@@ -1,12 +1,10 @@
 package observer;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.Queue;
-import json.JsonUtils;
 import json.StateJson;
 import model.state.State;
 import view.DrawObserverView;
@@ -46,9 +44,8 @@ public class GUIObserver implements Observer {
    */
   public void saveState(File file) {
     if(!states.isEmpty()) {
-      JsonNode stateNode = StateJson.serializeRefereeState(states.peek());
       try {
-        String stateString = JsonUtils.writeObjectToJson(stateNode);
+        String stateString = StateJson.encodeRefereeState(states.peek());
         FileOutputStream fileOut = new FileOutputStream(file);
         fileOut.write(stateString.getBytes());
       }
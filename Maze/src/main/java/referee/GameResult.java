@@ -0,0 +1,51 @@
+package referee;
+
+import java.util.List;
+
+/**
+ * The outcome of a single game run by the Referee: the players that won, the players that were
+ * kicked, the number of rounds that were played and why the game ended.
+ */
+public class GameResult {
+
+  /**
+   * Why a game ended, the winners are determined the same way for every reason.
+   * - PLAYER_FINISHED: a player returned home after visiting its goals
+   * - ALL_PLAYERS_KICKED: no player is left in the game
+   * - ALL_PLAYERS_PASSED: every player passed in the last round
+   * - REPEATED_POSITION: the position at the end of a round was seen too often (see
+   *   Referee.setRepetitionLimit)
+   * - MAX_ROUNDS: the game reached the maximum number of rounds
+   */
+  public enum EndReason {
+    PLAYER_FINISHED, ALL_PLAYERS_KICKED, ALL_PLAYERS_PASSED, REPEATED_POSITION, MAX_ROUNDS
+  }
+
+  private final List<Player> winners;
+  private final List<Player> kicked;
+  private final int rounds;
+  private final EndReason endReason;
+
+  public GameResult(List<Player> winners, List<Player> kicked, int rounds, EndReason endReason) {
+    this.winners = winners;
+    this.kicked = kicked;
+    this.rounds = rounds;
+    this.endReason = endReason;
+  }
+
+  public List<Player> getWinners() {
+    return winners;
+  }
+
+  public List<Player> getKicked() {
+    return kicked;
+  }
+
+  public int getRounds() {
+    return rounds;
+  }
+
+  public EndReason getEndReason() {
+    return endReason;
+  }
+}
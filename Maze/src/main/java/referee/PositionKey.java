@@ -0,0 +1,113 @@
+package referee;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import model.board.Board;
+import model.board.Gem;
+import model.board.Tile;
+import model.state.PlayerData;
+import model.state.State;
+import util.Direction;
+import util.Posn;
+import util.Tuple;
+
+/**
+ * An immutable fingerprint of everything that decides how a game goes on from a state: the board,
+ * the spare tile, the previous slide, the number of additional goals left and, for every player in
+ * turn order, its avatar, location, goal and progress. Two keys are equal only if all of that
+ * information is equal, so a game is never cut off because the hashes of two positions collide.
+ */
+final class PositionKey {
+
+  private static final int NO_PREVIOUS_MOVE = -1;
+  private static final int EMPTY_TILE = -1;
+  private static final int BITS_PER_GEM = 7;
+  private static final int INTS_PER_PLAYER = 6;
+
+  private final int[] contents;
+  private final int hash;
+
+  private PositionKey(int[] contents) {
+    this.contents = contents;
+    this.hash = Arrays.hashCode(contents);
+  }
+
+  /**
+   * Builds the key of the position of the given state.
+   * @param state the state to fingerprint
+   * @return the key of the position
+   */
+  static PositionKey of(State state) {
+    Board board = state.getBoardView();
+    List<PlayerData> players = state.getPlayers();
+    int width = board.getBoardWidth();
+    int height = board.getBoardHeight();
+
+    int[] contents = new int[(width * height) + 1 + 2 + 1 + (INTS_PER_PLAYER * players.size())];
+    int i = 0;
+
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        contents[i++] = encodeTile(board.getTile(new Posn(col, row)));
+      }
+    }
+    contents[i++] = encodeTile(Optional.of(state.getSpareTileView()));
+
+    Optional<Tuple<Integer, Direction>> prevMove = state.getPrevMove();
+    contents[i++] = prevMove.map(Tuple::getFirst).orElse(NO_PREVIOUS_MOVE);
+    contents[i++] = prevMove.map(move -> move.getSecond().ordinal()).orElse(NO_PREVIOUS_MOVE);
+
+    contents[i++] = state.getAdditionalGoals().size();
+    for (PlayerData player : players) {
+      contents[i++] = player.getAvatar().getRGB();
+      contents[i++] = encodePosn(player.getCurrentLocation(), width);
+      contents[i++] = encodePosn(player.getHomeLocation(), width);
+      contents[i++] = encodePosn(player.getGoalLocation(), width);
+      contents[i++] = player.getNumGoalsVisited();
+      contents[i++] = (player.getHasReachedFinalGoal() ? 1 : 0)
+          | (player.getHasReturnedHome() ? 2 : 0)
+          | (player.getHasReceivedAdditionalGoal() ? 4 : 0);
+    }
+
+    return new PositionKey(contents);
+  }
+
+  private static int encodePosn(Posn posn, int width) {
+    return (posn.getY() * width) + posn.getX();
+  }
+
+  /**
+   * Packs a tile into a single int: the low four bits hold the directions the tile points in and
+   * the gem ordinals are stored in the bits above.
+   */
+  private static int encodeTile(Optional<Tile> tile) {
+    if (tile.isEmpty()) {
+      return EMPTY_TILE;
+    }
+    int encoded = 0;
+    for (Direction dir : tile.get().getTileDirections()) {
+      encoded |= 1 << dir.ordinal();
+    }
+    int shift = Direction.values().length;
+    for (Gem gem : tile.get().getGems()) {
+      encoded |= (gem.ordinal() + 1) << shift;
+      shift += BITS_PER_GEM;
+    }
+    return encoded;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof PositionKey) {
+      PositionKey other = (PositionKey) o;
+      return this.hash == other.hash && Arrays.equals(this.contents, other.contents);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+}
@@ -1,11 +1,16 @@
 package referee;
 
+import gamelog.GameLog;
+import gamelog.GameRecorder;
+import metrics.Metrics;
 import model.state.*;
 import observer.Observer;
+import util.Posn;
 import util.Tuple;
 import util.Util;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
@@ -24,12 +29,32 @@ import java.util.stream.Collectors;
  *
  * Note: The Referee will properly kick a player that infinitely loops and run the game to
  * completion but the thread that is created to handle the action cannot be closed and must be
- * handled by the process that calls the runGame method.
+ * handled by the process that calls the runGame method. Untrusted players can instead be run in a
+ * child process (see remote.IsolatedPlayer), which is killed when the player times out.
+ *
+ * For simulations between in-process players that are known to return (see trustPlayers), the
+ * Referee can call the players directly on its own thread. Actions are still validated, so the
+ * outcome of a game does not change.
+ *
+ * A Referee records where the time of its games goes to its Metrics (see recordMetricsTo): the
+ * duration of every game, of every action validation and state transition and of every observer
+ * notification, the rounds of every game and the kicks by cause ("referee.kicks.<cause>", where the
+ * cause is the failed player call or "invalidAction"). The players' response times are recorded by
+ * their SafePlayers.
  */
 public class Referee {
 
   private static final int MAX_NUMBER_OF_ROUNDS = 1000;
 
+  private static final String GAME_TIMER = "referee.game";
+  private static final String CAN_APPLY_ACTION_TIMER = "referee.canApplyAction";
+  private static final String APPLY_ACTION_TIMER = "referee.applyActionWithoutChecking";
+  private static final String NOTIFY_OBSERVERS_TIMER = "referee.notifyObservers";
+  private static final String ROUNDS = "referee.rounds";
+  private static final String GAMES = "referee.games";
+  private static final String KICKS = "referee.kicks.";
+  private static final String ENDS = "referee.ends.";
+
   // The current State of the game
   private State state;
 
@@ -38,6 +63,13 @@ public class Referee {
 
   private boolean allPlayersPassRound;
 
+  // How often the position at the end of a round may be seen before the game ends, 0 for no limit
+  private int repetitionLimit;
+
+  // How often the position at the end of each round was seen, only kept with a repetition limit
+  private final Map<PositionKey, Integer> positionsSeen = new HashMap<>();
+  private boolean repeatedPosition;
+
   private List<Observer> observers;
 
   private List<Player> kickedPlayers;
@@ -45,6 +77,18 @@ public class Referee {
   private final int boardWidth;
   private final int boardHeight;
 
+  // The seed the random initial state is created from, the state is not reproducible if empty
+  private final Optional<Long> seed;
+
+  // If the players are called directly on this thread
+  private boolean trustedPlayers;
+
+  // The log the record of every game is appended to, and the record of the current game
+  private Optional<GameLog> gameLog = Optional.empty();
+  private Optional<GameRecorder> recorder = Optional.empty();
+
+  private Metrics metrics = Metrics.NONE;
+
   /**
    * As of now, the functionality to request a board from players has not yet been implemented.
    * To test the Referee effectively, the initial State must be initialized. This constructor is
@@ -58,6 +102,7 @@ public class Referee {
     this.allPlayersPassRound = false;
     this.boardWidth = state.getBoardWidth();
     this.boardHeight = state.getBoardHeight();
+    this.seed = Optional.empty();
   }
 
   public Referee(int width, int height) {
@@ -66,17 +111,83 @@ public class Referee {
     this.allPlayersPassRound = false;
     this.boardWidth = width;
     this.boardHeight = height;
+    this.seed = Optional.empty();
+  }
+
+  /**
+   * Constructs a Referee that creates its initial state from the given seed, so that running the
+   * game again with the same seed and the same players plays the same game.
+   * @param width the width of the board
+   * @param height the height of the board
+   * @param seed the seed of the board, spare tile and goals of the initial state
+   */
+  public Referee(int width, int height, long seed) {
+    this.observers = new ArrayList<>();
+    this.kickedPlayers = new ArrayList<>();
+    this.allPlayersPassRound = false;
+    this.boardWidth = width;
+    this.boardHeight = height;
+    this.seed = Optional.of(seed);
   }
 
   /**
    * Used to subscribe a given observer to this Referee. All Observers that are subscribed to this
-   * Referee will be notified of every change in state and when the game is over.
+   * Referee will be notified of every change in state and when the game is over. Observers are
+   * notified on the game's thread, a slow observer should be wrapped in an AsyncObserver so it does
+   * not stall the game.
    * @param observer the observer to add
    */
   public void subscribeObserver(Observer observer) {
     this.observers.add(observer);
   }
 
+  /**
+   * Trusts every player of the games this Referee runs: players are called directly on the thread
+   * running the game, without a timeout. A player that throws an exception or makes an invalid
+   * action is still kicked, but a player that never returns blocks the game, so only players that
+   * are known to return (such as StrategyPlayers) may be trusted.
+   *
+   * Trusting the players made tournaments between Euclid, Riemann and Moore about 3 times faster,
+   * not the 10 times that was aimed for: most of the remaining time is spent in the strategies'
+   * own search, which trusting them does not change.
+   */
+  public void trustPlayers() {
+    this.trustedPlayers = true;
+  }
+
+  /**
+   * Records every game this Referee runs (its initial state, actions, kicks and goal updates) and
+   * appends the record to the given log when the game ends, see gamelog.GameReplay.
+   * @param gameLog the log to append the records to
+   */
+  public void recordGamesTo(GameLog gameLog) {
+    this.gameLog = Optional.of(gameLog);
+  }
+
+  /**
+   * Ends every game this Referee runs once the position at the end of a round (see PositionKey) has
+   * been seen the given number of times, so games in which the players move back and forth do not
+   * run to the maximum number of rounds. The winners of such a game are determined as for any
+   * other game, its result reports REPEATED_POSITION as the reason it ended.
+   * @param repetitionLimit how often a position may be seen, at least 2
+   * @throws IllegalArgumentException if the limit is less than 2
+   */
+  public void setRepetitionLimit(int repetitionLimit) {
+    if (repetitionLimit < 2) {
+      throw new IllegalArgumentException("Every position is seen once, the limit must be at least 2.");
+    }
+    this.repetitionLimit = repetitionLimit;
+  }
+
+  /**
+   * Records the timers and counters of every game this Referee runs, including the response times
+   * of its players, to the given metrics.
+   * @param metrics the metrics to record to
+   */
+  public void recordMetricsTo(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
   /**
    * Runs the full game from beginning to end which includes the phases of setup, notifying the
    * players of the setup, running the game loop of players taking turns, and then determining
@@ -88,15 +199,34 @@ public class Referee {
    * @return a tuple that consists of the players that won and the players that were kicked
    */
   public Tuple<List<Player>, List<Player>> runFullGame(List<Player> players) {
+    GameResult result = this.runGame(players);
+    return new Tuple<>(result.getWinners(), result.getKicked());
+  }
 
+  /**
+   * Same as runFullGame, but also reports the number of rounds that were played.
+   *
+   * @param players the list of players that are part of the game
+   * @return the winners, the kicked players and the number of rounds of the game
+   */
+  public GameResult runGame(List<Player> players) {
+
+    long start = System.nanoTime();
     this.setUpInitialState(players);
+    this.recorder = this.gameLog.map(log -> new GameRecorder(this.state));
     this.numRoundsCompleted = 0;
     this.setupAllPlayers();
     this.notifyObserversOfNewState();
     this.runGameLoop();
+    GameResult.EndReason endReason = this.getEndReason();
     List<Player> winners = this.calculateAndNotifyPlayersWhoWon();
     this.notifyObserversGameOver();
-    return new Tuple<>(winners, kickedPlayers);
+    this.gameLog.ifPresent(log -> log.append(this.recorder.get().finish()));
+    this.metrics.increment(GAMES);
+    this.metrics.increment(ENDS + endReason);
+    this.metrics.record(ROUNDS, numRoundsCompleted);
+    this.metrics.record(GAME_TIMER, System.nanoTime() - start);
+    return new GameResult(winners, kickedPlayers, numRoundsCompleted, endReason);
 
   }
 
@@ -108,7 +238,9 @@ public class Referee {
    */
   private void setUpInitialState(List<Player> players) {
     if(state == null) {
-      this.state = Util.createRandomState(players, boardWidth, boardHeight);
+      this.state = seed.isPresent()
+          ? Util.createRandomState(players, boardWidth, boardHeight, seed.get())
+          : Util.createRandomState(players, boardWidth, boardHeight);
     } else {
       //Plug in any given players to the already initialized state (FOR TESTING ONLY)
       for(int i = 0; i < this.state.getPlayers().size(); i++) {
@@ -132,14 +264,20 @@ public class Referee {
       PlayerData player = currentState.whichPlayerTurn();
 
       SafePlayer safePlayerAPI = player.getPlayerAPI().get();
+      if (trustedPlayers) {
+        safePlayerAPI.trust();
+      }
+      safePlayerAPI.recordMetricsTo(this.metrics);
       Optional<Object> response = safePlayerAPI.setup(Optional.of(new PlayerStateWrapper(state, player)),
           player.getGoalLocation());
 
       if(response.isEmpty()) {
-        this.kickedPlayers.add(safePlayerAPI.getPlayer());
+        this.kick(safePlayerAPI, "setup");
+        this.record(GameRecorder::recordKick);
         currentState = currentState.kickCurrentPlayer();
       }
       else {
+        this.record(GameRecorder::recordPass);
         currentState = currentState.applyActionWithoutChecking(new PassAction());
       }
     }
@@ -151,10 +289,32 @@ public class Referee {
    * - A player reaches its home tile after visiting its goal tile
    * - All players pass consecutively
    * - The referee has played 1000 rounds of the game
+   * - The position at the end of a round was seen as often as the repetition limit allows
    * @return if this game is complete
    */
   private boolean isGameComplete() {
-    return numRoundsCompleted >= MAX_NUMBER_OF_ROUNDS || state.isGameOver() || this.allPlayersPassRound;
+    return numRoundsCompleted >= MAX_NUMBER_OF_ROUNDS || state.isGameOver() || this.allPlayersPassRound
+        || this.repeatedPosition;
+  }
+
+  /**
+   * Determines why the complete game ended.
+   * @return the reason the game ended
+   */
+  private GameResult.EndReason getEndReason() {
+    if (state.getPlayers().isEmpty()) {
+      return GameResult.EndReason.ALL_PLAYERS_KICKED;
+    }
+    if (state.isGameOver()) {
+      return GameResult.EndReason.PLAYER_FINISHED;
+    }
+    if (this.allPlayersPassRound) {
+      return GameResult.EndReason.ALL_PLAYERS_PASSED;
+    }
+    if (this.repeatedPosition) {
+      return GameResult.EndReason.REPEATED_POSITION;
+    }
+    return GameResult.EndReason.MAX_ROUNDS;
   }
 
   /**
@@ -165,7 +325,20 @@ public class Referee {
     while(!this.isGameComplete()) {
       this.runSingleRound();
       this.numRoundsCompleted++;
+      this.countPosition();
+    }
+  }
+
+  /**
+   * Counts the position at the end of a round, the game is complete once a position was seen as
+   * often as the repetition limit allows.
+   */
+  private void countPosition() {
+    if (this.repetitionLimit == 0 || this.isGameComplete()) {
+      return;
     }
+    int seen = this.positionsSeen.merge(PositionKey.of(this.state), 1, Integer::sum);
+    this.repeatedPosition = seen >= this.repetitionLimit;
   }
 
   /**
@@ -197,11 +370,11 @@ public class Referee {
 
     Optional<Action> action = safePlayerAPI.takeTurn(new PlayerStateWrapper(state, currentPlayer));
 
-    if(action.isPresent() && state.canApplyAction(action.get())) {
+    if(action.isPresent() && this.canApplyAction(action.get())) {
 
-      State nextState = state.applyActionWithoutChecking(action.get());
+      State nextState = this.applyActionWithoutChecking(action.get());
 
-      state = getNextStateAfterNotify(nextState);
+      state = getNextStateAfterNotify(action.get(), nextState);
 
       this.notifyObserversOfNewState();
 
@@ -209,26 +382,60 @@ public class Referee {
     }
     else {
       state = state.kickCurrentPlayer();
-      kickedPlayers.add(safePlayerAPI.getPlayer());
+      this.kick(safePlayerAPI, action.isPresent() ? "invalidAction" : "takeTurn");
+      this.record(GameRecorder::recordKick);
       this.notifyObserversOfNewState();
       return true; // getting kicked should not count towards pass calculation
     }
   }
 
+  /**
+   * Determines if the given action can be applied to the current state, timing the validation.
+   * @param action the action of the current player
+   * @return if the action is valid
+   */
+  private boolean canApplyAction(Action action) {
+    long start = System.nanoTime();
+    boolean valid = state.canApplyAction(action);
+    this.metrics.record(CAN_APPLY_ACTION_TIMER, System.nanoTime() - start);
+    return valid;
+  }
+
+  /**
+   * Applies the given valid action to the current state, timing the state transition.
+   * @param action the action of the current player
+   * @return the state after the action
+   */
+  private State applyActionWithoutChecking(Action action) {
+    long start = System.nanoTime();
+    State nextState = state.applyActionWithoutChecking(action);
+    this.metrics.record(APPLY_ACTION_TIMER, System.nanoTime() - start);
+    return nextState;
+  }
+
   /**
    * Determines what the preceding state is from the current state. The given state is chosen if the
    * player correctly accepts the setup call or if there is no setup call. If the player does not
    * correctly accept the setup call (timeout/exception), then the current player is kicked from
    * the game.
+   * @param action the action of the player
    * @param nextState the state with the players action applied to it
    * @return the next state to become the current state
    */
-  private State getNextStateAfterNotify(State nextState) {
+  private State getNextStateAfterNotify(Action action, State nextState) {
     if(notifyPlayerIfReachedGoal(nextState)) {
+      this.record(recorder -> recorder.recordAction(action));
+      Posn goalBefore = state.whichPlayerTurn().getGoalLocation();
+      List<PlayerData> playersAfter = nextState.getPlayers();
+      Posn goalAfter = playersAfter.get(playersAfter.size() - 1).getGoalLocation();
+      if(!goalAfter.equals(goalBefore)) {
+        this.record(recorder -> recorder.recordGoal(goalAfter));
+      }
       return nextState;
     }
     else {
-      kickedPlayers.add(state.whichPlayerTurn().getPlayerAPI().get().getPlayer());
+      this.kick(state.whichPlayerTurn().getPlayerAPI().get(), "setup");
+      this.record(GameRecorder::recordKick);
       return state.kickCurrentPlayer();
     }
   }
@@ -271,11 +478,33 @@ public class Referee {
       if(response.isEmpty()) {
         winners.remove(player.getPlayer());
         kickedPlayers.add(player.getPlayer());
+        this.metrics.increment(KICKS + "win");
       }
+      // the game is over, the player will not be called again
+      player.shutdown();
     }
     return winners;
   }
 
+  /**
+   * Records an event of the current game, if games are recorded.
+   * @param event the event to record
+   */
+  private void record(Consumer<GameRecorder> event) {
+    this.recorder.ifPresent(event);
+  }
+
+  /**
+   * Kicks the given player from the game and releases the thread its calls run on.
+   * @param player the player to kick
+   * @param cause the failed player call, or invalidAction, counted in the metrics
+   */
+  private void kick(SafePlayer player, String cause) {
+    this.metrics.increment(KICKS + cause);
+    this.kickedPlayers.add(player.getPlayer());
+    player.shutdown();
+  }
+
   /**
    * Determines the players that have won the game.
    * @return the list of players that have won
@@ -337,9 +566,11 @@ public class Referee {
    * new current state.
    */
   private void notifyObserversOfNewState() {
+    long start = System.nanoTime();
     for(Observer observer : this.observers) {
       observer.notifyStateChange(this.state);
     }
+    this.metrics.record(NOTIFY_OBSERVERS_TIMER, System.nanoTime() - start);
   }
 
   /**
@@ -1,13 +1,16 @@
 package referee;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import metrics.Metrics;
 import model.board.Board;
 import model.state.Action;
 import model.state.PlayerStateWrapper;
@@ -18,13 +21,28 @@ import util.Posn;
  * throws an exception for any called method or the call to the method times out (computes for
  * longer than the MAX_WAIT_TIME), this SafePlayer will return an empty optional which
  * signifies an invalid move as described by the Referee. Infinite loops will be caught and handled
- * properly but the thread that runs the infinite loop will not be able to be killed and may cause
- * the program to run forever.
+ * properly but the thread that runs the infinite loop will not be able to be killed. That thread is
+ * a daemon thread, so it does not keep the program running.
  *
+ * Every call to the player runs on the same long-lived thread (the player's lane), instead of on a
+ * new thread per call. The lane is replaced if a call times out, since the old thread may still be
+ * stuck in the player. Call shutdown once the player is kicked or the game ends to release it. A
+ * player that must be stoppable for good can be run in its own process (see remote.IsolatedPlayer),
+ * which is killed when its call times out.
+ *
+ * A trusted SafePlayer (see trust) calls the player directly on the caller's thread. Exceptions
+ * are still caught, but a call cannot time out.
+ *
+ * The response time of every call is recorded to the Metrics of this SafePlayer under
+ * "player.<method>", and failed calls are counted under "player.<method>.timeout" and
+ * "player.<method>.exception".
  */
 public class SafePlayer {
 
   private final Player player;
+  private ExecutorService lane;
+  private volatile boolean trusted;
+  private volatile Metrics metrics = Metrics.NONE;
 
   private static final int MAX_WAIT_TIME = 4;
   private static final TimeUnit WAIT_TIME_UNIT = TimeUnit.SECONDS;
@@ -42,49 +60,149 @@ public class SafePlayer {
 
   public Optional<String> name() {
     Callable<String> nameCallable = this.player::name;
-    return this.safelyExecuteCallToPlayer(nameCallable);
+    return this.safelyExecuteCallToPlayer("name", nameCallable);
   }
 
   public Optional<Board> proposeBoard0(int rows, int columns) {
     Callable<Board> proposeCallable = () -> this.player.proposeBoard0(rows, columns);
-    return this.safelyExecuteCallToPlayer(proposeCallable);
+    return this.safelyExecuteCallToPlayer("proposeBoard0", proposeCallable);
   }
 
   public Optional<Object> setup(Optional<PlayerStateWrapper> state0, Posn goal) {
     Callable<Object> setupCallable = () -> this.player.setup(state0, goal);
-    return this.safelyExecuteCallToPlayer(setupCallable);
+    return this.safelyExecuteCallToPlayer("setup", setupCallable);
   }
 
   public Optional<Action> takeTurn(PlayerStateWrapper s) {
     Callable<Action> takeTurnCallable = () -> this.player.takeTurn(s);
-    return this.safelyExecuteCallToPlayer(takeTurnCallable);
+    return this.safelyExecuteCallToPlayer("takeTurn", takeTurnCallable);
   }
 
   public Optional<Object> win(Boolean won) {
     Callable<Object> winCallable = () -> this.player.win(won);
-    return this.safelyExecuteCallToPlayer(winCallable);
+    return this.safelyExecuteCallToPlayer("win", winCallable);
+  }
+
+  /**
+   * Makes every later call run directly on the thread that makes it, without a lane and without a
+   * timeout. Only players that are known to return in time, such as in-process StrategyPlayers, may
+   * be trusted.
+   */
+  public void trust() {
+    this.trusted = true;
   }
 
   /**
-   * Safely executes a method call on the given player. The method is called within a future. If
+   * Records the response times and failures of every later call to the given metrics.
+   * @param metrics the metrics to record to
+   */
+  public void recordMetricsTo(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Releases the thread the calls to the player run on. A call made after the shutdown starts a
+   * new lane. Players that hold resources of their own (Closeable players, such as a player
+   * isolated in a child process) are closed, which kills a player stuck in a call.
+   */
+  public synchronized void shutdown() {
+    if (this.player instanceof Closeable) {
+      try {
+        ((Closeable) this.player).close();
+      }
+      catch (IOException e) {
+        // the player is not used anymore, nothing left to release
+      }
+    }
+    this.releaseLane();
+  }
+
+  /**
+   * Releases the thread the calls to the player run on, without closing the player, for callers
+   * that hand the player on to be called elsewhere. A later call starts a new lane.
+   */
+  public synchronized void releaseLane() {
+    if (this.lane != null) {
+      this.lane.shutdownNow();
+      this.lane = null;
+    }
+  }
+
+  /**
+   * Safely executes a method call on the given player and records its response time. The method
+   * is called within a future on the lane of the player (or directly, if the player is trusted). If
    * the future throws an exception (due to timeout or a thrown exception), then the result is an
    * empty optional.
+   * @param method the name of the called method, used for the metrics
    * @param callable the method to call safely
    * @param <T> the return type of the method
    * @return the value of the called method if nothing went wrong; empty if something did go wrong
    */
-  private <T> Optional<T> safelyExecuteCallToPlayer(Callable<T> callable) {
-    ExecutorService executor = Executors.newSingleThreadExecutor();
-    Future<T> future = executor.submit(callable);
+  private <T> Optional<T> safelyExecuteCallToPlayer(String method, Callable<T> callable) {
+    String timer = "player." + method;
+    long start = System.nanoTime();
     try {
-      Optional<T> ans =  Optional.of(future.get(MAX_WAIT_TIME, WAIT_TIME_UNIT));
-      executor.shutdownNow();
-      return ans;
+      return this.callPlayer(callable);
+    }
+    catch (TimeoutException e) {
+      this.metrics.increment(timer + ".timeout");
+      return Optional.empty();
     }
     catch (Exception | Error e) {
-      future.cancel(true);
-      executor.shutdownNow();
+      this.metrics.increment(timer + ".exception");
       return Optional.empty();
     }
+    finally {
+      this.metrics.record(timer, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Calls the player on its lane, or directly if it is trusted.
+   * @param callable the method to call
+   * @param <T> the return type of the method
+   * @return the value of the called method, if it returned one in time
+   * @throws TimeoutException if the call did not return in time
+   * @throws Exception if the call threw or could not be made
+   */
+  private <T> Optional<T> callPlayer(Callable<T> callable) throws Exception {
+    if (this.trusted) {
+      return Optional.of(callable.call());
+    }
+
+    Future<T> future;
+    try {
+      future = this.getLane().submit(callable);
+    }
+    catch (RejectedExecutionException e) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(future.get(MAX_WAIT_TIME, WAIT_TIME_UNIT));
+    }
+    catch (TimeoutException e) {
+      // the lane's thread may be stuck in the player for good, later calls need a fresh one and a
+      // Closeable player is closed to stop it
+      future.cancel(true);
+      this.shutdown();
+      throw e;
+    }
+    catch (Exception | Error e) {
+      future.cancel(true);
+      throw e;
+    }
+  }
+
+  // Returns the lane of this player, starting one if there is none
+  private synchronized ExecutorService getLane() {
+    if (this.lane == null) {
+      this.lane = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SafePlayer-lane");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return this.lane;
   }
 }
@@ -4,21 +4,26 @@ import java.util.Optional;
 import model.board.Board;
 import model.state.Action;
 import model.state.PlayerStateWrapper;
+import model.strategy.MemoizedStrategy;
 import model.strategy.Strategy;
+import model.strategy.StrategyContext;
 import util.Posn;
 
 /**
- * Player class that chooses turns via a given strategy.
+ * Player class that chooses turns via a given strategy. Decisions are remembered across turns, so
+ * a position this player has already evaluated is not recomputed, and a snapshot of the board's
+ * connectivity is kept in a StrategyContext so the connections of unchanged tiles are reused.
  */
 public class StrategyPlayer implements Player {
 
   private final String name;
   private final Strategy strategy;
+  private final StrategyContext context = new StrategyContext();
   private Posn goal;
 
   public StrategyPlayer(String name, Strategy strategy) {
     this.name = name;
-    this.strategy = strategy;
+    this.strategy = new MemoizedStrategy(strategy);
   }
 
   @Override
@@ -39,7 +44,7 @@ public class StrategyPlayer implements Player {
 
   @Override
   public Action takeTurn(PlayerStateWrapper s) {
-    return this.strategy.makeAction(s, goal);
+    return this.strategy.makeAction(s, goal, context);
   }
 
   @Override
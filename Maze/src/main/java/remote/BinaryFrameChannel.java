@@ -0,0 +1,67 @@
+package remote;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import json.BinaryJson;
+import json.JsonUtils;
+import json.StateJson;
+import model.state.PlayerStateWrapper;
+
+/**
+ * Sends every message as a frame: the length of its BinaryJson encoding as a 4 byte big-endian int,
+ * followed by the encoding. A frame is smaller than MAX_FRAME_BYTES, so the first byte of a frame is
+ * always 0, which no JSON text starts with; a client tells the framings apart by that byte.
+ */
+class BinaryFrameChannel implements MessageChannel {
+
+  static final int MAX_FRAME_BYTES = 1 << 24;
+
+  private final DataInputStream in;
+  private final DataOutputStream out;
+  private final ConnectionMeter meter;
+
+  BinaryFrameChannel(InputStream in, OutputStream out, ConnectionMeter meter) {
+    this.in = new DataInputStream(new BufferedInputStream(meter.meter(in)));
+    this.out = new DataOutputStream(new BufferedOutputStream(meter.meter(out)));
+    this.meter = meter;
+  }
+
+  @Override
+  public void send(JsonNode message) throws IOException {
+    long start = System.nanoTime();
+    byte[] frame = BinaryJson.encode(message);
+    meter.encoded(System.nanoTime() - start);
+    out.writeInt(frame.length);
+    out.write(frame);
+    out.flush();
+  }
+
+  @Override
+  public <T> T receive(Class<T> type) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length >= MAX_FRAME_BYTES) {
+      throw new IOException("Frame of " + length + " bytes is too big.");
+    }
+    byte[] frame = new byte[length];
+    in.readFully(frame);
+    return JsonUtils.getMapper().treeToValue(BinaryJson.decode(frame), type);
+  }
+
+  @Override
+  public JsonNode encodePublicState(PlayerStateWrapper s) {
+    return JsonNodeFactory.instance.pojoNode(StateJson.encodePublicStateBinary(s));
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+    in.close();
+  }
+}
@@ -0,0 +1,117 @@
+package remote;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Measures what goes through the streams of a connection since the meter was last reset: the bytes
+ * written and read, how long the channel took to encode the messages it sent, and when a read
+ * first returned bytes. A meter is used by one call at a time.
+ */
+final class ConnectionMeter {
+
+  private long bytesWritten;
+  private long bytesRead;
+  private long encodeNanos;
+  // When the first read since the reset returned bytes, 0 if none did
+  private long firstReadNanos;
+
+  /**
+   * Starts measuring anew.
+   */
+  void reset() {
+    bytesWritten = 0;
+    bytesRead = 0;
+    encodeNanos = 0;
+    firstReadNanos = 0;
+  }
+
+  long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  long getBytesRead() {
+    return bytesRead;
+  }
+
+  long getEncodeNanos() {
+    return encodeNanos;
+  }
+
+  /**
+   * Returns when a read since the reset first returned bytes, or the given time if none did, such as
+   * when the bytes were read ahead before the reset.
+   * @param otherwise the time to return if no read returned bytes
+   * @return the time of the first read in System.nanoTime
+   */
+  long getFirstReadNanos(long otherwise) {
+    return firstReadNanos != 0 ? firstReadNanos : otherwise;
+  }
+
+  /**
+   * Adds the time a channel took to encode a message.
+   * @param nanos the encoding time
+   */
+  void encoded(long nanos) {
+    encodeNanos += nanos;
+  }
+
+  /**
+   * Wraps the given stream so this meter sees what is read from it.
+   * @param in the stream to meter
+   * @return the metered stream
+   */
+  InputStream meter(InputStream in) {
+    return new FilterInputStream(in) {
+      @Override
+      public int read() throws IOException {
+        int next = super.read();
+        if (next >= 0) {
+          readBytes(1);
+        }
+        return next;
+      }
+
+      @Override
+      public int read(byte[] bytes, int offset, int length) throws IOException {
+        int numRead = super.read(bytes, offset, length);
+        if (numRead > 0) {
+          readBytes(numRead);
+        }
+        return numRead;
+      }
+    };
+  }
+
+  /**
+   * Wraps the given stream so this meter sees what is written to it.
+   * @param out the stream to meter
+   * @return the metered stream
+   */
+  OutputStream meter(OutputStream out) {
+    return new FilterOutputStream(out) {
+      @Override
+      public void write(int b) throws IOException {
+        out.write(b);
+        bytesWritten++;
+      }
+
+      // FilterOutputStream writes arrays byte by byte, this passes them on at once
+      @Override
+      public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+        bytesWritten += length;
+      }
+    };
+  }
+
+  private void readBytes(int numRead) {
+    if (firstReadNanos == 0) {
+      firstReadNanos = System.nanoTime();
+    }
+    bytesRead += numRead;
+  }
+}
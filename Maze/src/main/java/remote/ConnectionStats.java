@@ -0,0 +1,66 @@
+package remote;
+
+/**
+ * The totals of the calls a proxy player made over its connection: how many calls were answered,
+ * the bytes sent and received, and the time spent serializing requests, waiting for the first byte
+ * of responses and on whole round trips. Calls that failed are not counted.
+ */
+public final class ConnectionStats {
+
+  private long calls;
+  private long bytesSent;
+  private long bytesReceived;
+  private long serializeNanos;
+  private long firstByteNanos;
+  private long roundTripNanos;
+
+  ConnectionStats() {
+  }
+
+  private ConnectionStats(ConnectionStats other) {
+    this.calls = other.calls;
+    this.bytesSent = other.bytesSent;
+    this.bytesReceived = other.bytesReceived;
+    this.serializeNanos = other.serializeNanos;
+    this.firstByteNanos = other.firstByteNanos;
+    this.roundTripNanos = other.roundTripNanos;
+  }
+
+  void add(long bytesSent, long bytesReceived, long serializeNanos, long firstByteNanos,
+      long roundTripNanos) {
+    this.calls++;
+    this.bytesSent += bytesSent;
+    this.bytesReceived += bytesReceived;
+    this.serializeNanos += serializeNanos;
+    this.firstByteNanos += firstByteNanos;
+    this.roundTripNanos += roundTripNanos;
+  }
+
+  ConnectionStats copy() {
+    return new ConnectionStats(this);
+  }
+
+  public long getCalls() {
+    return calls;
+  }
+
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  public long getSerializeNanos() {
+    return serializeNanos;
+  }
+
+  public long getFirstByteNanos() {
+    return firstByteNanos;
+  }
+
+  public long getRoundTripNanos() {
+    return roundTripNanos;
+  }
+}
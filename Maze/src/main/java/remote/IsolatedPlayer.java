@@ -0,0 +1,96 @@
+package remote;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Paths;
+import java.util.Optional;
+import model.board.Board;
+import model.state.Action;
+import model.state.PlayerStateWrapper;
+import util.Posn;
+
+/**
+ * A player that runs in its own child JVM, for players that cannot be trusted to return. The
+ * child process builds the player from its JSON specification (see PlayerAPIJson) and serves the
+ * same requests a remote player gets over the network, over the pipes of the process.
+ *
+ * Unlike a thread stuck in an infinite loop, the child process can be killed: closing this player
+ * destroys the process and frees the CPU it was spinning on. SafePlayer closes the player when a
+ * call to it times out or when the player is kicked or the game ends.
+ */
+public class IsolatedPlayer implements referee.Player, Closeable {
+
+  private final String name;
+  private final Process process;
+  private final Player proxy;
+
+  /**
+   * Starts a child JVM on the classpath of this JVM that hosts the player with the given
+   * specification.
+   * @param playerSpec the PlayerAPIJson of the player, e.g. ["name", "Euclid", "takeTurn", 2]
+   * @throws IOException if the child process cannot be started
+   */
+  public IsolatedPlayer(JsonNode playerSpec) throws IOException {
+    this.name = playerSpec.get(0).asText();
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    this.process = new ProcessBuilder(java,
+        "-cp", System.getProperty("java.class.path"),
+        PlayerHost.class.getName(),
+        playerSpec.toString())
+        .redirectError(Redirect.INHERIT)
+        .start();
+    this.proxy = new Player(process.getInputStream(), process.getOutputStream(), name);
+  }
+
+  @Override
+  public String name() {
+    return this.name;
+  }
+
+  @Override
+  public Board proposeBoard0(int rows, int columns) {
+    throw new UnsupportedOperationException("Cannot propose a Board");
+  }
+
+  @Override
+  public Object setup(Optional<PlayerStateWrapper> state0, Posn goal) {
+    this.checkAlive();
+    return this.proxy.setup(state0, goal);
+  }
+
+  @Override
+  public Action takeTurn(PlayerStateWrapper s) {
+    this.checkAlive();
+    return this.proxy.takeTurn(s);
+  }
+
+  @Override
+  public Object win(Boolean won) {
+    this.checkAlive();
+    return this.proxy.win(won);
+  }
+
+  /**
+   * Determines if the child process hosting the player is still running.
+   * @return if the process is alive
+   */
+  public boolean isAlive() {
+    return this.process.isAlive();
+  }
+
+  /**
+   * Kills the child process hosting the player, any call waiting on it fails.
+   */
+  @Override
+  public void close() {
+    this.process.destroyForcibly();
+  }
+
+  private void checkAlive() {
+    if (!this.process.isAlive()) {
+      throw new IllegalStateException("Player process is not running");
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package remote;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import json.JsonUtils;
+import json.StateJson;
+import model.state.PlayerStateWrapper;
+
+/**
+ * Sends every message as a line of UTF-8 JSON text and reads messages as a stream of JSON values.
+ * A message is serialized straight into the buffer of a generator, which goes out in a single write
+ * once the message and its newline are complete, and all messages are read by a single parser.
+ */
+class JsonLineChannel implements MessageChannel {
+
+  private final InputStream in;
+  private final OutputStream out;
+  private JsonGenerator messagesOut;
+  private final ConnectionMeter meter;
+  // A parser buffers ahead so it lives as long as the connection. It is created by the first
+  // message received since creating it reads from the connection.
+  private JsonParser messagesIn;
+
+  JsonLineChannel(InputStream in, OutputStream out, ConnectionMeter meter) {
+    this.in = meter.meter(in);
+    this.out = meter.meter(out);
+    this.meter = meter;
+  }
+
+  @Override
+  public void send(JsonNode message) throws IOException {
+    if (messagesOut == null) {
+      messagesOut = JsonUtils.getJsonGenerator(out);
+    }
+    long start = System.nanoTime();
+    JsonUtils.writeObject(messagesOut, message);
+    messagesOut.writeRaw('\n');
+    meter.encoded(System.nanoTime() - start);
+    messagesOut.flush();
+  }
+
+  @Override
+  public <T> T receive(Class<T> type) throws IOException {
+    if (messagesIn == null) {
+      messagesIn = JsonUtils.getJsonParser(in);
+    }
+    return JsonUtils.getReader(type).readValue(messagesIn, type);
+  }
+
+  @Override
+  public JsonNode encodePublicState(PlayerStateWrapper s) {
+    return JsonNodeFactory.instance.rawValueNode(new RawValue(StateJson.encodePublicState(s)));
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+    in.close();
+  }
+}
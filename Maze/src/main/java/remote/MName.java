@@ -5,7 +5,7 @@ package remote;
  * This represents the method names that will be sent over JSON
  */
 public enum MName {
-  SETUP("setup"), TAKE_TURN("take-turn"), WIN("win");
+  SETUP("setup"), TAKE_TURN("take-turn"), TAKE_TURN_DELTA("take-turn-delta"), WIN("win");
 
   private final String name;
 
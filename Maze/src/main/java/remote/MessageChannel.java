@@ -0,0 +1,38 @@
+package remote;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.Closeable;
+import java.io.IOException;
+import model.state.PlayerStateWrapper;
+
+/**
+ * The framing of the messages of the remote protocol on a connection. Messages are JSON values,
+ * sent either as JSON text (JsonLineChannel, the default) or as length-prefixed BinaryJson frames
+ * (BinaryFrameChannel, the binary-frames extension).
+ */
+interface MessageChannel extends Closeable {
+
+  /**
+   * Sends the given message.
+   * @param message the message, which may hold a state made by encodePublicState
+   * @throws IOException if the message could not be sent
+   */
+  void send(JsonNode message) throws IOException;
+
+  /**
+   * Waits for the next message and deserializes it into the given type.
+   * @param type the type of the message
+   * @param <T> the type of the message
+   * @return the message
+   * @throws IOException if the connection ended or the message is malformed
+   */
+  <T> T receive(Class<T> type) throws IOException;
+
+  /**
+   * Encodes the public state the given wrapper shows in the framing of this channel, at most once
+   * for all channels with the same framing.
+   * @param s the state to encode
+   * @return a node holding the encoded state, to be added to the parameters of a request
+   */
+  JsonNode encodePublicState(PlayerStateWrapper s);
+}
@@ -1,18 +1,20 @@
 package remote;
 
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import json.ActionJson;
-import json.JsonUtils;
-import json.StateJson;
+import json.StateDeltaJson;
+import metrics.Metrics;
 import model.board.Board;
 import model.state.Action;
 import model.state.PlayerStateWrapper;
@@ -25,29 +27,106 @@ import util.Posn;
  * - wait for a response
  * - deserialize the response into the return type
  * - if the response is malformed, throw an exception
+ *
+ * A client that signed up for ProtocolExtension.DELTA_STATES is sent take-turn-delta requests,
+ * holding only what changed since the last state it responded to, whenever that is smaller than
+ * the full state. A call that fails forgets that state, so the next request carries a full state.
+ *
+ * A client that signed up for ProtocolExtension.BINARY_FRAMES is sent its requests as BinaryJson
+ * frames and must respond in them (see BinaryFrameChannel), every other client talks JSON text.
+ *
+ * Every answered call is measured: the bytes sent and received, the time spent serializing the
+ * request, the time from sending it to the first byte of the response (the network and the think
+ * time of the client), and the whole round trip. The measurements are recorded to the Metrics given
+ * to recordMetricsTo, as remote.<method>.<measurement>, and added up in the ConnectionStats.
  */
-public class Player implements referee.Player {
+public class Player implements referee.Player, Closeable {
 
-  private final InputStream clientIn;
-  private final PrintStream clientOut;
+  private final ConnectionMeter meter = new ConnectionMeter();
+  private final MessageChannel channel;
   private final String name;
+  private final ConnectionStats stats = new ConnectionStats();
+  private Metrics metrics = Metrics.NONE;
+  // When the current call started, when its request started to be serialized and when it was sent
+  private long callStart;
+  private long requestStart;
+  private long requestSent;
+  // If take-turn requests may carry deltas, and the last state the player responded to
+  private final boolean deltaStates;
+  private Optional<PlayerStateWrapper> acknowledged = Optional.empty();
   private static final JsonNodeFactory factory = JsonNodeFactory.instance;
 
   private static final int CLIENT_TIMEOUT_MILLIS = 4000;
 
   public Player(Socket client, String name) {
+    this(client, name, EnumSet.noneOf(ProtocolExtension.class));
+  }
+
+  /**
+   * Constructs a proxy player for a client that signed up asking for the given protocol extensions.
+   * @param client the connection to the client
+   * @param name the name of the player
+   * @param extensions the extensions the client asked for
+   */
+  public Player(Socket client, String name, Set<ProtocolExtension> extensions) {
     try {
       client.setSoTimeout(CLIENT_TIMEOUT_MILLIS);
-      this.clientIn = client.getInputStream();
-      this.clientOut = new PrintStream(client.getOutputStream());
+      // a request is written at once, so it should not wait for the response to the last one
+      client.setTcpNoDelay(true);
+      this.channel = extensions.contains(ProtocolExtension.BINARY_FRAMES)
+          ? new BinaryFrameChannel(client.getInputStream(), client.getOutputStream(), meter)
+          : new JsonLineChannel(client.getInputStream(), client.getOutputStream(), meter);
     }
     catch (IOException e) {
       throw new IllegalStateException("Could not connect to player");
     }
     this.name = name;
+    this.deltaStates = extensions.contains(ProtocolExtension.DELTA_STATES);
+  }
+
+  /**
+   * Constructs a proxy player that talks to the player over the given streams, such as the pipes
+   * of a child process. Unlike a socket, the streams have no read timeout, the caller (SafePlayer)
+   * is responsible for not waiting forever.
+   * @param in the stream the responses of the player are read from
+   * @param out the stream the requests to the player are written to
+   * @param name the name of the player
+   */
+  public Player(InputStream in, OutputStream out, String name) {
+    this.channel = new JsonLineChannel(in, out, meter);
+    this.name = name;
+    this.deltaStates = false;
   }
 
 
+  /**
+   * Records the measurements of every call from now on to the given metrics.
+   * @param metrics the thread-safe metrics to record to
+   */
+  public void recordMetricsTo(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Returns the totals of the calls that were answered so far.
+   * @return a copy of the totals
+   */
+  public synchronized ConnectionStats getConnectionStats() {
+    return stats.copy();
+  }
+
+  /**
+   * Closes the connection to the player, after which every call to the player fails.
+   */
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // the connection is gone either way
+    }
+  }
+
   @Override
   public String name() {
     return this.name;
@@ -61,27 +140,45 @@ public class Player implements referee.Player {
   @Override
   public Object setup(Optional<PlayerStateWrapper> state0, Posn goal) {
 
+    this.startCall();
     ArrayNode parameters = factory.arrayNode();
-    parameters.add(state0.isPresent() ? StateJson.serializePublicState(state0.get()) : factory.booleanNode(false));
+    if (state0.isPresent()) {
+      parameters.add(channel.encodePublicState(state0.get()));
+    }
+    else {
+      parameters.add(factory.booleanNode(false));
+    }
     parameters.add(goal.serialize());
 
+    this.acknowledged = Optional.empty();
     this.sendRequest(MName.SETUP, parameters);
 
-    return GetAndValidateVoidResponse();
+    String response = GetAndValidateVoidResponse("setup");
+    this.acknowledged = state0;
+    return response;
   }
 
   @Override
   public Action takeTurn(PlayerStateWrapper s) {
 
+    this.startCall();
     ArrayNode parameters = factory.arrayNode();
-    parameters.add(StateJson.serializePublicState(s));
-
-    this.sendRequest(MName.TAKE_TURN, parameters);
+    Optional<JsonNode> delta = deltaStates && acknowledged.isPresent()
+        ? StateDeltaJson.serializeDelta(acknowledged.get(), s) : Optional.empty();
+    this.acknowledged = Optional.empty();
+    if (delta.isPresent()) {
+      parameters.add(delta.get());
+      this.sendRequest(MName.TAKE_TURN_DELTA, parameters);
+    }
+    else {
+      parameters.add(channel.encodePublicState(s));
+      this.sendRequest(MName.TAKE_TURN, parameters);
+    }
 
     try {
-      ObjectMapper mapper = JsonUtils.getMapper();
-      JsonParser parser = JsonUtils.getJsonParser(clientIn, mapper);
-      ActionJson response = mapper.readValue(parser, ActionJson.class);
+      ActionJson response = channel.receive(ActionJson.class);
+      this.endCall("takeTurn");
+      this.acknowledged = Optional.of(s);
       return response.build();
     }
     catch(IOException e) {
@@ -92,22 +189,22 @@ public class Player implements referee.Player {
   @Override
   public Object win(Boolean won) {
 
+    this.startCall();
     ArrayNode parameters = factory.arrayNode();
     parameters.add(factory.booleanNode(won));
 
     this.sendRequest(MName.WIN, parameters);
 
-    return GetAndValidateVoidResponse();
+    return GetAndValidateVoidResponse("win");
   }
 
-  private String GetAndValidateVoidResponse() {
+  private String GetAndValidateVoidResponse(String method) {
     try {
-      ObjectMapper mapper = JsonUtils.getMapper();
-      JsonParser parser = JsonUtils.getJsonParser(clientIn, mapper);
-      String response = mapper.readValue(parser, String.class);
+      String response = channel.receive(String.class);
       if(!response.equals("void")){
         throw new IllegalStateException("Malformed response");
       }
+      this.endCall(method);
       return "void";
     }
     catch(IOException e) {
@@ -121,10 +218,44 @@ public class Player implements referee.Player {
    * @param parameters the Json Array of parameters to send
    */
   private void sendRequest(MName mName, ArrayNode parameters) {
+    this.requestStart = System.nanoTime();
     ArrayNode request = factory.arrayNode();
     request.add(mName.toString());
     request.add(parameters);
-    clientOut.println(request);
-    clientOut.flush();
+    try {
+      channel.send(request);
+      this.requestSent = System.nanoTime();
+    }
+    catch(IOException e) {
+      throw new IllegalStateException("Connection error");
+    }
+  }
+
+  private void startCall() {
+    this.callStart = System.nanoTime();
+    this.meter.reset();
+  }
+
+  /**
+   * Records the measurements of the call that was just answered.
+   * @param method the name of the method, as in the player.<method> timers of a SafePlayer
+   */
+  private void endCall(String method) {
+    long end = System.nanoTime();
+    long bytesSent = meter.getBytesWritten();
+    long bytesReceived = meter.getBytesRead();
+    // building the request includes encoding the state, unless it was cached
+    long serializeNanos = requestStart - callStart + meter.getEncodeNanos();
+    long firstByteNanos = meter.getFirstReadNanos(end) - requestSent;
+    long roundTripNanos = end - callStart;
+    synchronized (this) {
+      stats.add(bytesSent, bytesReceived, serializeNanos, firstByteNanos, roundTripNanos);
+    }
+    String prefix = "remote." + method + ".";
+    metrics.record(prefix + "bytesSent", bytesSent);
+    metrics.record(prefix + "bytesReceived", bytesReceived);
+    metrics.record(prefix + "serialize", serializeNanos);
+    metrics.record(prefix + "firstByte", firstByteNanos);
+    metrics.record(prefix + "roundTrip", roundTripNanos);
   }
 }
@@ -0,0 +1,29 @@
+package remote;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import json.JsonUtils;
+import json.PlayerAPIJson;
+
+/**
+ * The main class of the child process of an IsolatedPlayer. Builds the player from the
+ * PlayerAPIJson given as the only argument and serves the requests of the parent's referee over
+ * standard in and standard out until the player is told whether it won.
+ */
+public class PlayerHost {
+
+  public static void main(String[] args) {
+    // standard out carries the responses, anything the player prints goes to standard error
+    PrintStream responses = System.out;
+    System.setOut(System.err);
+    try {
+      referee.Player player = JsonUtils.getMapper().readValue(args[0], PlayerAPIJson.class).build();
+      new Referee(System.in, responses, player).run();
+    }
+    catch (IOException e) {
+      System.err.println("Could not build player: " + e.getMessage());
+      System.exit(1);
+    }
+    System.exit(0);
+  }
+}
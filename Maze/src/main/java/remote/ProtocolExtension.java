@@ -0,0 +1,40 @@
+package remote;
+
+import java.util.Optional;
+
+/**
+ * The extensions of the remote protocol a client may ask for when it signs up. A client that asks
+ * for none signs up with its name alone, a client that asks for some signs up with
+ * {"name": name, "extensions": [extension, ...]}. A server ignores the extensions it does not know.
+ *
+ * - DELTA_STATES: take-turn requests may carry the difference to the last state the client
+ *   acknowledged instead of the full state (see StateDeltaJson). Such a request is sent as
+ *   "take-turn-delta", the full state can still be sent as "take-turn" at any time.
+ * - BINARY_FRAMES: every message after the signup, both requests and responses, is sent as a frame
+ *   of its BinaryJson encoding prefixed with its length instead of as JSON text (see
+ *   BinaryFrameChannel). The client tells which framing the server picked by the first byte it
+ *   receives.
+ */
+public enum ProtocolExtension {
+  DELTA_STATES("delta-states"), BINARY_FRAMES("binary-frames");
+
+  private final String name;
+
+  ProtocolExtension(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public String toString() {
+    return this.name;
+  }
+
+  public static Optional<ProtocolExtension> fromString(String str) {
+    for(ProtocolExtension val : values()) {
+      if(str.equals(val.toString())) {
+        return Optional.of(val);
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -1,18 +1,22 @@
 package remote;
 
-import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintStream;
+import java.io.OutputStream;
 import java.net.Socket;
 import java.util.Optional;
 import json.ActionJson;
 import json.JsonUtils;
+import json.StateDeltaJson;
 import json.StateJson;
 import model.state.Action;
 import model.state.PlayerStateWrapper;
@@ -22,22 +26,64 @@ import util.Posn;
 /**
  * This class represents a proxy referee, which simulates the referee on the client side. It deserializes incoming
  * JSON to the appropriate objects, hands them to the player, and serializes outgoing objects to JSON.
+ *
+ * The server frames its messages as JSON text or, if the client asked for the binary-frames
+ * extension and the server supports it, as BinaryJson frames. The proxy tells them apart by the
+ * first byte it receives and responds in the same framing.
+ *
+ * A proxy referee constructed without a connection only turns requests into responses (see
+ * respond), for a host that does the I/O of many players itself, such as client.ClientHost.
  */
 public class Referee {
 
-  private final Socket server;
+  private final Closeable server;
   private final InputStream in;
-  private final PrintStream out;
+  private final OutputStream out;
+  // The framing of the server, picked by the first request
+  private MessageChannel channel;
   private final referee.Player player;
   private final ObjectMapper mapper = JsonUtils.getMapper();
+  private boolean closed;
+  // The JSON of the last state received, the base of the next take-turn-delta request
+  private Optional<ObjectNode> lastState = Optional.empty();
 
   private static final String VOID_RETURN = "void";
 
   public Referee(Socket server, referee.Player player) throws IOException{
+    this(server.getInputStream(), server.getOutputStream(), server, player);
+    server.setTcpNoDelay(true);
+  }
+
+  /**
+   * Constructs a proxy referee that receives requests over the given streams, such as the standard
+   * streams of a process hosting the player. The streams are closed once the player was told
+   * whether it won.
+   * @param in the stream the requests are read from
+   * @param out the stream the responses are written to
+   * @param player the player to hand the requests to
+   */
+  public Referee(InputStream in, OutputStream out, referee.Player player) {
+    this(in, out, () -> {
+      in.close();
+      out.close();
+    }, player);
+  }
+
+  /**
+   * Constructs a proxy referee without a connection of its own, the caller hands it every request
+   * and sends the responses (see respond).
+   * @param player the player to hand the requests to
+   */
+  public Referee(referee.Player player) {
+    this(InputStream.nullInputStream(), OutputStream.nullOutputStream(), () -> { }, player);
+  }
+
+  private Referee(InputStream in, OutputStream out, Closeable server, referee.Player player) {
     this.server = server;
-    this.in = server.getInputStream();
-    this.out = new PrintStream(server.getOutputStream());
+    this.in = new BufferedInputStream(in);
+    this.out = out;
     this.player = player;
+    this.closed = false;
   }
 
   /**
@@ -46,60 +92,108 @@ public class Referee {
    */
   public void run() {
     try {
-      JsonParser parser = JsonUtils.getJsonParser(in, mapper);
-      while(!server.isClosed()) {
-        ArrayNode request = mapper.readTree(parser);
+      this.channel = detectFraming();
+      while(!closed) {
+        // throws once the other side closed the connection
+        ArrayNode request = channel.receive(ArrayNode.class);
 
+        JsonNode response;
         try {
-          MName methodName = MName.fromString(request.get(0).asText());
-          ArrayNode parameters = (ArrayNode)request.get(1);
-          handleRequest(methodName, parameters);
+          response = respond(request);
         }
-        catch (JsonProcessingException | ClassCastException | IllegalArgumentException e) {
+        catch (IllegalArgumentException e) {
           //We received malformed JSON from the server, but we can't do anything about it except close streams
-          this.in.close();
-          this.out.close();
+          this.channel.close();
+          continue;
         }
+        channel.send(response);
       }
+      closeServer();
     }
     catch (IOException e) {
       // Disconnected from server or parsing exception, which we can't do anything about
     }
   }
 
+  /**
+   * Waits for the first byte from the server, a binary frame starts with 0 and JSON text never does.
+   * @return the channel in the framing of the server
+   * @throws IOException if the connection ended before the first byte
+   */
+  private MessageChannel detectFraming() throws IOException {
+    in.mark(1);
+    int first = in.read();
+    in.reset();
+    if(first == 0) {
+      return new BinaryFrameChannel(in, out, new ConnectionMeter());
+    }
+    return new JsonLineChannel(in, out, new ConnectionMeter());
+  }
+
+  /**
+   * Hands the given request to the player and returns the response to send back. Requests must be
+   * handed over one at a time, in the order they arrived.
+   * @param request the request, a method name and an array of parameters
+   * @return the response of the player
+   * @throws IllegalArgumentException if the request is malformed
+   */
+  public JsonNode respond(JsonNode request) {
+    if(!request.isArray() || !request.path(1).isArray()) {
+      throw new IllegalArgumentException("A request is a method name and an array of parameters.");
+    }
+    try {
+      MName methodName = MName.fromString(request.get(0).asText());
+      return handleRequest(methodName, (ArrayNode) request.get(1));
+    }
+    catch (JsonProcessingException | NullPointerException e) {
+      throw new IllegalArgumentException("Malformed parameters: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns whether the player was told whether it won, after which no more requests come.
+   * @return whether the game is over for the player
+   */
+  public boolean isDone() {
+    return closed;
+  }
+
   /**
    * Determines which request was sent to this proxy referee and delegates to helper methods to handle
    * the deserialization and response logic.
    * @param mName the 'MName' of the method
    * @param parameters the parameters associated with the specified method
+   * @return the response to the request
    * @throws JsonProcessingException if a helper method fails to deserialize the given parameters
    */
-  private void handleRequest(MName mName, ArrayNode parameters) throws JsonProcessingException {
+  private JsonNode handleRequest(MName mName, ArrayNode parameters) throws JsonProcessingException {
     switch (mName) {
       case WIN:
-        this.handleWin(parameters);
-        break;
+        return this.handleWin(parameters);
       case SETUP:
-        this.handleSetup(parameters);
-        break;
+        return this.handleSetup(parameters);
       case TAKE_TURN:
-        this.handleTakeTurn(parameters);
-        break;
+        return this.handleTakeTurn(parameters);
+      case TAKE_TURN_DELTA:
+        return this.handleTakeTurnDelta(parameters);
+      default:
+        throw new IllegalArgumentException("Unknown method " + mName);
     }
-
   }
 
   /**
-   * Deserializes the win parameter, calls the win method with the correct parameter,
-   * and sends a response to show the player acknowledged the call. This method also
-   * closes the server socket to stop waiting for requests from the server.
+   * Deserializes the win parameter, calls the win method with the correct parameter, and returns
+   * the response to show the player acknowledged the call. No more requests come after it, so
+   * the connection to the server is closed once the response was sent.
    * @param parameters the JSON array of parameters sent with the Win request
    */
-  private void handleWin(ArrayNode parameters) {
+  private JsonNode handleWin(ArrayNode parameters) {
     player.win(parameters.get(0).asBoolean());
-    TextNode voidJson = JsonNodeFactory.instance.textNode(VOID_RETURN);
-    out.println(voidJson);
-    out.flush();
+    closed = true;
+    return JsonNodeFactory.instance.textNode(VOID_RETURN);
+  }
+
+  private void closeServer() {
     try {
       server.close();
     }
@@ -111,35 +205,68 @@ public class Referee {
 
   /**
    * Deserializes the setup parameters, calls the setup method with the parameters,
-   * and sends a response containing the serialized response of the player
+   * and returns a response containing the serialized response of the player
    * @param parameters the parameters to deserialize
    * @throws JsonProcessingException if the parameters are malformed
    */
-  private void handleSetup(ArrayNode parameters) throws JsonProcessingException{
+  private JsonNode handleSetup(ArrayNode parameters) throws JsonProcessingException{
 
     Posn coord = mapper.treeToValue(parameters.get(1), Posn.class);
     if(!parameters.get(0).isBoolean()) {
-      State s = mapper.treeToValue(parameters.get(0), StateJson.class).buildState();
+      State s = this.receiveState(parameters.get(0));
       player.setup(Optional.of(new PlayerStateWrapper(s, s.whichPlayerTurn())), coord);
     } else {
       player.setup(Optional.empty(), coord);
     }
     TextNode voidJson = JsonNodeFactory.instance.textNode(VOID_RETURN);
-    out.println(voidJson);
-    out.flush();
+    return voidJson;
   }
 
   /**
    * Deserializes the takeTurn parameters, calls the takeTurn method with the parameters and
-   * sends a response containing the serialized response of the player
+   * returns a response containing the serialized response of the player
    * @param parameters the parameters to deserialize
    * @throws JsonProcessingException if the parameters are malformed
    */
-  private void handleTakeTurn(ArrayNode parameters) throws JsonProcessingException{
-    State s = mapper.treeToValue(parameters.get(0), StateJson.class).buildState();
+  private JsonNode handleTakeTurn(ArrayNode parameters) throws JsonProcessingException{
+    return this.takeTurn(this.receiveState(parameters.get(0)));
+  }
+
+  /**
+   * Applies the delta of a take-turn-delta request to the last state received and then handles it
+   * like a take-turn request with the resulting state.
+   * @param parameters the parameters holding the delta
+   * @throws JsonProcessingException if the delta is malformed
+   * @throws IllegalArgumentException if no state was received yet or the delta does not fit it
+   */
+  private JsonNode handleTakeTurnDelta(ArrayNode parameters) throws JsonProcessingException {
+    if(lastState.isEmpty()) {
+      throw new IllegalArgumentException("Received a delta without a state to apply it to.");
+    }
+    ObjectNode stateJson = lastState.get();
+    lastState = Optional.empty();
+    StateDeltaJson.applyDelta(stateJson, parameters.get(0));
+    return this.takeTurn(this.receiveState(stateJson));
+  }
+
+  /**
+   * Builds the given state and remembers its JSON as the base of the next delta.
+   * @param stateJson the JSON of the state
+   * @return the state
+   * @throws JsonProcessingException if the state is malformed
+   */
+  private State receiveState(JsonNode stateJson) throws JsonProcessingException {
+    lastState = Optional.empty();
+    State s = mapper.treeToValue(stateJson, StateJson.class).buildState();
+    if(stateJson.isObject()) {
+      lastState = Optional.of((ObjectNode) stateJson);
+    }
+    return s;
+  }
+
+  private JsonNode takeTurn(State s) {
     Action action = player.takeTurn(new PlayerStateWrapper(s, s.whichPlayerTurn()));
-    out.println(ActionJson.serializeToJson(action));
-    out.flush();
+    return ActionJson.serializeToJson(action);
   }
 
 }
@@ -0,0 +1,73 @@
+package server;
+
+import java.util.List;
+import metrics.Metrics;
+import referee.Player;
+import remote.ConnectionStats;
+
+/**
+ * Connects the proxy players of a game to the metrics of the server, and once the game ended adds
+ * up what went over their connections, per connection (connection.<measurement>) and for the whole
+ * game (game.<measurement>). The measurements are the answered calls, the bytes sent and received,
+ * and the time spent serializing requests, waiting for the first byte of responses and on round
+ * trips, see remote.Player.
+ */
+final class ConnectionMetrics {
+
+  private ConnectionMetrics() {
+  }
+
+  /**
+   * Makes every proxy player among the given players record its calls to the given metrics.
+   * @param players the players of a game
+   * @param metrics the metrics of the server
+   */
+  static void recordCallsTo(List<Player> players, Metrics metrics) {
+    for (Player player : players) {
+      if (player instanceof remote.Player) {
+        ((remote.Player) player).recordMetricsTo(metrics);
+      }
+    }
+  }
+
+  /**
+   * Records the totals of every connection of the given players, and of all of them, to the given
+   * metrics. Players that are not proxies have no connection and are skipped.
+   * @param players the players of a game that ended
+   * @param metrics the metrics of the server
+   */
+  static void recordGame(List<Player> players, Metrics metrics) {
+    if (metrics == Metrics.NONE) {
+      return;
+    }
+    long[] game = new long[6];
+    boolean anyConnection = false;
+    for (Player player : players) {
+      if (player instanceof remote.Player) {
+        long[] connection = measurements(((remote.Player) player).getConnectionStats());
+        record("connection.", connection, metrics);
+        for (int i = 0; i < game.length; i++) {
+          game[i] += connection[i];
+        }
+        anyConnection = true;
+      }
+    }
+    if (anyConnection) {
+      record("game.", game, metrics);
+    }
+  }
+
+  private static long[] measurements(ConnectionStats stats) {
+    return new long[] {stats.getCalls(), stats.getBytesSent(), stats.getBytesReceived(),
+        stats.getSerializeNanos(), stats.getFirstByteNanos(), stats.getRoundTripNanos()};
+  }
+
+  private static void record(String prefix, long[] measurements, Metrics metrics) {
+    metrics.record(prefix + "calls", measurements[0]);
+    metrics.record(prefix + "bytesSent", measurements[1]);
+    metrics.record(prefix + "bytesReceived", measurements[2]);
+    metrics.record(prefix + "serialize", measurements[3]);
+    metrics.record(prefix + "firstByte", measurements[4]);
+    metrics.record(prefix + "roundTrip", measurements[5]);
+  }
+}
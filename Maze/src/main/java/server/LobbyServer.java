@@ -0,0 +1,229 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import metrics.Metrics;
+import referee.Player;
+import referee.Referee;
+import util.Util;
+
+/**
+ * A long-lived server that keeps signing up players and groups them into games as they arrive.
+ * Arriving players wait in the lobby, oldest first. A game is started with the oldest waiting
+ * players once a game slot is free and either MAX_PLAYERS_PER_GAME players are waiting or the
+ * oldest player has waited the lobby wait time and at least MIN_PLAYERS_PER_GAME players are
+ * waiting. Like in the Server, the youngest player of a game goes first.
+ *
+ * At most the given number of games run at the same time, each on its own thread of a fixed pool
+ * with its own Referee, and game i (counting from 0) is played on a board created from the seed
+ * i. The connections of the players of a game are closed when the game ends.
+ *
+ * Signup and grouping run on a single lobby thread (see SignupFrontEnd), so the server uses
+ * maxGames + 1 threads no matter how many players connect.
+ */
+public class LobbyServer implements Closeable {
+
+  public static final int MIN_PLAYERS_PER_GAME = 2;
+  public static final int MAX_PLAYERS_PER_GAME = 6;
+
+  private static final int BOARD_WIDTH = 7;
+  private static final int BOARD_HEIGHT = 7;
+  private static final int NAME_WAIT_TIME_MILLIS = 2000;
+
+  // How long the lobby thread signs up players before it looks for games to start
+  private static final long TICK_MILLIS = 50;
+
+  private final SignupFrontEnd signup;
+  private final int maxGames;
+  private final long lobbyWaitMillis;
+  private final ExecutorService games;
+  private final Thread lobbyThread;
+  private Metrics metrics = Metrics.NONE;
+
+  // The players waiting for a game and when they arrived, oldest first, only used by the lobby thread
+  private final Deque<Player> waiting = new ArrayDeque<>();
+  private final Deque<Long> arrivals = new ArrayDeque<>();
+
+  private final AtomicInteger numWaiting = new AtomicInteger();
+  private final AtomicInteger numActiveGames = new AtomicInteger();
+  private final AtomicLong numGamesStarted = new AtomicLong();
+  private final AtomicLong numGamesFinished = new AtomicLong();
+  private volatile boolean running = true;
+
+  /**
+   * Opens a lobby on the given port, it signs up players once it is started.
+   * @param port the port to accept players on, 0 for any free port
+   * @param maxGames the largest number of games played at the same time
+   * @param lobbyWaitMillis how long the oldest waiting player waits for more players to join
+   * @throws IOException if the port cannot be bound
+   * @throws IllegalArgumentException if there are no game slots or the wait time is negative
+   */
+  public LobbyServer(int port, int maxGames, long lobbyWaitMillis) throws IOException {
+    if (maxGames <= 0 || lobbyWaitMillis < 0) {
+      throw new IllegalArgumentException("A lobby needs game slots and a non-negative wait time.");
+    }
+    this.signup = new SignupFrontEnd(port, NAME_WAIT_TIME_MILLIS);
+    this.maxGames = maxGames;
+    this.lobbyWaitMillis = lobbyWaitMillis;
+    this.games = Executors.newFixedThreadPool(maxGames);
+    this.lobbyThread = new Thread(this::runLobby, "lobby-" + signup.getPort());
+  }
+
+  /**
+   * Records the metrics of every game of this lobby, see Referee.recordMetricsTo, along with the
+   * signup latency of every player (see SignupFrontEnd.recordMetricsTo) and how long it waited in
+   * the lobby for its game to start, as the "lobby.wait" timer, and what went over the connections of
+   * the players of every game (see ConnectionMetrics).
+   * @param metrics the thread-safe metrics all referees record to
+   */
+  public void recordMetricsTo(Metrics metrics) {
+    this.metrics = metrics;
+    this.signup.recordMetricsTo(metrics);
+  }
+
+  /**
+   * Starts signing up players and running games on a background thread.
+   */
+  public void start() {
+    lobbyThread.start();
+  }
+
+  /**
+   * Returns the port the lobby accepts players on.
+   * @return the local port
+   */
+  public int getPort() {
+    return signup.getPort();
+  }
+
+  /**
+   * Returns the number of players that signed up and are waiting for a game.
+   * @return the number of waiting players
+   */
+  public int getNumWaitingPlayers() {
+    return numWaiting.get();
+  }
+
+  /**
+   * Returns the number of games that are being played.
+   * @return the number of active games
+   */
+  public int getNumActiveGames() {
+    return numActiveGames.get();
+  }
+
+  /**
+   * Returns the number of games that ended since the lobby was started.
+   * @return the number of finished games
+   */
+  public long getNumGamesFinished() {
+    return numGamesFinished.get();
+  }
+
+  /**
+   * Stops signing up players and closes the connections of the waiting players. Games that are
+   * being played are interrupted, the connections of their players are closed as they end.
+   */
+  @Override
+  public void close() throws IOException {
+    running = false;
+    if (lobbyThread.isAlive()) {
+      try {
+        lobbyThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    } else {
+      closeLobby();
+    }
+    games.shutdownNow();
+  }
+
+  private void runLobby() {
+    try {
+      while (running) {
+        for (Player player : signup.signUp(Integer.MAX_VALUE, TICK_MILLIS)) {
+          waiting.addLast(player);
+          arrivals.addLast(System.nanoTime());
+        }
+        startGames();
+        numWaiting.set(waiting.size());
+      }
+    } catch (IOException e) {
+      // the port cannot accept players anymore, so the lobby shuts down
+    } finally {
+      closeLobby();
+    }
+  }
+
+  /**
+   * Starts games with the waiting players while there are free game slots and enough players.
+   */
+  private void startGames() {
+    while (numActiveGames.get() < maxGames && isGameReady()) {
+      List<Player> players = new ArrayList<>();
+      long now = System.nanoTime();
+      while (players.size() < MAX_PLAYERS_PER_GAME && !waiting.isEmpty()) {
+        players.add(waiting.removeFirst());
+        metrics.record("lobby.wait", now - arrivals.removeFirst());
+      }
+      Util.reverseList(players);
+
+      long seed = numGamesStarted.getAndIncrement();
+      numActiveGames.incrementAndGet();
+      games.execute(() -> playGame(players, seed));
+    }
+  }
+
+  private boolean isGameReady() {
+    if (waiting.size() >= MAX_PLAYERS_PER_GAME) {
+      return true;
+    }
+    long waitedNanos = waiting.isEmpty() ? 0 : System.nanoTime() - arrivals.peekFirst();
+    return waiting.size() >= MIN_PLAYERS_PER_GAME && waitedNanos >= lobbyWaitMillis * 1_000_000;
+  }
+
+  private void playGame(List<Player> players, long seed) {
+    try {
+      Referee referee = new Referee(BOARD_WIDTH, BOARD_HEIGHT, seed);
+      referee.recordMetricsTo(metrics);
+      ConnectionMetrics.recordCallsTo(players, metrics);
+      referee.runGame(players);
+      ConnectionMetrics.recordGame(players, metrics);
+    } finally {
+      players.forEach(LobbyServer::disconnect);
+      numActiveGames.decrementAndGet();
+      numGamesFinished.incrementAndGet();
+    }
+  }
+
+  private void closeLobby() {
+    waiting.forEach(LobbyServer::disconnect);
+    waiting.clear();
+    arrivals.clear();
+    numWaiting.set(0);
+    try {
+      signup.close();
+    } catch (IOException e) {
+      // the port is released either way
+    }
+  }
+
+  private static void disconnect(Player player) {
+    if (player instanceof Closeable) {
+      try {
+        ((Closeable) player).close();
+      } catch (IOException e) {
+        // the connection is gone either way
+      }
+    }
+  }
+}
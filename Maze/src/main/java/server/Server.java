@@ -1,8 +1,6 @@
 package server;
 
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import json.JsonUtils;
+import metrics.Metrics;
 import model.state.State;
 import referee.Player;
 import referee.Referee;
@@ -10,22 +8,16 @@ import util.Tuple;
 import util.Util;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 
 /**
  * The Server serves as the main entry point for players to connect to the game. It accepts connections, creating
  * proxy players for the players that connect. It then passes them to a new referee to run the game and returns the winners and kicked.
- * The signup task of this component is not possible to close, so every call to run must be followed by a `system.exit` call for
- * a graceful shutdown.
+ * Signup runs on the calling thread and closes the port once it is over, so the server leaves no
+ * threads behind.
  */
 public class Server {
 
@@ -48,8 +40,19 @@ public class Server {
    * @return the result of the game
    */
   public static Tuple<List<Player>, List<Player>> runWithState(int port, State state) {
+    return runWithState(port, state, Metrics.NONE);
+  }
+
+  /**
+   * Used solely for testing. Runs a server with a specified state, recording its metrics.
+   * @param port the port to connect to
+   * @param state the state to start with
+   * @param metrics the metrics to record the game and the connections of its players to
+   * @return the result of the game
+   */
+  public static Tuple<List<Player>, List<Player>> runWithState(int port, State state, Metrics metrics) {
     Referee referee = new Referee(state);
-    return runWithReferee(referee, port);
+    return runWithReferee(referee, port, metrics);
   }
 
   /**
@@ -59,17 +62,30 @@ public class Server {
    * @return a tuple containing the list of players that won and the list of players that were kicked
    */
   public static Tuple<List<Player>, List<Player>> run(int port) {
+    return run(port, Metrics.NONE);
+  }
+
+  /**
+   * Runs a server like run(port), recording the metrics of the referee (see
+   * Referee.recordMetricsTo), of every call to a player over its connection (see remote.Player) and
+   * the totals of every connection and of the game (see ConnectionMetrics).
+   * @param port the port to accept players on
+   * @param metrics the metrics to record to
+   * @return a tuple containing the list of players that won and the list of players that were kicked
+   */
+  public static Tuple<List<Player>, List<Player>> run(int port, Metrics metrics) {
     Referee referee = new Referee(BOARD_WIDTH, BOARD_HEIGHT);
-    return runWithReferee(referee, port);
+    return runWithReferee(referee, port, metrics);
   }
 
   /**
    * Helper method for running a server. Takes in a port and a referee and runs the server.
    * @param referee the referee to run the game with
    * @param port the port to accept players on
+   * @param metrics the metrics to record the game and the connections of its players to
    * @return a tuple containing the list of players that won and the list of players that were kicked
    */
-  private static Tuple<List<Player>, List<Player>> runWithReferee(Referee referee, int port) {
+  private static Tuple<List<Player>, List<Player>> runWithReferee(Referee referee, int port, Metrics metrics) {
     List<Player> players = acceptPlayers(port);
     Util.reverseList(players);
 
@@ -77,14 +93,19 @@ public class Server {
       return new Tuple<>(new ArrayList<>(), new ArrayList<>());
     }
 
-    return referee.runFullGame(players);
+    referee.recordMetricsTo(metrics);
+    ConnectionMetrics.recordCallsTo(players, metrics);
+    Tuple<List<Player>, List<Player>> result = referee.runFullGame(players);
+    ConnectionMetrics.recordGame(players, metrics);
+    return result;
   }
 
   /**
    * Accepts players on the given port. This method accepts at most MAX_NUM_CONNECTED_PLAYERS on the
    * given port and returns a list of player proxies. The method waits SIGNUP_WAIT_TIME_SECS seconds
    * for players to connect. If no players join the server will wait the same time once more to join
-   * the game.
+   * the game. Every connection has NAME_WAIT_TIME_MILLIS to send its name, while the names of all
+   * connections are read at the same time (see SignupFrontEnd).
    * @param port the port to accept players on
    * @return the list of connected players in order of when they joined the server (Oldest to Youngest)
    */
@@ -92,11 +113,10 @@ public class Server {
 
     List<Player> players = new ArrayList<>();
 
-    try {
-      ServerSocket server = new ServerSocket(port);
-
+    try (SignupFrontEnd signup = new SignupFrontEnd(port, NAME_WAIT_TIME_MILLIS)) {
       for(int i = 0; i < NUM_WAITING_PERIODS && players.size() < MIN_NUM_PLAYERS_PER_WAITING_PERIOD; i++){
-        acceptBatchOfPlayers(server, players);
+        players.addAll(signup.signUp(MAX_NUM_CONNECTED_PLAYERS - players.size(),
+            TimeUnit.SECONDS.toMillis(SIGNUP_WAIT_TIME_SECS)));
       }
 
     } catch (IOException e) {
@@ -105,68 +125,4 @@ public class Server {
     return players;
   }
 
-  /**
-   * Accepts a batch of players that connect to the given port. The batch size allows at most the
-   * (MAX_NUM_CONNECTED_PLAYERS minus the number of players already connected) to connect.
-   * @param server the port to accept players on
-   * @param playersAlreadyAccepted the players already accepted, this list gets mutated
-   */
-  private static void acceptBatchOfPlayers(ServerSocket server, List<Player> playersAlreadyAccepted) {
-
-    ExecutorService executor = Executors.newSingleThreadExecutor();
-
-    Runnable playersRunnable = () -> acceptMultiplePlayers(server, playersAlreadyAccepted);
-
-    Future<?> future = executor.submit(playersRunnable);
-    try {
-      future.get(SIGNUP_WAIT_TIME_SECS, TimeUnit.SECONDS);
-
-    } catch (Exception e) {
-      future.cancel(true);
-    }
-    executor.shutdownNow();
-  }
-
-  /**
-   * Accepts players one at a time until all spots are filled. This will be used within a Callable to run as a Future
-   * so the method can time out if not all spots are filled. This method adds new players to the given
-   * list of players. So, if the method is stopped because of a timeout, the players that already
-   * joined will be safe.
-   *
-   * @param server the port to accept the players on
-   * @param playersAlreadyAccepted the players already accepted, this list gets mutated
-   */
-  private static void acceptMultiplePlayers(ServerSocket server, List<Player> playersAlreadyAccepted) {
-    while(playersAlreadyAccepted.size() < MAX_NUM_CONNECTED_PLAYERS) {
-      Optional<Player> player = acceptSinglePlayer(server);
-      if(player.isPresent()) {
-        playersAlreadyAccepted.add(player.get());
-      }
-    }
-  }
-
-  /**
-   * Attempts to accept a single player. If a player connects, it will wait up to NAME_WAIT_TIME_SECS
-   * seconds to receive a name from the player. If no response is given, the method will return an
-   * empty optional. If a player does connect to the given port and sends a name within the allowed time,
-   * the method will return an optional that contains the proxy player.
-   * @param server the server to accept a player on
-   * @return an optional of the player that connected or an empty optional
-   */
-  private static Optional<Player> acceptSinglePlayer(ServerSocket server) {
-    try {
-      Socket client = server.accept();
-      client.setSoTimeout(NAME_WAIT_TIME_MILLIS);
-      ObjectMapper mapper = JsonUtils.getMapper();
-      JsonParser parser = JsonUtils.getJsonParser(client.getInputStream(), mapper);
-      String name = mapper.readValue(parser, String.class);
-      if(!name.matches("^[a-zA-Z0-9]{1,20}$")){
-        throw new IllegalStateException("illegal name provided");
-      }
-      return Optional.of(new remote.Player(client, name));
-    } catch (IOException | IllegalStateException e) {
-      return Optional.empty();
-    }
-  }
-
 }
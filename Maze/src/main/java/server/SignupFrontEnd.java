@@ -0,0 +1,351 @@
+package server;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import json.JsonUtils;
+import metrics.Metrics;
+import referee.Player;
+import remote.ProtocolExtension;
+
+/**
+ * Signs up players on a port without blocking on any single connection. A selector accepts new
+ * connections and reads the names of all connections that are still signing up at the same time,
+ * so a client that is slow to send its name does not hold up reading anyone else's. Every
+ * connection has to send its name, a JSON string matching NAME_PATTERN, within the name timeout
+ * of connecting, otherwise it is closed. A client that asks for protocol extensions sends
+ * {"name": name, "extensions": [...]} instead (see ProtocolExtension).
+ *
+ * Players are signed up in the order they connected: a connection that sent its name is only
+ * signed up once every connection that arrived before it has either sent its name or been closed.
+ * A slow client therefore does delay the signup of everyone who connected after it, until it sends
+ * its name or its name timeout closes it. Only at the end of a signup period are the connections
+ * that sent their names signed up past an older one that has not, in the order they connected.
+ * A client only sends its name and then waits for the server, so nothing it sends after its name
+ * is lost when the connection is handed to the remote player.
+ */
+public class SignupFrontEnd implements Closeable {
+
+  public static final String NAME_PATTERN = "^[a-zA-Z0-9]{1,20}$";
+
+  private static final int READ_BUFFER_BYTES = 256;
+  // The most tokens a signup object may have, more than enough for every extension
+  private static final int MAX_SIGNUP_TOKENS = 64;
+
+  private final ServerSocketChannel server;
+  private final Selector selector;
+  private final long nameTimeoutNanos;
+  private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+
+  // The connections that did not get signed up yet, oldest first
+  private final Deque<Signup> pending = new ArrayDeque<>();
+  private long numAccepted = 0;
+  private Metrics metrics = Metrics.NONE;
+
+  /**
+   * Opens a front end that accepts connections on the given port.
+   * @param port the port to accept players on, 0 for any free port
+   * @param nameTimeoutMillis how long a connection has to send its name
+   * @throws IOException if the port cannot be bound
+   */
+  public SignupFrontEnd(int port, long nameTimeoutMillis) throws IOException {
+    this.nameTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(nameTimeoutMillis);
+    this.selector = Selector.open();
+    try {
+      this.server = ServerSocketChannel.open();
+      this.server.bind(new InetSocketAddress(port));
+      this.server.configureBlocking(false);
+      this.server.register(selector, SelectionKey.OP_ACCEPT);
+    } catch (IOException e) {
+      selector.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the port the front end accepts connections on.
+   * @return the local port
+   */
+  public int getPort() {
+    return server.socket().getLocalPort();
+  }
+
+  /**
+   * Signs up players until the given number of players signed up or the signup period is over.
+   * Connections that are still sending their names at the end of the period stay pending and may
+   * be signed up by the next call.
+   * @param maxPlayers the largest number of players to sign up
+   * @param periodMillis how long to wait for players
+   * @return the signed up players, in the order they connected (see the class documentation for
+   *         the end of the period)
+   * @throws IOException if the front end cannot accept connections anymore
+   */
+  public List<Player> signUp(int maxPlayers, long periodMillis) throws IOException {
+    List<Player> players = new ArrayList<>();
+    long periodEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(periodMillis);
+
+    while (true) {
+      long now = System.nanoTime();
+      expireNames(now);
+      boolean periodOver = now - periodEnd >= 0;
+      signUpCompleted(players, maxPlayers, periodOver);
+      if (players.size() >= maxPlayers || periodOver) {
+        return players;
+      }
+
+      long wakeUp = pending.isEmpty() ? periodEnd : Math.min(periodEnd, pending.peekFirst().deadline);
+      long waitMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(wakeUp - now));
+      selector.select(waitMillis);
+
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        if (!key.isValid()) {
+          continue;
+        }
+        if (key.isAcceptable()) {
+          acceptAll();
+        } else if (key.isReadable()) {
+          readName((Signup) key.attachment());
+        }
+      }
+    }
+  }
+
+  /**
+   * Accepts every connection that is waiting to be accepted.
+   */
+  private void acceptAll() throws IOException {
+    SocketChannel channel;
+    while ((channel = server.accept()) != null) {
+      try {
+        channel.configureBlocking(false);
+        Signup signup = new Signup(channel, System.nanoTime());
+        channel.register(selector, SelectionKey.OP_READ, signup);
+        pending.addLast(signup);
+        numAccepted++;
+      } catch (IOException e) {
+        closeQuietly(channel);
+      }
+    }
+  }
+
+  /**
+   * Reads whatever the given connection sent so far, closing it if it sent something other than a
+   * valid signup or hung up.
+   */
+  private void readName(Signup signup) {
+    try {
+      readBuffer.clear();
+      int read = signup.channel.read(readBuffer);
+      if (read < 0) {
+        signup.close();
+        return;
+      } else if (read == 0) {
+        return;
+      }
+      ByteArrayFeeder feeder = (ByteArrayFeeder) signup.parser.getNonBlockingInputFeeder();
+      feeder.feedInput(readBuffer.array(), 0, read);
+
+      JsonToken token;
+      while ((token = signup.parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+        if (signup.request == null) {
+          if (token == JsonToken.VALUE_STRING) {
+            completeSignup(signup, signup.parser.getText(), EnumSet.noneOf(ProtocolExtension.class));
+            return;
+          }
+          if (token != JsonToken.START_OBJECT) {
+            signup.close();
+            return;
+          }
+          signup.request = new TokenBuffer(signup.parser);
+        }
+        signup.request.copyCurrentEvent(signup.parser);
+        if (++signup.numTokens > MAX_SIGNUP_TOKENS) {
+          signup.close();
+          return;
+        }
+        if (token == JsonToken.END_OBJECT && signup.parser.getParsingContext().inRoot()) {
+          readSignupObject(signup);
+          return;
+        }
+      }
+    } catch (IOException e) {
+      signup.close();
+    }
+  }
+
+  /**
+   * Reads a signup of the form {"name": name, "extensions": [extension, ...]}, where extensions
+   * this server does not know are ignored (see ProtocolExtension).
+   */
+  private void readSignupObject(Signup signup) throws IOException {
+    JsonNode request = JsonUtils.getMapper().readTree(signup.request.asParser());
+    JsonNode extensionNames = request.path("extensions");
+    if (!request.path("name").isTextual() || !(extensionNames.isMissingNode() || extensionNames.isArray())) {
+      signup.close();
+      return;
+    }
+    Set<ProtocolExtension> extensions = EnumSet.noneOf(ProtocolExtension.class);
+    for (JsonNode extensionName : extensionNames) {
+      ProtocolExtension.fromString(extensionName.asText()).ifPresent(extensions::add);
+    }
+    completeSignup(signup, request.get("name").asText(), extensions);
+  }
+
+  private void completeSignup(Signup signup, String name, Set<ProtocolExtension> extensions) {
+    if (!name.matches(NAME_PATTERN)) {
+      signup.close();
+      return;
+    }
+    signup.name = name;
+    signup.extensions = extensions;
+    signup.request = null;
+    signup.key().cancel();
+  }
+
+  /**
+   * Closes the connections at the head of the queue whose names are overdue. Names are due in the
+   * order the connections arrived, so the first connection that is not overdue ends the search.
+   */
+  private void expireNames(long now) {
+    for (Signup signup : pending) {
+      if (signup.deadline - now > 0) {
+        break;
+      }
+      if (signup.name == null) {
+        signup.close();
+      }
+    }
+  }
+
+  /**
+   * Signs up the connections at the head of the queue that sent their names, in arrival order. At
+   * the end of a signup period the connections that sent their names are signed up even if an
+   * older connection is still sending its name, that one can only be signed up by a later period.
+   */
+  private void signUpCompleted(List<Player> players, int maxPlayers, boolean periodOver)
+      throws IOException {
+    // deregisters the keys of the completed connections so they can be made blocking again
+    selector.selectNow();
+    Iterator<Signup> signups = pending.iterator();
+    while (signups.hasNext() && players.size() < maxPlayers) {
+      Signup signup = signups.next();
+      if (signup.closed) {
+        signups.remove();
+      } else if (signup.name != null) {
+        signups.remove();
+        signUp(signup, players);
+      } else if (!periodOver) {
+        break;
+      }
+    }
+  }
+
+  private void signUp(Signup signup, List<Player> players) {
+    try {
+      signup.channel.configureBlocking(true);
+      players.add(new remote.Player(signup.channel.socket(), signup.name, signup.extensions));
+      metrics.record("signup.latency", System.nanoTime() - signup.accepted);
+    } catch (IOException | IllegalStateException e) {
+      signup.close();
+    }
+  }
+
+  /**
+   * Records how long every connection took from being accepted to being signed up, as the
+   * "signup.latency" timer.
+   * @param metrics the metrics to record to
+   */
+  public void recordMetricsTo(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Returns the number of connections accepted since the front end was opened, including those
+   * that never sent a valid name.
+   * @return the number of accepted connections
+   */
+  public long getNumAccepted() {
+    return numAccepted;
+  }
+
+  /**
+   * Closes the pending connections and stops accepting new ones. Players that were already signed
+   * up keep their connections.
+   */
+  @Override
+  public void close() throws IOException {
+    for (Signup signup : pending) {
+      signup.close();
+    }
+    pending.clear();
+    try {
+      selector.close();
+    } finally {
+      server.close();
+    }
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      // the connection is dropped either way
+    }
+  }
+
+  /**
+   * A connection that is signing up: the name it sent, once it is complete, and the parser that
+   * reads the name as it arrives.
+   */
+  private final class Signup {
+
+    private final SocketChannel channel;
+    private final long accepted;
+    private final long deadline;
+    private final JsonParser parser;
+    private String name = null;
+    private Set<ProtocolExtension> extensions;
+    // The tokens of a signup object received so far
+    private TokenBuffer request = null;
+    private int numTokens = 0;
+    private boolean closed = false;
+
+    private Signup(SocketChannel channel, long accepted) throws IOException {
+      this.channel = channel;
+      this.accepted = accepted;
+      this.deadline = accepted + nameTimeoutNanos;
+      this.parser = JsonUtils.getMapper().getFactory().createNonBlockingByteArrayParser();
+    }
+
+    private SelectionKey key() {
+      return channel.keyFor(selector);
+    }
+
+    private void close() {
+      closed = true;
+      closeQuietly(parser);
+      closeQuietly(channel);
+    }
+  }
+}
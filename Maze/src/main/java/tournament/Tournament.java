@@ -0,0 +1,215 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import gamelog.GameLog;
+import metrics.Metrics;
+import referee.GameResult;
+import referee.Player;
+import referee.Referee;
+import referee.SafePlayer;
+import util.Tuple;
+
+/**
+ * Runs many independent games on a bounded pool of threads and aggregates their results. Every
+ * game gets its own Referee and freshly created players, so games share no mutable state and can
+ * run on any thread in any order.
+ *
+ * Game i (counting from 0) is played on the board size at index i modulo the number of board
+ * sizes, with the seed firstSeed + i, so a tournament is reproducible. The seats of the players are
+ * rotated by one every game, so no player always moves first.
+ *
+ * A tournament between trusted players (such as StrategyPlayers) lets its referees call the players
+ * directly, see Referee.trustPlayers.
+ */
+public class Tournament {
+
+  private final List<Supplier<Player>> playerFactories;
+  private final int workers;
+  private final boolean trustPlayers;
+  private Optional<GameLog> gameLog = Optional.empty();
+  private Metrics metrics = Metrics.NONE;
+  private int repetitionLimit;
+
+  /**
+   * Constructs a tournament between the players the given factories create.
+   * @param playerFactories one factory per seat, each is called once per game
+   * @param workers the number of games run at the same time
+   * @throws IllegalArgumentException if there are no players or workers
+   */
+  public Tournament(List<Supplier<Player>> playerFactories, int workers) {
+    this(playerFactories, workers, false);
+  }
+
+  /**
+   * Constructs a tournament between the players the given factories create.
+   * @param playerFactories one factory per seat, each is called once per game
+   * @param workers the number of games run at the same time
+   * @param trustPlayers if the referees call the players directly (see Referee.trustPlayers)
+   * @throws IllegalArgumentException if there are no players or workers
+   */
+  public Tournament(List<Supplier<Player>> playerFactories, int workers, boolean trustPlayers) {
+    if (playerFactories.isEmpty() || workers <= 0) {
+      throw new IllegalArgumentException("A tournament needs players and workers.");
+    }
+    this.playerFactories = new ArrayList<>(playerFactories);
+    this.workers = workers;
+    this.trustPlayers = trustPlayers;
+  }
+
+  /**
+   * Appends the record of every game of this tournament to the given log, see
+   * Referee.recordGamesTo. The records are appended in the order the games finish.
+   * @param gameLog the log to append the records to
+   */
+  public void recordGamesTo(GameLog gameLog) {
+    this.gameLog = Optional.of(gameLog);
+  }
+
+  /**
+   * Records the metrics of every game of this tournament, see Referee.recordMetricsTo.
+   * @param metrics the thread-safe metrics all referees record to
+   */
+  public void recordMetricsTo(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Ends every game of this tournament once a position repeats the given number of times, see
+   * Referee.setRepetitionLimit.
+   * @param repetitionLimit how often a position may be seen, at least 2
+   * @throws IllegalArgumentException if the limit is less than 2
+   */
+  public void setRepetitionLimit(int repetitionLimit) {
+    if (repetitionLimit < 2) {
+      throw new IllegalArgumentException("Every position is seen once, the limit must be at least 2.");
+    }
+    this.repetitionLimit = repetitionLimit;
+  }
+
+  /**
+   * Runs the given number of games and aggregates their results.
+   * @param games the number of games to run
+   * @param boardSizes the (width, height) of the boards, used in turn
+   * @param firstSeed the seed of the first game
+   * @return the aggregated results of all games
+   * @throws IllegalStateException if a game fails unexpectedly
+   */
+  public TournamentResult run(int games, List<Tuple<Integer, Integer>> boardSizes, long firstSeed) {
+    if (boardSizes.isEmpty()) {
+      throw new IllegalArgumentException("A tournament needs at least one board size.");
+    }
+
+    TournamentResult.Builder result = TournamentResult.builder(playerFactories.size());
+    long start = System.nanoTime();
+
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    CompletionService<SeatedResult> completed = new ExecutorCompletionService<>(pool);
+    try {
+      int submitted = 0;
+      int maxInFlight = workers * 2;
+      for (int done = 0; done < games; done++) {
+        while (submitted < games && submitted - done < maxInFlight) {
+          Tuple<Integer, Integer> size = boardSizes.get(submitted % boardSizes.size());
+          int game = submitted;
+          completed.submit(() -> playGame(game, size.getFirst(), size.getSecond(), firstSeed + game));
+          submitted++;
+        }
+        result.add(completed.take().get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Tournament was interrupted.");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed: " + e.getCause(), e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    return result.build(System.nanoTime() - start);
+  }
+
+  // Plays a single game with fresh players, seat i of the game is taken by factory (i + game) % n
+  private SeatedResult playGame(int game, int width, int height, long seed) {
+    int seats = playerFactories.size();
+    List<Player> players = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    List<Integer> factoryOfSeat = new ArrayList<>();
+    for (int seat = 0; seat < seats; seat++) {
+      int factory = (seat + game) % seats;
+      Player player = playerFactories.get(factory).get();
+      players.add(player);
+      names.add(nameOf(player, factory));
+      factoryOfSeat.add(factory);
+    }
+
+    Referee referee = new Referee(width, height, seed);
+    if (trustPlayers) {
+      referee.trustPlayers();
+    }
+    gameLog.ifPresent(referee::recordGamesTo);
+    referee.recordMetricsTo(metrics);
+    if (repetitionLimit > 0) {
+      referee.setRepetitionLimit(repetitionLimit);
+    }
+    GameResult gameResult = referee.runGame(players);
+    return new SeatedResult(players, names, factoryOfSeat, gameResult);
+  }
+
+  // The name of the given player, asked for within the time limit of every other call to it, or a
+  // label of its factory if the player fails to give one in time. The Referee never asks for names,
+  // so such a player keeps its seat and is only kicked if it misbehaves in the game as well.
+  private String nameOf(Player player, int factory) {
+    SafePlayer safePlayer = new SafePlayer(player);
+    if (trustPlayers) {
+      safePlayer.trust();
+    }
+    safePlayer.recordMetricsTo(metrics);
+    try {
+      return safePlayer.name().orElse("player " + factory);
+    } finally {
+      safePlayer.releaseLane();
+    }
+  }
+
+  /**
+   * The result of one game along with which factory created the player in each seat.
+   */
+  static class SeatedResult {
+    private final List<Player> players;
+    private final List<String> names;
+    private final List<Integer> factoryOfSeat;
+    private final GameResult gameResult;
+
+    SeatedResult(List<Player> players, List<String> names, List<Integer> factoryOfSeat,
+        GameResult gameResult) {
+      this.players = players;
+      this.names = names;
+      this.factoryOfSeat = factoryOfSeat;
+      this.gameResult = gameResult;
+    }
+
+    List<Player> getPlayers() {
+      return players;
+    }
+
+    String getNameOfSeat(int seat) {
+      return names.get(seat);
+    }
+
+    int getFactoryOfSeat(int seat) {
+      return factoryOfSeat.get(seat);
+    }
+
+    GameResult getGameResult() {
+      return gameResult;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import referee.GameResult;
+import referee.GameResult.EndReason;
+import referee.Player;
+
+/**
+ * The aggregated results of a Tournament: the wins and kicks of every player (identified by the
+ * index of its factory), the number of rounds the games took, why they ended and the throughput of
+ * the tournament.
+ */
+public class TournamentResult {
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private final List<String> names;
+  private final List<Integer> wins;
+  private final List<Integer> kicks;
+  private final int games;
+  private final long totalRounds;
+  private final int maxRounds;
+  private final Map<EndReason, Integer> ends;
+  private final long elapsedNanos;
+
+  private TournamentResult(List<String> names, List<Integer> wins, List<Integer> kicks, int games,
+      long totalRounds, int maxRounds, Map<EndReason, Integer> ends, long elapsedNanos) {
+    this.names = names;
+    this.wins = wins;
+    this.kicks = kicks;
+    this.games = games;
+    this.totalRounds = totalRounds;
+    this.maxRounds = maxRounds;
+    this.ends = ends;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public int getGames() {
+    return games;
+  }
+
+  public int getNumberOfPlayers() {
+    return names.size();
+  }
+
+  /**
+   * Returns the name of the players created by the factory with the given index.
+   */
+  public String getName(int player) {
+    return names.get(player);
+  }
+
+  /**
+   * Returns the number of games won by the players created by the factory with the given index.
+   * A game can have more than one winner.
+   */
+  public int getWins(int player) {
+    return wins.get(player);
+  }
+
+  /**
+   * Returns the number of games in which the player created by the factory with the given index
+   * was kicked.
+   */
+  public int getKicks(int player) {
+    return kicks.get(player);
+  }
+
+  public double getMeanRounds() {
+    return games == 0 ? 0 : (double) totalRounds / games;
+  }
+
+  public int getMaxRounds() {
+    return maxRounds;
+  }
+
+  /**
+   * Returns the number of games that ended for the given reason.
+   */
+  public int getGamesEndedBy(EndReason reason) {
+    return ends.getOrDefault(reason, 0);
+  }
+
+  public double getElapsedSeconds() {
+    return elapsedNanos / NANOS_PER_SECOND;
+  }
+
+  public double getGamesPerSecond() {
+    return elapsedNanos == 0 ? 0 : games / getElapsedSeconds();
+  }
+
+  static Builder builder(int players) {
+    return new Builder(players);
+  }
+
+  /**
+   * Collects the results of the games one at a time, only used by the thread running the
+   * Tournament.
+   */
+  static class Builder {
+    private final List<String> names;
+    private final List<Integer> wins;
+    private final List<Integer> kicks;
+    private int games;
+    private long totalRounds;
+    private int maxRounds;
+    private final Map<EndReason, Integer> ends = new EnumMap<>(EndReason.class);
+
+    private Builder(int players) {
+      this.names = new ArrayList<>(Collections.nCopies(players, ""));
+      this.wins = new ArrayList<>(Collections.nCopies(players, 0));
+      this.kicks = new ArrayList<>(Collections.nCopies(players, 0));
+    }
+
+    Builder add(Tournament.SeatedResult seated) {
+      GameResult gameResult = seated.getGameResult();
+      List<Player> players = seated.getPlayers();
+      for (int seat = 0; seat < players.size(); seat++) {
+        Player player = players.get(seat);
+        int factory = seated.getFactoryOfSeat(seat);
+        names.set(factory, seated.getNameOfSeat(seat));
+        if (gameResult.getWinners().contains(player)) {
+          wins.set(factory, wins.get(factory) + 1);
+        }
+        if (gameResult.getKicked().contains(player)) {
+          kicks.set(factory, kicks.get(factory) + 1);
+        }
+      }
+      games++;
+      totalRounds += gameResult.getRounds();
+      maxRounds = Math.max(maxRounds, gameResult.getRounds());
+      ends.merge(gameResult.getEndReason(), 1, Integer::sum);
+      return this;
+    }
+
+    TournamentResult build(long elapsedNanos) {
+      return new TournamentResult(new ArrayList<>(names), new ArrayList<>(wins),
+          new ArrayList<>(kicks), games, totalRounds, maxRounds, new EnumMap<>(ends), elapsedNanos);
+    }
+  }
+}
@@ -4,9 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 public enum Direction {
   LEFT, UP, RIGHT, DOWN;
@@ -65,6 +63,22 @@ public enum Direction {
     specialCharDirectionMap.put('┼', EnumSet.of(UP, LEFT, RIGHT, DOWN));
   }
 
+  // The special char of every set of directions, indexed by the bits of the ordinals in the set
+  private static final char[] specialCharOfMask = new char[1 << 4];
+  static {
+    for (Entry<Character, EnumSet<Direction>> entry : specialCharDirectionMap.entrySet()) {
+      specialCharOfMask[mask(entry.getValue())] = entry.getKey();
+    }
+  }
+
+  private static int mask(EnumSet<Direction> directions) {
+    int mask = 0;
+    for (Direction dir : directions) {
+      mask |= 1 << dir.ordinal();
+    }
+    return mask;
+  }
+
   public static EnumSet<Direction> specialCharToDirections(char specialChar) {
     if(specialCharDirectionMap.containsKey(specialChar)) {
       return specialCharDirectionMap.get(specialChar);
@@ -73,13 +87,9 @@ public enum Direction {
   }
 
   public static char directionsToSpecialChar(EnumSet<Direction> directions) {
-    List<Character> keys = specialCharDirectionMap.entrySet().stream()
-        .filter(x -> x.getValue().equals(EnumSet.copyOf(directions)))
-        .map(Entry::getKey)
-        .collect(Collectors.toList());
-
-    if(!keys.isEmpty())  {
-      return keys.get(0);
+    char specialChar = specialCharOfMask[mask(directions)];
+    if(specialChar != 0) {
+      return specialChar;
     }
     throw new IllegalArgumentException("unknown set of directions: " + directions);
   }
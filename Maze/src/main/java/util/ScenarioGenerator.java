@@ -0,0 +1,206 @@
+package util;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import model.board.BasicTile;
+import model.board.Board;
+import model.board.Gem;
+import model.board.RectBoard;
+import model.board.Tile;
+import model.state.MazeState;
+import model.state.PlayerData;
+import model.state.State;
+import referee.Player;
+
+/**
+ * Generates game scenarios, the initial states of games, for boards of one size. Everything about
+ * a scenario is derived from a single seed: the connectors and gems of every tile and of the spare
+ * tile, the homes, goals and avatars of the players and the additional goals. The same seed and
+ * number of players always produce the same scenario, so games and load tests can be reproduced
+ * and compared from their seeds alone.
+ *
+ * Seeds are mixed before use, so consecutive seeds produce unrelated scenarios. A board holds at
+ * most one tile per unordered pair of gems, so the board and spare tile may have at most as many
+ * tiles as there are pairs of gems, and every player needs its own immovable home tile.
+ */
+public class ScenarioGenerator {
+
+  private static final List<EnumSet<Direction>> CONNECTORS = connectors();
+  private static final List<List<Gem>> GEM_PAIRS = Util.generateGemPairs();
+
+  private final int boardWidth;
+  private final int boardHeight;
+  private final int numAdditionalGoals;
+  private final List<Posn> immovableLocations;
+
+  /**
+   * Creates a generator of scenarios without additional goals.
+   * @param boardWidth the width of the boards
+   * @param boardHeight the height of the boards
+   * @throws IllegalArgumentException if the board has no immovable tile or too many tiles
+   */
+  public ScenarioGenerator(int boardWidth, int boardHeight) {
+    this(boardWidth, boardHeight, 0);
+  }
+
+  /**
+   * Creates a generator of scenarios.
+   * @param boardWidth the width of the boards
+   * @param boardHeight the height of the boards
+   * @param numAdditionalGoals the number of additional goals of every scenario
+   * @throws IllegalArgumentException if the board has no immovable tile or too many tiles, or the
+   *     number of additional goals is negative
+   */
+  public ScenarioGenerator(int boardWidth, int boardHeight, int numAdditionalGoals) {
+    if (boardWidth < 2 || boardHeight < 2) {
+      throw new IllegalArgumentException("The board must be at least 2x2.");
+    }
+    if (boardWidth * boardHeight + 1 > GEM_PAIRS.size()) {
+      throw new IllegalArgumentException("A board and spare tile can have at most "
+          + GEM_PAIRS.size() + " tiles.");
+    }
+    if (numAdditionalGoals < 0) {
+      throw new IllegalArgumentException("The number of additional goals cannot be negative.");
+    }
+    this.boardWidth = boardWidth;
+    this.boardHeight = boardHeight;
+    this.numAdditionalGoals = numAdditionalGoals;
+    this.immovableLocations = Util.getAllUnMovableLocations(new RectBoard(boardWidth, boardHeight));
+  }
+
+  /**
+   * Returns the largest number of players of a scenario, one per immovable tile.
+   * @return the maximum number of players
+   */
+  public int getMaxPlayers() {
+    return immovableLocations.size();
+  }
+
+  /**
+   * Generates the scenario of the given seed for the given players.
+   * @param seed the seed of the scenario
+   * @param players the players of the game, in turn order
+   * @return the initial state of the game
+   * @throws IllegalArgumentException if there are no players or more than getMaxPlayers
+   */
+  public State generate(long seed, List<Player> players) {
+    List<Optional<Player>> playerAPIs = new ArrayList<>();
+    for (Player player : players) {
+      playerAPIs.add(Optional.of(player));
+    }
+    return generateWith(seed, playerAPIs);
+  }
+
+  /**
+   * Generates the scenario of the given seed for players without player APIs. It is the same
+   * scenario generate(seed, players) produces for the same number of players.
+   * @param seed the seed of the scenario
+   * @param numPlayers the number of players of the game
+   * @return the initial state of the game
+   * @throws IllegalArgumentException if there are no players or more than getMaxPlayers
+   */
+  public State generate(long seed, int numPlayers) {
+    List<Optional<Player>> playerAPIs = new ArrayList<>();
+    for (int i = 0; i < numPlayers; i++) {
+      playerAPIs.add(Optional.empty());
+    }
+    return generateWith(seed, playerAPIs);
+  }
+
+  /**
+   * Lazily generates the scenarios of consecutive seeds for players without player APIs, scenario
+   * i (counting from 0) is the scenario of the seed firstSeed + i. Only the scenario that is
+   * consumed is ever held in memory.
+   * @param firstSeed the seed of the first scenario
+   * @param numPlayers the number of players of every game
+   * @return an infinite stream of scenarios
+   * @throws IllegalArgumentException if there are no players or more than getMaxPlayers
+   */
+  public Stream<State> stream(long firstSeed, int numPlayers) {
+    checkNumPlayers(numPlayers);
+    return LongStream.iterate(firstSeed, seed -> seed + 1)
+        .mapToObj(seed -> generate(seed, numPlayers));
+  }
+
+  private State generateWith(long seed, List<Optional<Player>> playerAPIs) {
+    checkNumPlayers(playerAPIs.size());
+    SplittableRandom random = new SplittableRandom(seed);
+
+    // every tile gets a distinct pair of gems, the first pairs of a shuffled order
+    int[] gemOrder = shuffledIndices(GEM_PAIRS.size(), boardWidth * boardHeight + 1, random);
+    Board board = new RectBoard(boardWidth, boardHeight);
+    int next = 0;
+    for (int row = 0; row < boardHeight; row++) {
+      for (int col = 0; col < boardWidth; col++) {
+        board.placeTileSafely(new Posn(col, row), randomTile(GEM_PAIRS.get(gemOrder[next++]), random));
+      }
+    }
+    Tile spare = randomTile(GEM_PAIRS.get(gemOrder[next]), random);
+
+    int[] homeOrder = shuffledIndices(immovableLocations.size(), playerAPIs.size(), random);
+    List<PlayerData> players = new ArrayList<>();
+    for (int i = 0; i < playerAPIs.size(); i++) {
+      Posn home = immovableLocations.get(homeOrder[i]);
+      Posn goal = randomGoalOtherThan(home, random);
+      Color avatar = Util.provideUniqueColorFromPlayers(players, random.nextInt());
+      players.add(new PlayerData(avatar, home, home, goal, playerAPIs.get(i), 0, false, false, false));
+    }
+
+    List<Posn> additionalGoals = new ArrayList<>();
+    for (int i = 0; i < numAdditionalGoals; i++) {
+      additionalGoals.add(immovableLocations.get(random.nextInt(immovableLocations.size())));
+    }
+    return new MazeState(board, players, spare, Optional.empty(), additionalGoals);
+  }
+
+  private void checkNumPlayers(int numPlayers) {
+    if (numPlayers < 1 || numPlayers > getMaxPlayers()) {
+      throw new IllegalArgumentException("A " + boardWidth + "x" + boardHeight
+          + " board has room for 1 to " + getMaxPlayers() + " players.");
+    }
+  }
+
+  // A goal is any immovable tile but the home, unless the home is the only immovable tile
+  private Posn randomGoalOtherThan(Posn home, SplittableRandom random) {
+    if (immovableLocations.size() == 1) {
+      return home;
+    }
+    Posn goal = immovableLocations.get(random.nextInt(immovableLocations.size() - 1));
+    return goal.equals(home) ? immovableLocations.get(immovableLocations.size() - 1) : goal;
+  }
+
+  private static Tile randomTile(List<Gem> gems, SplittableRandom random) {
+    EnumSet<Direction> connector = CONNECTORS.get(random.nextInt(CONNECTORS.size()));
+    return new BasicTile(EnumSet.copyOf(connector), gems);
+  }
+
+  // The first count indices of a random order of 0 to size - 1, a Fisher-Yates shuffle that stops
+  // after count steps since a board uses few of the thousands of gem pairs
+  private static int[] shuffledIndices(int size, int count, SplittableRandom random) {
+    int[] indices = new int[size];
+    for (int i = 0; i < size; i++) {
+      indices[i] = i;
+    }
+    for (int i = 0; i < count; i++) {
+      int j = i + random.nextInt(size - i);
+      int swap = indices[i];
+      indices[i] = indices[j];
+      indices[j] = swap;
+    }
+    return indices;
+  }
+
+  private static List<EnumSet<Direction>> connectors() {
+    List<EnumSet<Direction>> connectors = new ArrayList<>();
+    for (char connector : "│─┐└┌┘┬├┴┤┼".toCharArray()) {
+      connectors.add(Direction.specialCharToDirections(connector));
+    }
+    return connectors;
+  }
+}
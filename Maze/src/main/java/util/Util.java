@@ -6,8 +6,8 @@ import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import model.board.BasicTile;
@@ -15,7 +15,6 @@ import model.board.Board;
 import model.board.Gem;
 import model.board.RectBoard;
 import model.board.Tile;
-import model.state.MazeState;
 import model.state.PlayerData;
 import model.state.State;
 import model.strategy.RiemannStrategy;
@@ -35,6 +34,14 @@ public class Util {
    * @return if the lists have exactly the same items
    */
   public static <T> boolean listsContainSameItems(List<T> first, List<T> second) {
+    if(first.size() != second.size()) {
+      return false;
+    }
+    // the gems of every tile are a pair, compared for every tile placed on a board
+    if(first.size() == 2) {
+      return (first.get(0).equals(second.get(0)) && first.get(1).equals(second.get(1)))
+          || (first.get(0).equals(second.get(1)) && first.get(1).equals(second.get(0)));
+    }
     List<T> accumulator = new ArrayList<>();
     for(T item : first) {
       accumulator.add(item);
@@ -135,27 +142,28 @@ public class Util {
   }
 
   /**
-   * Generates a random maze board using the given dimensions and random seed.
+   * Generates a random maze state using the given dimensions and a fresh seed, so every call
+   * produces a different game. Callers that need to reproduce a game pass the seed themselves.
    * @param players the list of players to include in the randomly generated state
    * @param boardWidth the width of the board
    * @param boardHeight the height of the board
    * @return a randomly generated state
    */
   public static State createRandomState(List<Player> players, int boardWidth, int boardHeight) {
-    Tuple<Board, Tile> boardAndTile = generateRandomBoardAndSpare(boardWidth, boardHeight, 100);
-    Optional<Tuple<Integer, Direction>> prevMove = Optional.empty();
-
-    List<PlayerData> playerDatas = new ArrayList<>();
-    List<Posn> allUnmovableLocations = getAllUnMovableLocations(boardAndTile.getFirst());
-
-    for(int i = 0; i < players.size(); i++) {
-      Player player = players.get(i);
-      Color playerColor = provideUniqueColorFromPlayers(playerDatas, 0);
-      Posn home = allUnmovableLocations.get(i);
-      Posn goal = allUnmovableLocations.get((int)(Math.random() * allUnmovableLocations.size()));
-      playerDatas.add(new PlayerData(playerColor, home, home, goal, Optional.of(player), 0, false, false, false));
-    }
-    return new MazeState(boardAndTile.getFirst(), playerDatas, boardAndTile.getSecond(), prevMove, new ArrayList<>());
+    return createRandomState(players, boardWidth, boardHeight, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Same as createRandomState, but the board, spare tile, homes and goals are all derived from the
+   * given seed, so the same seed and players always produce the same state.
+   * @param players the players of the game
+   * @param boardWidth the width of the board
+   * @param boardHeight the height of the board
+   * @param seed the seed of the state
+   * @return the created state
+   */
+  public static State createRandomState(List<Player> players, int boardWidth, int boardHeight, long seed) {
+    return new ScenarioGenerator(boardWidth, boardHeight).generate(seed, players);
   }
 
   /**
@@ -169,7 +177,7 @@ public class Util {
         .boxed().collect(Collectors.toList());
 
     List<Integer> movableCols = board.getMovableColIndices();
-    List<Integer> immovableCols = IntStream.range(0, board.getBoardHeight()).filter(x -> !movableCols.contains(x))
+    List<Integer> immovableCols = IntStream.range(0, board.getBoardWidth()).filter(x -> !movableCols.contains(x))
         .boxed().collect(Collectors.toList());
 
     List<Posn> immovablePosns = new ArrayList<>();
@@ -59,8 +59,8 @@ public class DrawObserverView {
    */
   public void drawView(State state) {
     frame.getContentPane().removeAll();
-    Board board = state.getBoard();
-    Tile spare = state.getSpareTile();
+    Board board = state.getBoardView();
+    Tile spare = state.getSpareTileView();
     List<PlayerData> players = state.getPlayers();
 
     JPanel boardPanel = drawBoardPanel(board, players);
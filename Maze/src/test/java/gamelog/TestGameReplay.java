@@ -0,0 +1,140 @@
+package gamelog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import json.PlayerAPIJson.BadFM;
+import json.StateJson;
+import model.state.Action;
+import model.state.BasicTurnAction;
+import model.state.State;
+import model.strategy.EuclidStrategy;
+import model.strategy.RiemannStrategy;
+import observer.Observer;
+import org.junit.jupiter.api.Test;
+import referee.BadPlayer;
+import referee.Player;
+import referee.Referee;
+import referee.StrategyPlayer;
+import util.Direction;
+import util.Posn;
+import util.ScenarioGenerator;
+
+public class TestGameReplay {
+
+  // Remembers every state the Referee announces, as JSON
+  private static class RecordingObserver implements Observer {
+    private final List<JsonNode> states = new ArrayList<>();
+
+    @Override
+    public void notifyStateChange(State state) {
+      states.add(StateJson.serializeRefereeState(state));
+    }
+
+    @Override
+    public void notifyGameOver() {
+    }
+  }
+
+  private static List<Player> players() {
+    return List.of(
+        new StrategyPlayer("euclid", new EuclidStrategy()),
+        new BadPlayer("bad", new EuclidStrategy(), BadFM.takeTurn, 0),
+        new StrategyPlayer("riemann", new RiemannStrategy()));
+  }
+
+  @Test
+  public void testReplayReproducesEveryAnnouncedState() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    GameLog log = new GameLog(bytes);
+    List<RecordingObserver> observers = new ArrayList<>();
+
+    for (long seed = 0; seed < 5; seed++) {
+      Referee referee = new Referee(7, 7, seed);
+      RecordingObserver observer = new RecordingObserver();
+      referee.subscribeObserver(observer);
+      referee.recordGamesTo(log);
+      referee.runGame(players());
+      observers.add(observer);
+    }
+    assertFalse(log.checkError());
+
+    List<GameReplay> games = GameReplay.readAll(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(observers.size(), games.size());
+
+    for (int game = 0; game < games.size(); game++) {
+      List<JsonNode> replayed = new ArrayList<>();
+      for (int events = 0; events <= games.get(game).getNumberOfEvents(); events++) {
+        replayed.add(StateJson.serializeRefereeState(games.get(game).stateAfter(events)));
+      }
+      // every announced state is replayed, in order
+      int next = 0;
+      for (JsonNode announced : observers.get(game).states) {
+        while (next < replayed.size() && !replayed.get(next).equals(announced)) {
+          next++;
+        }
+        assertTrue(next < replayed.size(), "state of game " + game + " was not replayed");
+      }
+      List<JsonNode> announced = observers.get(game).states;
+      assertEquals(announced.get(announced.size() - 1),
+          StateJson.serializeRefereeState(games.get(game).getFinalState()));
+    }
+  }
+
+  @Test
+  public void testReplayCanBeRepeated() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Referee referee = new Referee(7, 7, 3);
+    referee.recordGamesTo(new GameLog(bytes));
+    referee.runGame(players());
+
+    GameReplay game = GameReplay.readAll(new ByteArrayInputStream(bytes.toByteArray())).get(0);
+    assertEquals(StateJson.serializeRefereeState(game.getFinalState()),
+        StateJson.serializeRefereeState(game.getFinalState()));
+    assertEquals(StateJson.serializeRefereeState(game.getInitialState()),
+        StateJson.serializeRefereeState(game.stateAfter(0)));
+    assertThrows(IllegalArgumentException.class, () -> game.stateAfter(-1));
+  }
+
+  @Test
+  public void testReplaySlidesLinesOfBoardsThatAreNotSquare() throws IOException {
+    State state = new ScenarioGenerator(9, 7).generate(4, 2);
+    Posn current = state.whichPlayerTurn().getCurrentLocation();
+    // column 8 is past the last row, so it is only on the board as a column
+    Action slide = BasicTurnAction.builder()
+        .slideTilePosition(new Posn(8, 0))
+        .slideTileDirection(Direction.DOWN)
+        .rotateSpare(0)
+        .targetPlayerPosition(current)
+        .build();
+    State played = state.applyActionWithoutChecking(slide);
+
+    GameRecorder recorder = new GameRecorder(state);
+    recorder.recordAction(slide);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    GameLog log = new GameLog(bytes);
+    log.append(recorder.finish());
+    GameReplay game = GameReplay.readAll(new ByteArrayInputStream(bytes.toByteArray())).get(0);
+
+    assertEquals(StateJson.serializeRefereeState(played),
+        StateJson.serializeRefereeState(game.stateAfter(1)));
+    assertNotEquals(StateJson.serializeRefereeState(state).get("board"),
+        StateJson.serializeRefereeState(game.stateAfter(1)).get("board"));
+  }
+
+  @Test
+  public void testRejectsMalformedLog() {
+    byte[] notALog = {1, 2, 3, 4, 5};
+    assertThrows(IOException.class,
+        () -> GameReplay.readAll(new ByteArrayInputStream(notALog)));
+  }
+}
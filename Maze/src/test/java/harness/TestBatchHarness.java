@@ -0,0 +1,124 @@
+package harness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import harness.BatchHarness.BatchCase;
+import harness.BatchHarness.Mode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import util.Direction;
+import util.ScenarioGenerator;
+
+public class TestBatchHarness {
+
+  private static final int CASES = 8;
+
+  // Cases of the StateHarness on different states and slides, so their outputs differ
+  private static List<byte[]> stateInputs() {
+    List<byte[]> inputs = new ArrayList<>();
+    ScenarioGenerator generator = new ScenarioGenerator(7, 7);
+    for (int i = 0; i < CASES; i++) {
+      State state = generator.generate(i, 2);
+      Direction direction = Direction.values()[i % Direction.values().length];
+      inputs.add(TestStateHarness.input(state, 2 * (i % 4), direction, 90 * (i % 4)));
+    }
+    return inputs;
+  }
+
+  private static List<BatchCase> cases(List<byte[]> inputs) {
+    List<BatchCase> cases = new ArrayList<>();
+    for (int i = 0; i < inputs.size(); i++) {
+      cases.add(new BatchCase("case " + i, inputs.get(i)));
+    }
+    return cases;
+  }
+
+  @Test
+  public void testOutputsFollowTheOrderOfTheCases() {
+    List<byte[]> inputs = stateInputs();
+    StringBuilder expected = new StringBuilder();
+    for (byte[] input : inputs) {
+      expected.append(TestStateHarness.run(input));
+    }
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ByteArrayOutputStream latency = new ByteArrayOutputStream();
+    assertTrue(BatchHarness.batchTestHarness(Mode.STATE, cases(inputs), 3,
+        new PrintStream(output, true, StandardCharsets.UTF_8),
+        new PrintStream(latency, true, StandardCharsets.UTF_8)));
+    assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testLatencyOfEveryCaseIsReported() {
+    ByteArrayOutputStream latency = new ByteArrayOutputStream();
+    BatchHarness.batchTestHarness(Mode.STATE, cases(stateInputs()), 2,
+        new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8),
+        new PrintStream(latency, true, StandardCharsets.UTF_8));
+
+    String[] lines = latency.toString(StandardCharsets.UTF_8).split("\\R");
+    assertEquals(CASES + 1, lines.length);
+    for (int i = 0; i < CASES; i++) {
+      assertTrue(lines[i].matches("case " + i + ": \\d+\\.\\d{3} ms"), lines[i]);
+    }
+    assertTrue(lines[CASES].matches(CASES + " cases: \\d+\\.\\d{3} ms"), lines[CASES]);
+  }
+
+  @Test
+  public void testFailedCaseFailsTheBatch() {
+    List<byte[]> inputs = stateInputs();
+    inputs.set(3, "[\"not a state\"]".getBytes(StandardCharsets.UTF_8));
+
+    StringBuilder expected = new StringBuilder();
+    for (byte[] input : inputs) {
+      expected.append(TestStateHarness.run(input));
+    }
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertFalse(BatchHarness.batchTestHarness(Mode.STATE, cases(inputs), 2,
+        new PrintStream(output, true, StandardCharsets.UTF_8),
+        new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8)));
+    // the other cases still print their outputs, in order
+    assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testBatchFailsIfACaseFails() throws IOException {
+    List<byte[]> inputs = stateInputs();
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    for (byte[] input : inputs) {
+      stream.write(input);
+    }
+    PrintStream ignored = new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+    String[] args = {"state", "--workers", "2"};
+
+    assertTrue(BatchHarness.batchHarness(args,
+        new ByteArrayInputStream(stream.toByteArray()), ignored, ignored));
+    // a state without a board makes the last case fail
+    stream.write("{} 0 \"UP\" 0".getBytes(StandardCharsets.UTF_8));
+    assertFalse(BatchHarness.batchHarness(args,
+        new ByteArrayInputStream(stream.toByteArray()), ignored, ignored));
+    assertFalse(BatchHarness.batchHarness(new String[] {"dance"},
+        new ByteArrayInputStream(new byte[0]), ignored, ignored));
+  }
+
+  @Test
+  public void testStreamIsSplitIntoCases() throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    for (byte[] input : stateInputs()) {
+      stream.write(input);
+    }
+    List<BatchCase> cases = BatchHarness.readCasesFromStream(
+        new ByteArrayInputStream(stream.toByteArray()), Mode.STATE);
+    assertEquals(CASES, cases.size());
+  }
+}
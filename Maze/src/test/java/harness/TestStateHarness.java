@@ -0,0 +1,61 @@
+package harness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import json.JsonUtils;
+import json.StateJson;
+import model.board.Board;
+import model.board.Tile;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import util.Direction;
+import util.Posn;
+import util.ScenarioGenerator;
+
+public class TestStateHarness {
+
+  // The input of the StateHarness: a state, the index and direction of a slide and a rotation
+  static byte[] input(State state, int index, Direction direction, int degrees) {
+    String json = StateJson.serializeRefereeState(state) + "\n" + index + "\n\"" + direction
+        + "\"\n" + degrees + "\n";
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  static String run(byte[] input) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    StateHarness.stateTestHarness(new ByteArrayInputStream(input),
+        new PrintStream(output, true, StandardCharsets.UTF_8));
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testSlidesLinesOfBoardsThatAreNotSquare() throws Exception {
+    State state = new ScenarioGenerator(9, 7).generate(4, 2);
+    Posn current = state.whichPlayerTurn().getCurrentLocation();
+
+    // column 8 is past the last row, so it is only on the board as a column
+    Board board = state.getBoard();
+    board.slideSafely(new Posn(8, 0), Direction.DOWN, state.getSpareTile());
+    Set<Tile> accessible = board.findAllAccessibleTiles(current);
+    List<Posn> expected = new ArrayList<>();
+    for (int row = 0; row < board.getBoardHeight(); row++) {
+      for (int col = 0; col < board.getBoardWidth(); col++) {
+        if (accessible.contains(board.getTile(new Posn(col, row)).get())) {
+          expected.add(new Posn(col, row));
+        }
+      }
+    }
+    assertTrue(expected.contains(current));
+
+    assertEquals(JsonUtils.writeObjectToJson(expected) + System.lineSeparator(),
+        run(input(state, 8, Direction.DOWN, 0)));
+  }
+}
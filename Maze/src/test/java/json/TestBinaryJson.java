@@ -0,0 +1,87 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import model.board.Gem;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import referee.TestReferee;
+
+public class TestBinaryJson {
+
+  @Test
+  public void testValuesRoundTrip() throws IOException {
+    JsonNode value = JsonUtils.getMapper().readTree("{\"a\": [null, true, false, 0, -1, 300,"
+        + " 12345678901, 2.5, \"\", \"ünïcode\", \"take-turn\", {\"board\": []}], \"\": {}}");
+    assertEquals(value, BinaryJson.decode(BinaryJson.encode(value)));
+  }
+
+  @Test
+  public void testStateIsSmallerAndRoundTrips() throws IOException {
+    State state = TestReferee.getStateNormalGame();
+    JsonNode stateJson = StateJson.serializePublicState(
+        new PlayerStateWrapper(state, state.whichPlayerTurn()));
+    byte[] encoded = BinaryJson.encode(stateJson);
+    int textLength = JsonUtils.writeObjectToJson(stateJson).getBytes(StandardCharsets.UTF_8).length;
+
+    assertEquals(stateJson, BinaryJson.decode(encoded));
+    assertTrue(encoded.length * 3 < textLength, encoded.length + " bytes, " + textLength + " as text");
+  }
+
+  @Test
+  public void testEncodedValuesAreSplicedIn() throws IOException {
+    State state = TestReferee.getStateNormalGame();
+    PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+
+    ArrayNode spliced = factory.arrayNode();
+    spliced.add("setup");
+    spliced.add(factory.pojoNode(StateJson.encodePublicStateBinary(wrapper)));
+    ArrayNode tree = factory.arrayNode();
+    tree.add("setup");
+    tree.add(StateJson.serializePublicState(wrapper));
+    assertArrayEquals(BinaryJson.encode(tree), BinaryJson.encode(spliced));
+  }
+
+  @Test
+  public void testProtocolWordsComeBeforeGems() {
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    // a WORD tag followed by the index of the word in the dictionary
+    assertArrayEquals(new byte[] {6, 0}, BinaryJson.encode(factory.textNode("setup")));
+    assertArrayEquals(new byte[] {6, 21}, BinaryJson.encode(factory.textNode("moved")));
+    assertArrayEquals(new byte[] {6, 37},
+        BinaryJson.encode(factory.textNode(Gem.values()[0].toString())));
+  }
+
+  @Test
+  public void testCorruptEncodingsAreRejected() {
+    byte[] encoded = BinaryJson.encode(JsonNodeFactory.instance.textNode("a longer string"));
+    assertThrows(IOException.class,
+        () -> BinaryJson.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    assertThrows(IOException.class,
+        () -> BinaryJson.decode(Arrays.copyOf(encoded, encoded.length + 1)));
+    // an array claiming far more elements than there are bytes
+    assertThrows(IOException.class, () -> BinaryJson.decode(new byte[] {7, -1, -1, -1, -1, 7}));
+    assertThrows(IOException.class, () -> BinaryJson.decode(new byte[] {42}));
+  }
+
+  @Test
+  public void testDeepNestingIsRejected() {
+    byte[] nested = new byte[1 << 20];
+    for (int i = 0; i + 1 < nested.length; i += 2) {
+      nested[i] = 7; // an ARRAY of one element
+      nested[i + 1] = 1;
+    }
+    assertThrows(IOException.class, () -> BinaryJson.decode(nested));
+  }
+}
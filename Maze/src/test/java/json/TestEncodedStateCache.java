@@ -0,0 +1,69 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.state.PlayerData;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import referee.TestReferee;
+import util.Direction;
+import util.Posn;
+
+public class TestEncodedStateCache {
+
+  @Test
+  public void testStateIsEncodedOnceForAllPlayers() {
+    State state = TestReferee.getStateNormalGame();
+    EncodedStateCache<String> cache = EncodedStateCache.ofJson();
+    AtomicInteger serialized = new AtomicInteger();
+
+    String first = null;
+    for (PlayerData player : state.getPlayers()) {
+      PlayerStateWrapper wrapper = new PlayerStateWrapper(state, player);
+      String encoding = cache.encode(wrapper.getStateKey(), () -> {
+        serialized.incrementAndGet();
+        return StateJson.serializePublicState(wrapper);
+      });
+      if (first == null) {
+        first = encoding;
+      }
+      assertSame(first, encoding);
+    }
+    assertEquals(1, serialized.get());
+  }
+
+  @Test
+  public void testEncodingMatchesTheTree() throws IOException {
+    State state = TestReferee.getStateNormalGame();
+    PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+
+    JsonNode encoded = JsonUtils.getMapper().readTree(StateJson.encodePublicState(wrapper));
+    assertEquals(StateJson.serializePublicState(wrapper), encoded);
+    JsonNode encodedReferee = JsonUtils.getMapper().readTree(StateJson.encodeRefereeState(state));
+    assertEquals(StateJson.serializeRefereeState(state), encodedReferee);
+
+    // a remote player sends the cached encoding as part of its request
+    ByteArrayOutputStream sent = new ByteArrayOutputStream();
+    new remote.Player(new ByteArrayInputStream("\"void\"".getBytes()), sent, "remote")
+        .setup(Optional.of(wrapper), new Posn(1, 1));
+    JsonNode request = JsonUtils.getMapper().readTree(sent.toString().split("\n")[0]);
+    assertEquals(encoded, request.get(1).get(0));
+  }
+
+  @Test
+  public void testSpecialCharsOfAllDirections() {
+    for (char specialChar : "│─┐└┌┘┬├┴┤┼".toCharArray()) {
+      EnumSet<Direction> directions = Direction.specialCharToDirections(specialChar);
+      assertEquals(specialChar, Direction.directionsToSpecialChar(directions));
+    }
+  }
+}
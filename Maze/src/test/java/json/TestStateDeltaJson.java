@@ -0,0 +1,108 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Optional;
+import model.state.Action;
+import model.state.PassAction;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import model.strategy.EuclidStrategy;
+import org.junit.jupiter.api.Test;
+import referee.StrategyPlayer;
+import referee.TestReferee;
+
+public class TestStateDeltaJson {
+
+  private static PlayerStateWrapper wrap(State state) {
+    return new PlayerStateWrapper(state, state.whichPlayerTurn());
+  }
+
+  private static State playTurn(State state) {
+    StrategyPlayer player = new StrategyPlayer("euclid", new EuclidStrategy());
+    player.setup(Optional.of(wrap(state)), state.whichPlayerTurn().getGoalLocation());
+    Action action = player.takeTurn(wrap(state));
+    return state.applyActionWithoutChecking(action);
+  }
+
+  @Test
+  public void testDeltaOfASlideIsTheSlidLine() {
+    State before = TestReferee.getStateNormalGame();
+    State after = playTurn(before);
+
+    JsonNode delta = StateDeltaJson.serializeDelta(wrap(before), wrap(after)).get();
+    int longestLine = Math.max(before.getBoardWidth(), before.getBoardHeight());
+    assertTrue(delta.get("tiles").size() > 0);
+    assertTrue(delta.get("tiles").size() <= longestLine);
+
+    ObjectNode stateJson = (ObjectNode) StateJson.serializePublicState(wrap(before));
+    StateDeltaJson.applyDelta(stateJson, delta);
+    assertEquals(StateJson.serializePublicState(wrap(after)), stateJson);
+  }
+
+  @Test
+  public void testDeltaOverManyTurns() {
+    State before = TestReferee.getStateNormalGame();
+    State after = before;
+    for (int turn = 0; turn < 3; turn++) {
+      after = playTurn(after);
+    }
+
+    Optional<JsonNode> delta = StateDeltaJson.serializeDelta(wrap(before), wrap(after));
+    ObjectNode stateJson = (ObjectNode) StateJson.serializePublicState(wrap(before));
+    if (delta.isPresent()) {
+      StateDeltaJson.applyDelta(stateJson, delta.get());
+      assertEquals(StateJson.serializePublicState(wrap(after)), stateJson);
+    }
+  }
+
+  @Test
+  public void testDeltaSendsOnlyTheMovedAvatar() {
+    State before = TestReferee.getStateNormalGame();
+    State after = playTurn(before);
+
+    JsonNode delta = StateDeltaJson.serializeDelta(wrap(before), wrap(after)).get();
+    assertFalse(delta.has("plmt"));
+    assertTrue(delta.get("moved").size() <= 1);
+    assertEquals(before.getPlayers().size(), delta.get("order").size());
+  }
+
+  @Test
+  public void testPassChangesNoTile() {
+    State before = TestReferee.getStateNormalGame();
+    State after = before.applyActionWithoutChecking(new PassAction());
+
+    JsonNode delta = StateDeltaJson.serializeDelta(wrap(before), wrap(after)).get();
+    assertEquals(0, delta.get("tiles").size());
+    assertEquals(0, delta.get("moved").size());
+
+    ObjectNode stateJson = (ObjectNode) StateJson.serializePublicState(wrap(before));
+    StateDeltaJson.applyDelta(stateJson, delta);
+    assertEquals(StateJson.serializePublicState(wrap(after)), stateJson);
+  }
+
+  @Test
+  public void testOrderOfUnknownPlayerIsRejected() throws Exception {
+    State state = TestReferee.getStateNormalGame();
+    ObjectNode stateJson = (ObjectNode) StateJson.serializePublicState(wrap(state));
+    JsonNode delta = JsonUtils.getMapper().readTree(
+        "{\"tiles\": [], \"order\": [99], \"moved\": [], \"spare\": {}, \"last\": null}");
+
+    assertThrows(IllegalArgumentException.class, () -> StateDeltaJson.applyDelta(stateJson, delta));
+  }
+
+  @Test
+  public void testDeltaOffTheBoardIsRejected() throws Exception {
+    State state = TestReferee.getStateNormalGame();
+    ObjectNode stateJson = (ObjectNode) StateJson.serializePublicState(wrap(state));
+    JsonNode delta = JsonUtils.getMapper().readTree("{\"tiles\": [[0, 99, \"┼\", [\"ruby\", \"zircon\"]]],"
+        + " \"order\": [], \"moved\": [], \"spare\": {}, \"last\": null}");
+
+    assertThrows(IllegalArgumentException.class, () -> StateDeltaJson.applyDelta(stateJson, delta));
+  }
+}
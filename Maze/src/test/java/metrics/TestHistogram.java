@@ -0,0 +1,82 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class TestHistogram {
+
+  @Test
+  public void testBucketsBoundTheRelativeError() {
+    Random random = new Random(3);
+    for (int i = 0; i < 100000; i++) {
+      long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+      long highest = Histogram.highestValueOf(Histogram.bucketOf(value));
+      assertTrue(highest >= value);
+      assertTrue(highest - value <= value / 128, value + " is counted up to " + highest);
+    }
+    assertEquals(127, Histogram.highestValueOf(Histogram.bucketOf(127)));
+    assertEquals(Long.MAX_VALUE, Histogram.highestValueOf(Histogram.bucketOf(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void testPercentiles() {
+    Histogram histogram = new Histogram();
+    for (long value = 1; value <= 1000; value++) {
+      histogram.record(value * 1000);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1000, histogram.getMin());
+    assertEquals(1000000, histogram.getMax());
+    assertEquals(500500, histogram.getMean(), 0.001);
+    assertWithinOnePercent(500000, histogram.getValueAtPercentile(50));
+    assertWithinOnePercent(990000, histogram.getValueAtPercentile(99));
+    assertEquals(1000000, histogram.getValueAtPercentile(100));
+    assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+  }
+
+  @Test
+  public void testEmptyHistogram() {
+    Histogram histogram = new Histogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getMean());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    HistogramMetrics metrics = new HistogramMetrics();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(() -> {
+        for (int value = 0; value < 10000; value++) {
+          metrics.record("timer", value);
+          metrics.increment("counter");
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(40000, metrics.getTimers().get("timer").getCount());
+    assertEquals(9999, metrics.getTimers().get("timer").getMax());
+    assertEquals(40000, (long) metrics.getCounters().get("counter"));
+  }
+
+  private static void assertWithinOnePercent(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected + expected / 100,
+        actual + " is not within 1% above " + expected);
+  }
+}
@@ -0,0 +1,123 @@
+package model.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import util.Direction;
+import util.Posn;
+import util.Tuple;
+import util.Util;
+
+public class TestBitBoard {
+
+  private static final int[][] SIZES = {{7, 7}, {8, 8}, {3, 5}, {8, 3}, {1, 1}};
+
+  @Test
+  public void testFits() {
+    assertTrue(BitBoard.fits(7, 7));
+    assertTrue(BitBoard.fits(8, 8));
+    assertTrue(BitBoard.fits(64, 1));
+    assertFalse(BitBoard.fits(9, 8));
+    assertFalse(BitBoard.fits(0, 3));
+  }
+
+  @Test
+  public void testReachabilityMatchesBreadthFirstSearch() {
+    for (int[] size : SIZES) {
+      for (int seed = 0; seed < 5; seed++) {
+        Board board = Util.generateRandomBoardAndSpare(size[0], size[1], seed).getFirst();
+        BitBoard bits = BitBoard.of(board);
+        for (int row = 0; row < size[1]; row++) {
+          for (int col = 0; col < size[0]; col++) {
+            Posn start = new Posn(col, row);
+            assertEquals(reachableByBreadthFirstSearch(board, start), bits.reachableFrom(start));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSlideMatchesBoardSlide() {
+    for (int[] size : SIZES) {
+      for (int seed = 0; seed < 5; seed++) {
+        Tuple<Board, Tile> boardAndSpare = Util.generateRandomBoardAndSpare(size[0], size[1], seed);
+        Board board = boardAndSpare.getFirst();
+        Tile spare = boardAndSpare.getSecond();
+
+        for (int row : board.getMovableRowIndices()) {
+          for (Direction dir : new Direction[] {Direction.LEFT, Direction.RIGHT}) {
+            assertSlideMatches(board, spare, new Posn(0, row), row, dir);
+          }
+        }
+        for (int col : board.getMovableColIndices()) {
+          for (Direction dir : new Direction[] {Direction.UP, Direction.DOWN}) {
+            assertSlideMatches(board, spare, new Posn(col, 0), col, dir);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCanReach() {
+    Board board = Util.generateRandomBoardAndSpare(7, 7, 1).getFirst();
+    BitBoard bits = BitBoard.of(board);
+    Posn start = new Posn(3, 3);
+
+    assertTrue(bits.canReach(start, start));
+    assertFalse(bits.canReach(start, new Posn(7, 3)));
+    assertFalse(bits.canReach(start, new Posn(-1, 0)));
+    assertEquals(board.findAllAccessibleTiles(start).size(), Long.bitCount(bits.reachableFrom(start)));
+  }
+
+  @Test
+  public void testRotateCounterClockwise() {
+    Tile tile = new BasicTile(EnumSet.of(Direction.UP, Direction.RIGHT),
+        Arrays.asList(Gem.AMETHYST, Gem.BERYL));
+    for (int n = 0; n < 6; n++) {
+      Tile rotated = tile.getCopy();
+      rotated.rotateCounterClockwiseNTimes(n);
+      assertEquals(BitBoard.maskOf(rotated), BitBoard.rotateCounterClockwise(BitBoard.maskOf(tile), n));
+    }
+  }
+
+  private static void assertSlideMatches(Board board, Tile spare, Posn slidePos, int index,
+      Direction dir) {
+    Board slidBoard = board.getCopy();
+    slidBoard.slideSafely(slidePos, dir, spare.getCopy());
+    assertEquals(BitBoard.of(slidBoard),
+        BitBoard.of(board).slide(index, dir, BitBoard.maskOf(spare)));
+  }
+
+  // Reference flood fill over the tiles of the board
+  private static long reachableByBreadthFirstSearch(Board board, Posn start) {
+    int width = board.getBoardWidth();
+    long reached = 1L << ((start.getY() * width) + start.getX());
+    Deque<Posn> queue = new ArrayDeque<>();
+    queue.add(start);
+    while (!queue.isEmpty()) {
+      Posn current = queue.remove();
+      Tile tile = board.getTile(current).get();
+      for (Direction dir : tile.getTileDirections()) {
+        Posn next = Direction.offsetPosnWithDirection(dir, current, 1);
+        Optional<Tile> neighbor = board.getTile(next);
+        Direction back = Direction.getNClockwiseRotations(dir, 2);
+        long bit = 1L << ((next.getY() * width) + next.getX());
+        if (neighbor.isPresent() && neighbor.get().getTileDirections().contains(back)
+            && (reached & bit) == 0) {
+          reached |= bit;
+          queue.add(next);
+        }
+      }
+    }
+    return reached;
+  }
+}
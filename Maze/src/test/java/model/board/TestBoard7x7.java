@@ -14,6 +14,8 @@ import java.util.Set;
 import org.junit.jupiter.api.Test;
 import util.Direction;
 import util.Posn;
+import util.Tuple;
+import util.Util;
 
 public class TestBoard7x7 {
 
@@ -108,6 +110,62 @@ public class TestBoard7x7 {
     assertFalse(board2.isBoardBuilt());
   }
 
+  @Test
+  public void testCopyIsEqualAndBuiltAfterSlides() {
+    Tuple<Board, Tile> boardAndSpare = Util.generateRandomBoardAndSpare(7, 9, 3);
+    Board board = boardAndSpare.getFirst();
+    Tile spare = boardAndSpare.getSecond();
+    spare = board.slideSafely(new Posn(0, 2), Direction.LEFT, spare);
+    spare = board.slideSafely(new Posn(6, 0), Direction.DOWN, spare);
+    spare = board.slideSafely(new Posn(0, 8), Direction.RIGHT, spare);
+
+    Board copy = board.getCopy();
+    assertEquals(board, copy);
+    assertTrue(copy.isBoardBuilt());
+    assertTrue(copy.canSlide(new Posn(2, 0), Direction.UP));
+
+    copy.slideSafely(new Posn(2, 0), Direction.UP, spare);
+    assertTrue(copy.isBoardBuilt());
+    assertFalse(board.equals(copy));
+
+    // a partially built board is copied as such, with the same gems already placed
+    Board partial = new Board7x7();
+    partial.placeTileSafely(new Posn(0, 0),
+        new BasicTile(EnumSet.of(Direction.UP), Arrays.asList(Gem.AMETRINE, Gem.AMMOLITE)));
+    Board partialCopy = partial.getCopy();
+    assertEquals(partial, partialCopy);
+    assertFalse(partialCopy.isBoardBuilt());
+    assertFalse(partialCopy.placeTileSafely(new Posn(1, 0),
+        new BasicTile(EnumSet.of(Direction.UP), Arrays.asList(Gem.AMMOLITE, Gem.AMETRINE))));
+  }
+
+  @Test
+  public void testAccessibleTilesFollowSlidesAndPlacements() {
+    Board searched = Util.generateRandomBoardAndSpare(7, 7, 5).getFirst();
+    Board fresh = Util.generateRandomBoardAndSpare(7, 7, 5).getFirst();
+    Tile spare = Util.generateRandomBoardAndSpare(7, 7, 5).getSecond();
+    searched.findAllAccessibleTiles(new Posn(3, 3));
+
+    searched.slideSafely(new Posn(0, 4), Direction.RIGHT, spare.getCopy());
+    fresh.slideSafely(new Posn(0, 4), Direction.RIGHT, spare.getCopy());
+    Board copy = searched.getCopy();
+    for (int row = 0; row < 7; row++) {
+      for (int col = 0; col < 7; col++) {
+        Posn pos = new Posn(col, row);
+        assertEquals(fresh.findAllAccessibleTiles(pos), searched.findAllAccessibleTiles(pos));
+        assertEquals(fresh.findAllAccessibleTiles(pos), copy.findAllAccessibleTiles(pos));
+      }
+    }
+
+    Board partial = new Board7x7();
+    Tile left = new BasicTile(EnumSet.of(Direction.RIGHT), Arrays.asList(Gem.AMETRINE, Gem.AMMOLITE));
+    Tile right = new BasicTile(EnumSet.of(Direction.LEFT), Arrays.asList(Gem.APATITE, Gem.APLITE));
+    partial.placeTileSafely(new Posn(0, 0), left);
+    assertEquals(Set.of(left), partial.findAllAccessibleTiles(new Posn(0, 0)));
+    partial.placeTileSafely(new Posn(1, 0), right);
+    assertEquals(Set.of(left, right), partial.findAllAccessibleTiles(new Posn(0, 0)));
+  }
+
   @Test
   public void testSlideSafelyRight() {
     // one has posn that can't slide
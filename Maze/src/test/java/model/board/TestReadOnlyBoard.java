@@ -0,0 +1,89 @@
+package model.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import util.Direction;
+import util.Posn;
+import util.ScenarioGenerator;
+import util.Tuple;
+import util.Util;
+
+public class TestReadOnlyBoard {
+
+  private static Tuple<Board, Tile> boardAndSpare() {
+    return Util.generateRandomBoardAndSpare(7, 7, 3);
+  }
+
+  @Test
+  public void testQueriesMatchViewedBoard() {
+    Board board = boardAndSpare().getFirst();
+    Board view = ReadOnlyBoard.of(board);
+
+    assertEquals(board.getBoardWidth(), view.getBoardWidth());
+    assertTrue(view.isBoardBuilt());
+    for (int row = 0; row < 7; row++) {
+      for (int col = 0; col < 7; col++) {
+        Posn pos = new Posn(col, row);
+        Tile tile = view.getTile(pos).get();
+        assertEquals(board.getTile(pos).get(), tile);
+        assertEquals(pos, view.getPosOfTile(tile));
+        assertEquals(board.findAllAccessibleTiles(pos), view.findAllAccessibleTiles(pos));
+      }
+    }
+    assertSame(view, ReadOnlyBoard.of(view));
+  }
+
+  @Test
+  public void testViewCannotBeChanged() {
+    Tuple<Board, Tile> boardAndSpare = boardAndSpare();
+    Board view = ReadOnlyBoard.of(boardAndSpare.getFirst());
+    Tile spare = ReadOnlyTile.of(boardAndSpare.getSecond());
+
+    assertThrows(UnsupportedOperationException.class,
+        () -> view.slideSafely(new Posn(0, 0), Direction.LEFT, boardAndSpare.getSecond()));
+    assertThrows(UnsupportedOperationException.class,
+        () -> view.getTile(new Posn(1, 1)).get().rotateCounterClockwiseNTimes(1));
+    assertThrows(UnsupportedOperationException.class, () -> spare.rotateCounterClockwiseNTimes(1));
+    assertThrows(UnsupportedOperationException.class, () -> spare.getGems().clear());
+  }
+
+  @Test
+  public void testCopyIsMutable() {
+    Tuple<Board, Tile> boardAndSpare = boardAndSpare();
+    Board board = boardAndSpare.getFirst();
+    Tile before = board.getTile(new Posn(0, 0)).get().getCopy();
+
+    Board copy = ReadOnlyBoard.of(board).getCopy();
+    copy.slideSafely(new Posn(0, 0), Direction.LEFT, boardAndSpare.getSecond());
+
+    assertEquals(before, board.getTile(new Posn(0, 0)).get());
+    assertEquals(boardAndSpare.getSecond(), copy.getTile(new Posn(6, 0)).get());
+  }
+
+  @Test
+  public void testPlayersSeeTheBoardOfTheState() {
+    State state = new ScenarioGenerator(7, 7).generate(5, 2);
+    PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+
+    Board before = state.getBoard();
+    assertEquals(before, wrapper.getBoard());
+    assertEquals(before, wrapper.getBoard().getCopy());
+    assertEquals(state.getSpareTile(), wrapper.getSpare());
+    assertThrows(UnsupportedOperationException.class,
+        () -> wrapper.getBoard().slideSafely(new Posn(0, 0), Direction.LEFT, state.getSpareTile()));
+    assertThrows(UnsupportedOperationException.class,
+        () -> wrapper.getSpare().rotateCounterClockwiseNTimes(1));
+    Board slid = wrapper.getBoard().getCopy();
+    slid.slideSafely(new Posn(0, 0), Direction.LEFT, state.getSpareTile());
+    assertNotEquals(before, slid);
+    assertEquals(before, state.getBoard());
+    assertEquals(before, wrapper.getBoard());
+  }
+}
@@ -0,0 +1,85 @@
+package model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import model.state.Action;
+import model.state.PassAction;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import util.Posn;
+
+public class TestMemoizedStrategy {
+
+  // Counts how many times the strategy actually had to compute a decision
+  private static class CountingStrategy implements Strategy {
+    private int calls = 0;
+
+    @Override
+    public Action makeAction(PlayerStateWrapper state, Posn target) {
+      calls++;
+      return new PassAction();
+    }
+  }
+
+  @Test
+  public void testSameDecisionIsOnlyComputedOnce() {
+    CountingStrategy counting = new CountingStrategy();
+    Strategy memoized = new MemoizedStrategy(counting);
+    State state = TestAbstractBasicStrategy.buildState();
+
+    Action first = memoized.makeAction(new PlayerStateWrapper(state, state.whichPlayerTurn()), new Posn(1, 1));
+    Action second = memoized.makeAction(new PlayerStateWrapper(state, state.whichPlayerTurn()), new Posn(1, 1));
+
+    assertSame(first, second);
+    assertEquals(1, counting.calls);
+  }
+
+  @Test
+  public void testDifferentTargetOrStateIsRecomputed() {
+    CountingStrategy counting = new CountingStrategy();
+    Strategy memoized = new MemoizedStrategy(counting);
+    State state = TestAbstractBasicStrategy.buildState();
+
+    memoized.makeAction(new PlayerStateWrapper(state, state.whichPlayerTurn()), new Posn(1, 1));
+    memoized.makeAction(new PlayerStateWrapper(state, state.whichPlayerTurn()), new Posn(3, 1));
+    assertEquals(2, counting.calls);
+
+    State nextPlayer = state.kickCurrentPlayer();
+    memoized.makeAction(new PlayerStateWrapper(nextPlayer, nextPlayer.whichPlayerTurn()), new Posn(1, 1));
+    assertEquals(3, counting.calls);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedDecisionIsEvicted() {
+    CountingStrategy counting = new CountingStrategy();
+    Strategy memoized = new MemoizedStrategy(counting, 2);
+    State state = TestAbstractBasicStrategy.buildState();
+    PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+
+    memoized.makeAction(wrapper, new Posn(1, 1));
+    memoized.makeAction(wrapper, new Posn(3, 1));
+    memoized.makeAction(wrapper, new Posn(1, 1)); // hit, (3, 1) is now the eldest
+    memoized.makeAction(wrapper, new Posn(5, 1)); // evicts (3, 1)
+    assertEquals(3, counting.calls);
+
+    memoized.makeAction(wrapper, new Posn(1, 1));
+    assertEquals(3, counting.calls);
+    memoized.makeAction(wrapper, new Posn(3, 1));
+    assertEquals(4, counting.calls);
+  }
+
+  @Test
+  public void testMemoizedDecisionMatchesStrategy() {
+    State state = TestAbstractBasicStrategy.buildState();
+    Strategy memoized = new MemoizedStrategy(new EuclidStrategy());
+    PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+
+    Action expected = new EuclidStrategy().makeAction(wrapper, new Posn(0, 1));
+    Action actual = memoized.makeAction(wrapper, new Posn(0, 1));
+
+    assertEquals(expected.getPlannedBoardMove(), actual.getPlannedBoardMove());
+    assertSame(actual, memoized.makeAction(wrapper, new Posn(0, 1)));
+  }
+}
@@ -0,0 +1,114 @@
+package model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import model.board.BasicTile;
+import model.board.Board;
+import model.board.Board7x7;
+import model.board.Gem;
+import model.board.Tile;
+import model.state.Action;
+import model.state.BasicTurnAction;
+import model.state.MazeState;
+import model.state.PassAction;
+import model.state.PlayerData;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import util.Direction;
+import util.Posn;
+import util.Tuple;
+import util.Util;
+
+public class TestMooreStrategy {
+
+  @Test
+  public void testMakeActionReachesTarget() {
+    State state = TestAbstractBasicStrategy.buildState();
+    Action action = new MooreStrategy().makeAction(new PlayerStateWrapper(state, state.whichPlayerTurn()), new Posn(0, 1));
+
+    Optional<Tuple<Integer, Direction>> plannedActionMove = action.getPlannedBoardMove();
+    assertTrue(plannedActionMove.isPresent());
+    assertEquals(0, (int) plannedActionMove.get().getFirst());
+    assertEquals(Direction.RIGHT, plannedActionMove.get().getSecond());
+
+    assertTrue(action instanceof BasicTurnAction);
+    assertEquals(new Posn(0, 1), ((BasicTurnAction) action).getTargetPos());
+  }
+
+  @Test
+  public void testMakeActionOnlyReachableColumn() {
+    // every tile is │ and the spare is ─, so the player at (1, 1) can only walk up and down its
+    // own column and the target in column 3 is never reachable. The closest cells by walking
+    // distance and by euclidean distance are (1, 0) and (1, 2), the first slide option wins.
+    Board board = new Board7x7();
+    for (int row = 0; row < board.getBoardHeight(); row++) {
+      for (int col = 0; col < board.getBoardWidth(); col++) {
+        int gemIndex = Gem.values().length - (1 + (row * board.getBoardHeight()) + col);
+        board.placeTileSafely(new Posn(col, row), new BasicTile(EnumSet.of(Direction.UP, Direction.DOWN),
+            Arrays.asList(Gem.values()[gemIndex], Gem.values()[gemIndex - 1])));
+      }
+    }
+    Tile spare = new BasicTile(EnumSet.of(Direction.LEFT, Direction.RIGHT),
+        Arrays.asList(Gem.PERIDOT, Gem.LAPIS_LAZULI));
+    List<PlayerData> players = new ArrayList<>(List.of(
+        new PlayerData(Color.red, new Posn(1, 1), new Posn(1, 1), 0, false)));
+    State state = new MazeState(board, players, spare, Optional.empty(), new ArrayList<>());
+
+    Action action = new MooreStrategy().makeAction(new PlayerStateWrapper(state, state.whichPlayerTurn()), new Posn(3, 1));
+
+    assertEquals(Optional.of(new Tuple<>(0, Direction.LEFT)), action.getPlannedBoardMove());
+    assertEquals(new Posn(1, 0), ((BasicTurnAction) action).getTargetPos());
+  }
+
+  @Test
+  public void testMakeActionIsAlwaysValid() {
+    Strategy moore = new MooreStrategy();
+    for (int seed = 0; seed < 10; seed++) {
+      State state = buildRandomState(seed);
+      PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+      for (Posn target : Util.getAllUnMovableLocations(state.getBoard())) {
+        Action action = moore.makeAction(wrapper, target);
+        assertTrue(action instanceof PassAction || state.canApplyAction(action));
+      }
+    }
+  }
+
+  @Test
+  public void testSameChoiceAsEuclidWhenTargetIsReachable() {
+    // Both strategies try the target first in the same slide order, so whenever the target can
+    // be reached they must agree on how to reach it.
+    Strategy moore = new MooreStrategy();
+    Strategy euclid = new EuclidStrategy();
+    for (int seed = 0; seed < 10; seed++) {
+      State state = buildRandomState(seed);
+      PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+      for (Posn target : Util.getAllUnMovableLocations(state.getBoard())) {
+        Action euclidAction = euclid.makeAction(wrapper, target);
+        if (euclidAction instanceof BasicTurnAction
+            && ((BasicTurnAction) euclidAction).getTargetPos().equals(target)) {
+          Action mooreAction = moore.makeAction(wrapper, target);
+          assertEquals(euclidAction.getPlannedBoardMove(), mooreAction.getPlannedBoardMove());
+          assertEquals(((BasicTurnAction) euclidAction).getRotateAmt(), ((BasicTurnAction) mooreAction).getRotateAmt());
+          assertEquals(target, ((BasicTurnAction) mooreAction).getTargetPos());
+        }
+      }
+    }
+  }
+
+  private static State buildRandomState(int seed) {
+    Tuple<Board, Tile> boardAndSpare = Util.generateRandomBoardAndSpare(7, 7, seed);
+    List<PlayerData> players = new ArrayList<>(List.of(
+        new PlayerData(Color.red, new Posn(1, 1), new Posn(1, 1), 0, false),
+        new PlayerData(Color.blue, new Posn(5, 3), new Posn(5, 3), 0, false)));
+    return new MazeState(boardAndSpare.getFirst(), players, boardAndSpare.getSecond(),
+        Optional.empty(), new ArrayList<>());
+  }
+}
@@ -0,0 +1,69 @@
+package model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import model.board.Board;
+import model.board.Tile;
+import model.state.Action;
+import model.state.BasicTurnAction;
+import model.state.MazeState;
+import model.state.PassAction;
+import model.state.PlayerData;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import util.Posn;
+import util.Tuple;
+import util.Util;
+
+public class TestStrategyContext {
+
+  @Test
+  public void testUnchangedBoardReusesAnalysis() {
+    State state = buildRandomState(3);
+    StrategyContext context = new StrategyContext();
+
+    TileGrid first = context.gridOf(new PlayerStateWrapper(state, state.whichPlayerTurn()));
+    State passed = state.applyActionWithoutChecking(new PassAction());
+    TileGrid second = context.gridOf(new PlayerStateWrapper(passed, passed.whichPlayerTurn()));
+
+    assertSame(first, second);
+  }
+
+  @Test
+  public void testUpdatedAnalysisMatchesFreshAnalysis() {
+    State state = buildRandomState(7);
+    StrategyContext context = new StrategyContext();
+    Strategy moore = new MooreStrategy();
+
+    for (int turn = 0; turn < 12 && !state.isGameOver(); turn++) {
+      PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+      assertEquals(TileGrid.of(state.getBoard()), context.gridOf(wrapper));
+
+      Posn target = turn % 2 == 0 ? new Posn(5, 5) : new Posn(1, 5);
+      Action fresh = moore.makeAction(wrapper, target);
+      Action reused = moore.makeAction(wrapper, target, context);
+      assertEquals(fresh.getPlannedBoardMove(), reused.getPlannedBoardMove());
+      if (fresh instanceof BasicTurnAction) {
+        assertEquals(((BasicTurnAction) fresh).getRotateAmt(), ((BasicTurnAction) reused).getRotateAmt());
+        assertEquals(((BasicTurnAction) fresh).getTargetPos(), ((BasicTurnAction) reused).getTargetPos());
+      }
+
+      state = state.applyActionWithoutChecking(reused);
+    }
+  }
+
+  private static State buildRandomState(int seed) {
+    Tuple<Board, Tile> boardAndSpare = Util.generateRandomBoardAndSpare(7, 7, seed);
+    List<PlayerData> players = new ArrayList<>(List.of(
+        new PlayerData(Color.red, new Posn(1, 1), new Posn(1, 1), 0, false),
+        new PlayerData(Color.blue, new Posn(5, 3), new Posn(5, 3), 0, false)));
+    return new MazeState(boardAndSpare.getFirst(), players, boardAndSpare.getSecond(),
+        Optional.empty(), new ArrayList<>());
+  }
+}
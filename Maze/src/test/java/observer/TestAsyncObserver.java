@@ -0,0 +1,164 @@
+package observer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import model.state.State;
+import observer.AsyncObserver.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+public class TestAsyncObserver {
+
+  // Records its notifications, the first state blocks until the gate is opened
+  private static class GatedObserver implements Observer {
+    private final List<State> received = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private volatile boolean gameOverLast;
+
+    @Override
+    public void notifyStateChange(State state) {
+      received.add(state);
+      entered.countDown();
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void notifyGameOver() {
+      gameOverLast = true;
+    }
+  }
+
+  private static List<State> states(int n) {
+    List<State> states = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      states.add(mock(State.class));
+    }
+    return states;
+  }
+
+  // Sends the first state, waits until the observer is stuck in it and then sends the rest
+  private static AsyncObserver sendWhileObserverIsStuck(GatedObserver observer,
+      OverflowPolicy policy, List<State> states) throws InterruptedException {
+    AsyncObserver async = new AsyncObserver(observer, 2, policy);
+    async.notifyStateChange(states.get(0));
+    assertTrue(observer.entered.await(5, TimeUnit.SECONDS));
+    for (State state : states.subList(1, states.size())) {
+      async.notifyStateChange(state);
+    }
+    async.notifyGameOver();
+    return async;
+  }
+
+  @Test
+  public void testBlockDeliversEveryStateInOrder() throws InterruptedException {
+    GatedObserver observer = new GatedObserver();
+    observer.gate.countDown();
+    AsyncObserver async = new AsyncObserver(observer, 1, OverflowPolicy.BLOCK);
+    List<State> states = states(20);
+
+    for (State state : states) {
+      async.notifyStateChange(state);
+    }
+    async.notifyGameOver();
+    async.notifyStateChange(mock(State.class));
+
+    assertTrue(async.awaitGameOver(5, TimeUnit.SECONDS));
+    assertEquals(states, observer.received);
+    assertTrue(observer.gameOverLast);
+    assertEquals(0, async.getDropped());
+  }
+
+  @Test
+  public void testDropOldestDoesNotStallTheGame() throws InterruptedException {
+    GatedObserver observer = new GatedObserver();
+    List<State> states = states(10);
+    AsyncObserver async = sendWhileObserverIsStuck(observer, OverflowPolicy.DROP_OLDEST, states);
+
+    observer.gate.countDown();
+    assertTrue(async.awaitGameOver(5, TimeUnit.SECONDS));
+    assertEquals(List.of(states.get(0), states.get(8), states.get(9)), observer.received);
+    assertEquals(7, async.getDropped());
+    assertTrue(observer.gameOverLast);
+  }
+
+  @Test
+  public void testCoalesceDeliversLatestState() throws InterruptedException {
+    GatedObserver observer = new GatedObserver();
+    List<State> states = states(10);
+    AsyncObserver async = sendWhileObserverIsStuck(observer, OverflowPolicy.COALESCE, states);
+
+    observer.gate.countDown();
+    assertTrue(async.awaitGameOver(5, TimeUnit.SECONDS));
+    assertEquals(states.get(9), observer.received.get(observer.received.size() - 1));
+    assertEquals(states.size(), observer.received.size() + async.getDropped());
+    assertTrue(observer.gameOverLast);
+  }
+
+  @Test
+  public void testCapacityMustBePositive() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new AsyncObserver(new GatedObserver(), 0, OverflowPolicy.BLOCK));
+  }
+
+  @Test
+  public void testBlockGoesOnWhenTheDeliveryThreadDies() throws InterruptedException {
+    Observer failing = new Observer() {
+      @Override
+      public void notifyStateChange(State state) {
+        throw new AssertionError("observer failed");
+      }
+
+      @Override
+      public void notifyGameOver() {
+      }
+    };
+    AsyncObserver async = new AsyncObserver(failing, 1, OverflowPolicy.BLOCK);
+    List<State> states = states(20);
+
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+      for (State state : states) {
+        async.notifyStateChange(state);
+      }
+      async.notifyGameOver();
+    });
+    assertFalse(async.awaitGameOver(5, TimeUnit.SECONDS));
+    assertTrue(async.getDropped() >= states.size() - 1);
+  }
+
+  @Test
+  public void testCloseReleasesABlockedGame() throws InterruptedException {
+    GatedObserver observer = new GatedObserver();
+    AsyncObserver async = new AsyncObserver(observer, 1, OverflowPolicy.BLOCK);
+    List<State> states = states(3);
+    async.notifyStateChange(states.get(0));
+    assertTrue(observer.entered.await(5, TimeUnit.SECONDS));
+    async.notifyStateChange(states.get(1));
+
+    Thread game = new Thread(() -> async.notifyStateChange(states.get(2)));
+    game.start();
+    game.join(200);
+    assertTrue(game.isAlive());
+
+    async.close();
+    game.join(5000);
+    assertFalse(game.isAlive());
+    assertEquals(List.of(states.get(0)), observer.received);
+    assertEquals(2, async.getDropped());
+    assertFalse(async.awaitGameOver(5, TimeUnit.SECONDS));
+  }
+}
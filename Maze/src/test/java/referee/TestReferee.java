@@ -417,6 +417,30 @@ public class TestReferee {
     assertEquals("Never Goes Home Riemann 1", winners.get(0).name());
   }
 
+  @Test
+  public void testRepeatedPositionEndsStalledGame() {
+    GameResult stalled = runGameWithRepetitionLimit(getStateNoPlayerGetsToGoal(), 0);
+    GameResult cutOff = runGameWithRepetitionLimit(getStateNoPlayerGetsToGoal(), 3);
+
+    assertEquals(GameResult.EndReason.MAX_ROUNDS, stalled.getEndReason());
+    assertEquals(GameResult.EndReason.REPEATED_POSITION, cutOff.getEndReason());
+    assertTrue(cutOff.getRounds() < stalled.getRounds());
+    assertEquals(1, cutOff.getWinners().size());
+    assertEquals(stalled.getWinners().get(0).name(), cutOff.getWinners().get(0).name());
+  }
+
+  private static GameResult runGameWithRepetitionLimit(State initial, int repetitionLimit) {
+    List<Player> players = initial.getPlayers()
+        .stream()
+        .map((x) -> x.getPlayerAPI().get().getPlayer())
+        .collect(Collectors.toList());
+    Referee referee = new Referee(initial);
+    if (repetitionLimit > 0) {
+      referee.setRepetitionLimit(repetitionLimit);
+    }
+    return referee.runGame(players);
+  }
+
   @Test
   public void testRunFullGameNoWinners() {
     State initial = getStateNoWinners();
@@ -0,0 +1,101 @@
+package referee;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import model.board.Board;
+import model.state.Action;
+import model.state.PlayerStateWrapper;
+import org.junit.jupiter.api.Test;
+import util.Posn;
+
+public class TestSafePlayer {
+
+  // Remembers the thread of its last call, setup never returns and win throws
+  private static class ThreadRecordingPlayer implements Player {
+    private volatile Thread lastThread;
+
+    @Override
+    public String name() {
+      lastThread = Thread.currentThread();
+      return "recorder";
+    }
+
+    @Override
+    public Board proposeBoard0(int rows, int columns) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object setup(Optional<PlayerStateWrapper> state0, Posn goal) {
+      lastThread = Thread.currentThread();
+      while (true) {
+        // never returns
+      }
+    }
+
+    @Override
+    public Action takeTurn(PlayerStateWrapper s) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object win(Boolean won) {
+      lastThread = Thread.currentThread();
+      throw new IllegalStateException("bad win");
+    }
+  }
+
+  @Test
+  public void testCallsShareOneThread() {
+    ThreadRecordingPlayer player = new ThreadRecordingPlayer();
+    SafePlayer safePlayer = new SafePlayer(player);
+
+    assertEquals(Optional.of("recorder"), safePlayer.name());
+    Thread first = player.lastThread;
+    assertEquals(Optional.of("recorder"), safePlayer.name());
+    assertSame(first, player.lastThread);
+    assertTrue(first.isDaemon());
+    safePlayer.shutdown();
+  }
+
+  @Test
+  public void testExceptionKeepsThread() {
+    ThreadRecordingPlayer player = new ThreadRecordingPlayer();
+    SafePlayer safePlayer = new SafePlayer(player);
+
+    safePlayer.name();
+    Thread first = player.lastThread;
+    assertEquals(Optional.empty(), safePlayer.win(true));
+    assertSame(first, player.lastThread);
+    safePlayer.shutdown();
+  }
+
+  @Test
+  public void testTimeoutReplacesThread() {
+    ThreadRecordingPlayer player = new ThreadRecordingPlayer();
+    SafePlayer safePlayer = new SafePlayer(player);
+
+    assertEquals(Optional.empty(), safePlayer.setup(Optional.empty(), new Posn(1, 1)));
+    Thread stuck = player.lastThread;
+    assertEquals(Optional.of("recorder"), safePlayer.name());
+    assertNotSame(stuck, player.lastThread);
+    safePlayer.shutdown();
+  }
+
+  @Test
+  public void testShutdownReleasesThread() throws InterruptedException {
+    ThreadRecordingPlayer player = new ThreadRecordingPlayer();
+    SafePlayer safePlayer = new SafePlayer(player);
+
+    safePlayer.name();
+    Thread lane = player.lastThread;
+    safePlayer.shutdown();
+    lane.join(1000);
+    assertFalse(lane.isAlive());
+  }
+}
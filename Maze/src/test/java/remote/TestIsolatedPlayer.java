@@ -0,0 +1,61 @@
+package remote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static referee.TestReferee.getStateNormalGame;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.Optional;
+import json.JsonUtils;
+import model.state.Action;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import model.strategy.EuclidStrategy;
+import org.junit.jupiter.api.Test;
+import referee.SafePlayer;
+import referee.StrategyPlayer;
+import util.Posn;
+
+public class TestIsolatedPlayer {
+
+  private static JsonNode spec(String json) throws IOException {
+    return JsonUtils.getMapper().readTree(json);
+  }
+
+  @Test
+  public void testIsolatedPlayerActsLikeLocalPlayer() throws IOException {
+    State state = getStateNormalGame();
+    PlayerStateWrapper wrapper = new PlayerStateWrapper(state, state.whichPlayerTurn());
+    Posn goal = new Posn(1, 1);
+
+    StrategyPlayer local = new StrategyPlayer("local", new EuclidStrategy());
+    local.setup(Optional.empty(), goal);
+    Action expected = local.takeTurn(wrapper);
+
+    try (IsolatedPlayer isolated = new IsolatedPlayer(spec("[\"isolated\", \"Euclid\"]"))) {
+      assertEquals("isolated", isolated.name());
+      assertEquals("void", isolated.setup(Optional.empty(), goal));
+      Action actual = isolated.takeTurn(wrapper);
+      assertEquals(expected.getPlannedBoardMove(), actual.getPlannedBoardMove());
+      assertEquals("void", isolated.win(true));
+    }
+  }
+
+  @Test
+  public void testTimedOutPlayerProcessIsKilled() throws IOException, InterruptedException {
+    State state = getStateNormalGame();
+    IsolatedPlayer isolated = new IsolatedPlayer(spec("[\"looper\", \"Euclid\", \"takeTurn\", 1]"));
+    SafePlayer safePlayer = new SafePlayer(isolated);
+
+    assertTrue(safePlayer.setup(Optional.empty(), new Posn(1, 1)).isPresent());
+    assertEquals(Optional.empty(),
+        safePlayer.takeTurn(new PlayerStateWrapper(state, state.whichPlayerTurn())));
+
+    Thread.sleep(500);
+    assertFalse(isolated.isAlive());
+    assertEquals(Optional.empty(), safePlayer.win(false));
+    safePlayer.shutdown();
+  }
+}
@@ -14,9 +14,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static referee.TestReferee.getStateNormalGame;
 
@@ -89,4 +92,55 @@ public class TestPlayer {
     }
   }
 
+  @Test
+  public void testResponsesBufferedTogetherAreAllRead() {
+    // the responses arrive at once, so the parser of the first one buffers all of them
+    InputStream responses = new ByteArrayInputStream("\"void\" \"PASS\"\n\"void\"".getBytes());
+    Player player = new Player(responses, new ByteArrayOutputStream(), "buffered");
+    PlayerStateWrapper state = new PlayerStateWrapper(getStateNormalGame(), getStateNormalGame().whichPlayerTurn());
+
+    assertEquals("void", player.setup(Optional.empty(), new Posn(1, 1)));
+    assertTrue(player.takeTurn(state) instanceof PassAction);
+    assertEquals("void", player.win(false));
+  }
+
+  @Test
+  public void testEachRequestIsWrittenAtOnce() throws Exception {
+    InputStream responses = new ByteArrayInputStream("\"void\" \"PASS\"\n\"void\"".getBytes());
+    AtomicInteger writes = new AtomicInteger();
+    AtomicInteger flushes = new AtomicInteger();
+    ByteArrayOutputStream sent = new ByteArrayOutputStream() {
+      @Override
+      public synchronized void write(byte[] bytes, int offset, int length) {
+        writes.incrementAndGet();
+        super.write(bytes, offset, length);
+      }
+
+      @Override
+      public void flush() {
+        flushes.incrementAndGet();
+      }
+    };
+    Player player = new Player(responses, sent, "buffered");
+    PlayerStateWrapper state = new PlayerStateWrapper(getStateNormalGame(), getStateNormalGame().whichPlayerTurn());
+
+    player.setup(Optional.of(state), new Posn(1, 1));
+    player.takeTurn(state);
+    player.win(true);
+    assertEquals(3, writes.get());
+    assertEquals(3, flushes.get());
+
+    ConnectionStats stats = player.getConnectionStats();
+    assertEquals(3, stats.getCalls());
+    assertEquals(sent.size(), stats.getBytesSent());
+    assertEquals("\"void\" \"PASS\"\n\"void\"".length(), stats.getBytesReceived());
+    assertTrue(stats.getRoundTripNanos() >= stats.getFirstByteNanos());
+
+    String[] requests = sent.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, requests.length);
+    assertTrue(requests[0].startsWith("[\"setup\",[{\"board\""));
+    assertTrue(requests[1].startsWith("[\"take-turn\",[{\"board\""));
+    assertEquals("[\"win\",[true]]", requests[2]);
+  }
+
 }
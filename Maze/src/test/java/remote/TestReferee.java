@@ -1,6 +1,9 @@
 package remote;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -12,10 +15,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import json.JsonUtils;
+import model.strategy.EuclidStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import referee.StrategyPlayer;
 
 public class TestReferee {
 
@@ -55,4 +60,25 @@ public class TestReferee {
     assertEquals("\"void\"", output);
   }
 
+  @Test
+  public void testRespondWithoutConnection() throws IOException {
+    Referee referee = new Referee(new StrategyPlayer("euclid", new EuclidStrategy()));
+
+    assertEquals(JsonNodeFactory.instance.textNode("void"),
+        referee.respond(JsonUtils.getMapper().readTree("[\"win\", [true]]")));
+    assertTrue(referee.isDone());
+  }
+
+  @Test
+  public void testRespondRejectsMalformedRequests() throws IOException {
+    Referee referee = new Referee(new StrategyPlayer("euclid", new EuclidStrategy()));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> referee.respond(JsonUtils.getMapper().readTree("\"win\"")));
+    assertThrows(IllegalArgumentException.class,
+        () -> referee.respond(JsonUtils.getMapper().readTree("[\"dance\", []]")));
+    assertThrows(IllegalArgumentException.class,
+        () -> referee.respond(JsonUtils.getMapper().readTree("[\"take-turn-delta\", [{}, null]]")));
+    assertFalse(referee.isDone());
+  }
 }
@@ -0,0 +1,175 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import client.Client;
+import client.ClientHost;
+import client.ClientSwarm;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import json.JsonUtils;
+import metrics.HistogramMetrics;
+import json.PlayerAPIJson.BadFM;
+import model.state.PlayerStateWrapper;
+import model.strategy.EuclidStrategy;
+import org.junit.jupiter.api.Test;
+import referee.BadPlayer;
+import referee.StrategyPlayer;
+import remote.ProtocolExtension;
+import util.Posn;
+
+public class TestLobbyServer {
+
+  private static void awaitTrue(BooleanSupplier condition, long timeoutMillis)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, "timed out");
+      Thread.sleep(10);
+    }
+  }
+
+  private static void connectPlayers(int port, int numPlayers) {
+    for (int i = 0; i < numPlayers; i++) {
+      new Client("localhost", port)
+          .connectClientAndPlayGame(new StrategyPlayer("P" + i, new EuclidStrategy()));
+    }
+  }
+
+  @Test
+  public void testPlayersBeyondAFullGameWaitForTheNextGame() throws IOException, InterruptedException {
+    try (LobbyServer lobby = new LobbyServer(0, 1, 60000)) {
+      lobby.start();
+      connectPlayers(lobby.getPort(), LobbyServer.MAX_PLAYERS_PER_GAME + 2);
+
+      // a full game starts right away, while the other two wait for more players or a free slot
+      awaitTrue(() -> lobby.getNumGamesFinished() + lobby.getNumActiveGames() == 1
+          && lobby.getNumWaitingPlayers() == 2, 30000);
+      awaitTrue(() -> lobby.getNumGamesFinished() == 1, 60000);
+      assertEquals(0, lobby.getNumActiveGames());
+      assertEquals(2, lobby.getNumWaitingPlayers());
+    }
+  }
+
+  @Test
+  public void testLobbyStartsGamesAfterWaiting() throws IOException, InterruptedException {
+    try (LobbyServer lobby = new LobbyServer(0, 4, 200)) {
+      lobby.start();
+      connectPlayers(lobby.getPort(), 3);
+      awaitTrue(() -> lobby.getNumGamesFinished() == 1, 60000);
+
+      connectPlayers(lobby.getPort(), 2);
+      awaitTrue(() -> lobby.getNumGamesFinished() == 2, 60000);
+      assertEquals(0, lobby.getNumActiveGames());
+      assertEquals(0, lobby.getNumWaitingPlayers());
+    }
+  }
+
+  @Test
+  public void testSwarmOfPlayersIsMeasured() throws Exception {
+    try (LobbyServer lobby = new LobbyServer(0, 2, 60000)) {
+      HistogramMetrics metrics = new HistogramMetrics();
+      lobby.recordMetricsTo(metrics);
+      lobby.start();
+      List<JsonNode> specs = List.of(
+          JsonUtils.getMapper().readTree("[\"e\", \"Euclid\"]"),
+          JsonUtils.getMapper().readTree("[\"r\", \"Riemann\"]"));
+      try (ClientSwarm swarm = new ClientSwarm("localhost", lobby.getPort(),
+          EnumSet.noneOf(ProtocolExtension.class), specs, 0, 0, 1)) {
+        swarm.launch(2 * LobbyServer.MAX_PLAYERS_PER_GAME, 1000);
+
+        awaitTrue(() -> lobby.getNumGamesFinished() == 2, 60000);
+        awaitTrue(() -> swarm.getNumFinished() == swarm.getNumLaunched(), 10000);
+        assertEquals(0, swarm.getNumMisbehaving());
+        assertEquals(swarm.getNumLaunched(), metrics.getTimers().get("signup.latency").getCount());
+        assertEquals(swarm.getNumLaunched(), metrics.getTimers().get("lobby.wait").getCount());
+        assertTrue(metrics.getTimers().get("player.takeTurn").getCount() > 0);
+        assertEquals(metrics.getTimers().get("player.takeTurn").getCount(),
+            metrics.getTimers().get("remote.takeTurn.roundTrip").getCount());
+        assertEquals(swarm.getNumLaunched(), metrics.getTimers().get("connection.calls").getCount());
+        assertEquals(2, metrics.getTimers().get("game.bytesSent").getCount());
+      }
+    }
+  }
+
+  @Test
+  public void testSwarmNeedsPlayerSpecs() {
+    assertThrows(IllegalArgumentException.class, () -> new ClientSwarm("localhost", 0,
+        EnumSet.noneOf(ProtocolExtension.class), List.of(JsonNodeFactory.instance.textNode("e")), 0, 0, 1));
+  }
+
+  @Test
+  public void testOneHostPlaysManyPlayersWithEveryFraming() throws IOException, InterruptedException {
+    List<Set<ProtocolExtension>> extensionSets = List.of(
+        EnumSet.noneOf(ProtocolExtension.class),
+        EnumSet.of(ProtocolExtension.DELTA_STATES, ProtocolExtension.BINARY_FRAMES));
+    try (LobbyServer lobby = new LobbyServer(0, 2, 60000);
+        ClientHost host = new ClientHost("localhost", lobby.getPort(), 1)) {
+      lobby.start();
+      host.start();
+      for (int game = 0; game < extensionSets.size(); game++) {
+        for (int i = 0; i < LobbyServer.MAX_PLAYERS_PER_GAME; i++) {
+          host.connect(new StrategyPlayer("P" + game + i, new EuclidStrategy()), extensionSets.get(game));
+        }
+      }
+
+      int numPlayers = extensionSets.size() * LobbyServer.MAX_PLAYERS_PER_GAME;
+      awaitTrue(() -> host.getNumFinished() == numPlayers, 60000);
+      awaitTrue(() -> lobby.getNumGamesFinished() == 2, 10000);
+      assertEquals(0, host.getNumConnected());
+    }
+  }
+
+  @Test
+  public void testHostDropsPlayersThatThrow() throws IOException, InterruptedException {
+    try (LobbyServer lobby = new LobbyServer(0, 1, 60000);
+        ClientHost host = new ClientHost("localhost", lobby.getPort(), 1)) {
+      lobby.start();
+      host.start();
+      host.connect(new BadPlayer("bad", new EuclidStrategy(), BadFM.setUp, 0), EnumSet.noneOf(ProtocolExtension.class));
+      for (int i = 1; i < LobbyServer.MAX_PLAYERS_PER_GAME; i++) {
+        host.connect(new StrategyPlayer("P" + i, new EuclidStrategy()), EnumSet.noneOf(ProtocolExtension.class));
+      }
+
+      awaitTrue(() -> lobby.getNumGamesFinished() == 1, 60000);
+      awaitTrue(() -> host.getNumConnected() == 0, 10000);
+      assertEquals(LobbyServer.MAX_PLAYERS_PER_GAME - 1, host.getNumFinished());
+    }
+  }
+
+  @Test
+  public void testHostDropsPlayersThatThrowErrors() throws IOException, InterruptedException {
+    try (LobbyServer lobby = new LobbyServer(0, 1, 60000);
+        ClientHost host = new ClientHost("localhost", lobby.getPort(), 1)) {
+      lobby.start();
+      host.start();
+      host.connect(new StrategyPlayer("bad", new EuclidStrategy()) {
+        @Override
+        public Object setup(Optional<PlayerStateWrapper> state0, Posn goal) {
+          throw new StackOverflowError();
+        }
+      }, EnumSet.noneOf(ProtocolExtension.class));
+      for (int i = 1; i < LobbyServer.MAX_PLAYERS_PER_GAME; i++) {
+        host.connect(new StrategyPlayer("P" + i, new EuclidStrategy()), EnumSet.noneOf(ProtocolExtension.class));
+      }
+
+      awaitTrue(() -> host.getNumConnected() == LobbyServer.MAX_PLAYERS_PER_GAME - 1, 2000);
+      awaitTrue(() -> lobby.getNumGamesFinished() == 1, 60000);
+      awaitTrue(() -> host.getNumConnected() == 0, 10000);
+      assertEquals(LobbyServer.MAX_PLAYERS_PER_GAME - 1, host.getNumFinished());
+    }
+  }
+
+  @Test
+  public void testLobbyNeedsGameSlots() {
+    assertThrows(IllegalArgumentException.class, () -> new LobbyServer(0, 0, 1000));
+  }
+}
@@ -0,0 +1,224 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import client.Client;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import json.BinaryJson;
+import model.state.Action;
+import model.state.PassAction;
+import model.state.PlayerData;
+import model.state.PlayerStateWrapper;
+import model.state.State;
+import org.junit.jupiter.api.Test;
+import referee.GameResult;
+import referee.Player;
+import referee.Referee;
+import referee.TestReferee;
+import remote.ProtocolExtension;
+import util.Posn;
+
+public class TestSignupFrontEnd {
+
+  private static Socket connect(SignupFrontEnd signup) throws IOException {
+    return new Socket("localhost", signup.getPort());
+  }
+
+  private static void sendName(Socket socket, String name) throws IOException {
+    PrintStream out = new PrintStream(socket.getOutputStream());
+    out.println("\"" + name + "\"");
+    out.flush();
+  }
+
+  private static List<String> names(List<Player> players) {
+    return players.stream().map(Player::name).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testSlowClientDoesNotDelayOthers() throws IOException {
+    try (SignupFrontEnd signup = new SignupFrontEnd(0, 60000)) {
+      List<Socket> clients = new ArrayList<>();
+      clients.add(connect(signup)); // never sends its name
+      for (String name : List.of("Ann", "Bob")) {
+        Socket client = connect(signup);
+        sendName(client, name);
+        clients.add(client);
+      }
+
+      long start = System.nanoTime();
+      List<Player> players = signup.signUp(2, 1000);
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+      // the names arrived behind a connection that stays silent, so they are only signed up at the
+      // end of the period rather than after the minute that connection has to send its name
+      assertEquals(List.of("Ann", "Bob"), names(players));
+      assertTrue(elapsedMillis < 10000);
+      assertEquals(3, signup.getNumAccepted());
+      for (Socket client : clients) {
+        client.close();
+      }
+    }
+  }
+
+  @Test
+  public void testPlayersSignUpInArrivalOrder() throws IOException {
+    try (SignupFrontEnd signup = new SignupFrontEnd(0, 5000)) {
+      Socket first = connect(signup);
+      Socket second = connect(signup);
+      Socket third = connect(signup);
+      // the names arrive in the reverse order of the connections
+      sendName(third, "Carl");
+      sendName(second, "Bob");
+      sendName(first, "Ann");
+
+      assertEquals(List.of("Ann", "Bob", "Carl"), names(signup.signUp(3, 5000)));
+      first.close();
+      second.close();
+      third.close();
+    }
+  }
+
+  @Test
+  public void testOverdueAndInvalidNamesAreDropped() throws IOException {
+    try (SignupFrontEnd signup = new SignupFrontEnd(0, 200)) {
+      Socket silent = connect(signup);
+      Socket invalid = connect(signup);
+      sendName(invalid, "not a valid name");
+      Socket notAString = connect(signup);
+      notAString.getOutputStream().write("[\"Ann\"]".getBytes());
+      Socket valid = connect(signup);
+      sendName(valid, "Dave");
+
+      // the silent connection is closed after 200ms, which lets the valid one sign up early
+      assertEquals(List.of("Dave"), names(signup.signUp(6, 3000)));
+      assertEquals(-1, silent.getInputStream().read());
+      assertEquals(-1, invalid.getInputStream().read());
+      silent.close();
+      invalid.close();
+      notAString.close();
+      valid.close();
+    }
+  }
+
+  @Test
+  public void testNameSentInPieces() throws IOException, InterruptedException {
+    try (SignupFrontEnd signup = new SignupFrontEnd(0, 5000)) {
+      Socket client = connect(signup);
+      client.getOutputStream().write("  \"Ev".getBytes());
+      client.getOutputStream().flush();
+      assertEquals(List.of(), names(signup.signUp(1, 200)));
+
+      client.getOutputStream().write("a\"\n".getBytes());
+      client.getOutputStream().flush();
+      assertEquals(List.of("Eva"), names(signup.signUp(1, 5000)));
+      client.close();
+    }
+  }
+
+  @Test
+  public void testDeltaStatesAreSentToClientsThatAskForThem() throws Exception {
+    try (SignupFrontEnd signup = new SignupFrontEnd(0, 5000)) {
+      Socket client = connect(signup);
+      PrintStream out = new PrintStream(client.getOutputStream());
+      out.println("{\"name\": \"Delta\", \"extensions\": [\"delta-states\", \"unknown\"]}");
+      out.flush();
+      Player player = signup.signUp(1, 5000).get(0);
+      assertEquals("Delta", player.name());
+
+      State state = TestReferee.getStateNormalGame();
+      State next = state.applyActionWithoutChecking(new PassAction());
+      BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+      ExecutorService server = Executors.newSingleThreadExecutor();
+      try {
+        Future<Object> setup = server.submit(() -> player.setup(
+            Optional.of(new PlayerStateWrapper(state, state.whichPlayerTurn())), new Posn(1, 1)));
+        assertTrue(in.readLine().startsWith("[\"setup\",[{"));
+        out.println("\"void\"");
+        out.flush();
+        setup.get();
+
+        Future<Action> turn = server.submit(() -> player.takeTurn(
+            new PlayerStateWrapper(next, next.whichPlayerTurn())));
+        assertTrue(in.readLine().startsWith("[\"take-turn-delta\",[{\"tiles\":[]"));
+        out.println("\"PASS\"");
+        out.flush();
+        assertTrue(turn.get() instanceof PassAction);
+      } finally {
+        server.shutdownNow();
+        client.close();
+      }
+    }
+  }
+
+  @Test
+  public void testClientsWithAndWithoutExtensionsPlayTheSameGame() throws IOException {
+    List<List<String>> results = new ArrayList<>();
+    for (Set<ProtocolExtension> extensions : List.of(EnumSet.noneOf(ProtocolExtension.class),
+        EnumSet.of(ProtocolExtension.DELTA_STATES), EnumSet.of(ProtocolExtension.BINARY_FRAMES),
+        EnumSet.allOf(ProtocolExtension.class))) {
+      try (SignupFrontEnd signup = new SignupFrontEnd(0, 5000)) {
+        State state = TestReferee.getStateNormalGame();
+        for (PlayerData player : state.getPlayers()) {
+          new Client("localhost", signup.getPort(), extensions)
+              .connectClientAndPlayGame(player.getPlayerAPI().get().getPlayer());
+        }
+        List<Player> players = signup.signUp(state.getPlayers().size(), 10000);
+        GameResult result = new Referee(state).runGame(players);
+        List<String> names = names(result.getWinners());
+        names.addAll(names(result.getKicked()));
+        names.add(Integer.toString(result.getRounds()));
+        results.add(names);
+      }
+    }
+    for (List<String> result : results) {
+      assertEquals(results.get(0), result);
+    }
+  }
+
+  @Test
+  public void testBinaryFramesAreSentToClientsThatAskForThem() throws Exception {
+    try (SignupFrontEnd signup = new SignupFrontEnd(0, 5000)) {
+      Socket client = connect(signup);
+      PrintStream out = new PrintStream(client.getOutputStream());
+      out.println("{\"name\": \"Binary\", \"extensions\": [\"binary-frames\"]}");
+      out.flush();
+      Player player = signup.signUp(1, 5000).get(0);
+
+      ExecutorService server = Executors.newSingleThreadExecutor();
+      try {
+        Future<Object> win = server.submit(() -> player.win(true));
+        DataInputStream in = new DataInputStream(client.getInputStream());
+        byte[] request = new byte[in.readInt()];
+        in.readFully(request);
+        assertEquals("[\"win\",[true]]", BinaryJson.decode(request).toString());
+
+        DataOutputStream response = new DataOutputStream(client.getOutputStream());
+        byte[] voidResponse = BinaryJson.encode(JsonNodeFactory.instance.textNode("void"));
+        response.writeInt(voidResponse.length);
+        response.write(voidResponse);
+        response.flush();
+        assertEquals("void", win.get());
+      } finally {
+        server.shutdownNow();
+        client.close();
+      }
+    }
+  }
+}
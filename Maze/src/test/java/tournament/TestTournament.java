@@ -0,0 +1,145 @@
+package tournament;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.function.Supplier;
+import json.PlayerAPIJson.BadFM;
+import metrics.HistogramMetrics;
+import model.strategy.EuclidStrategy;
+import model.strategy.RiemannStrategy;
+import org.junit.jupiter.api.Test;
+import referee.BadPlayer;
+import referee.GameResult.EndReason;
+import referee.Player;
+import referee.StrategyPlayer;
+import util.Tuple;
+
+public class TestTournament {
+
+  private static final List<Tuple<Integer, Integer>> SIZES = List.of(new Tuple<>(7, 7));
+
+  private static List<Supplier<Player>> factories() {
+    return List.of(
+        () -> new StrategyPlayer("euclid", new EuclidStrategy()),
+        () -> new StrategyPlayer("riemann", new RiemannStrategy()),
+        () -> new BadPlayer("bad", new EuclidStrategy(), BadFM.setUp, 0));
+  }
+
+  @Test
+  public void testResultsAreAggregated() {
+    TournamentResult result = new Tournament(factories(), 2).run(12, SIZES, 5);
+
+    assertEquals(12, result.getGames());
+    assertEquals("euclid", result.getName(0));
+    assertEquals("bad", result.getName(2));
+    assertEquals(12, result.getKicks(2));
+    assertEquals(0, result.getWins(2));
+    assertEquals(0, result.getKicks(0) + result.getKicks(1));
+    assertTrue(result.getWins(0) + result.getWins(1) >= 12);
+    assertTrue(result.getMaxRounds() >= result.getMeanRounds());
+    assertTrue(result.getGamesPerSecond() > 0);
+    int ended = 0;
+    for (EndReason reason : EndReason.values()) {
+      ended += result.getGamesEndedBy(reason);
+    }
+    assertEquals(12, ended);
+  }
+
+  @Test
+  public void testResultsDoNotDependOnWorkers() {
+    TournamentResult serial = new Tournament(factories(), 1).run(12, SIZES, 42);
+    TournamentResult parallel = new Tournament(factories(), 3).run(12, SIZES, 42);
+
+    for (int i = 0; i < serial.getNumberOfPlayers(); i++) {
+      assertEquals(serial.getWins(i), parallel.getWins(i));
+      assertEquals(serial.getKicks(i), parallel.getKicks(i));
+    }
+    assertEquals(serial.getMeanRounds(), parallel.getMeanRounds());
+    assertEquals(serial.getMaxRounds(), parallel.getMaxRounds());
+  }
+
+  @Test
+  public void testTrustedPlayersPlayTheSameGames() {
+    List<Supplier<Player>> factories = List.of(
+        () -> new StrategyPlayer("euclid", new EuclidStrategy()),
+        () -> new StrategyPlayer("riemann", new RiemannStrategy()),
+        () -> new BadPlayer("bad", new EuclidStrategy(), BadFM.takeTurn, 0));
+    TournamentResult safe = new Tournament(factories, 1).run(12, SIZES, 7);
+    TournamentResult trusted = new Tournament(factories, 1, true).run(12, SIZES, 7);
+
+    for (int i = 0; i < safe.getNumberOfPlayers(); i++) {
+      assertEquals(safe.getWins(i), trusted.getWins(i));
+      assertEquals(safe.getKicks(i), trusted.getKicks(i));
+    }
+    assertEquals(safe.getMeanRounds(), trusted.getMeanRounds());
+  }
+
+  @Test
+  public void testMetricsAreRecorded() {
+    Tournament tournament = new Tournament(factories(), 2);
+    HistogramMetrics metrics = new HistogramMetrics();
+    tournament.recordMetricsTo(metrics);
+    TournamentResult result = tournament.run(6, SIZES, 11);
+
+    assertEquals(6, (long) metrics.getCounters().get("referee.games"));
+    assertEquals(6, (long) metrics.getCounters().get("referee.kicks.setup"));
+    assertEquals(6, (long) metrics.getCounters().get("player.setup.exception"));
+    assertEquals(6, metrics.getTimers().get("referee.game").getCount());
+    assertEquals(result.getMaxRounds(), metrics.getTimers().get("referee.rounds").getMax());
+    assertEquals(metrics.getTimers().get("player.takeTurn").getCount(),
+        metrics.getTimers().get("referee.canApplyAction").getCount());
+  }
+
+  // A player whose name method throws the given error or, without one, never returns
+  private static Player nameless(Error error) {
+    return new StrategyPlayer("nameless", new EuclidStrategy()) {
+      @Override
+      public String name() {
+        if (error != null) {
+          throw error;
+        }
+        while (true) {
+          try {
+            Thread.sleep(1000);
+          } catch (InterruptedException e) {
+            // a player stuck for good ignores interrupts
+          }
+        }
+      }
+    };
+  }
+
+  @Test
+  public void testPlayerWithoutANameKeepsItsSeat() {
+    List<Supplier<Player>> factories = List.of(
+        () -> new StrategyPlayer("euclid", new EuclidStrategy()),
+        () -> new StrategyPlayer("riemann", new RiemannStrategy()),
+        () -> nameless(new StackOverflowError()));
+    TournamentResult result = new Tournament(factories, 1).run(3, SIZES, 3);
+
+    assertEquals(3, result.getGames());
+    assertEquals("player 2", result.getName(2));
+    assertEquals("euclid", result.getName(0));
+    assertEquals(0, result.getKicks(2));
+  }
+
+  @Test
+  public void testPlayerWhoseNameNeverReturnsDoesNotStallTheTournament() {
+    List<Supplier<Player>> factories = List.of(
+        () -> new StrategyPlayer("euclid", new EuclidStrategy()),
+        () -> nameless(null));
+    TournamentResult result = new Tournament(factories, 1).run(1, SIZES, 3);
+
+    assertEquals(1, result.getGames());
+    assertEquals("player 1", result.getName(1));
+  }
+
+  @Test
+  public void testNeedsPlayersAndWorkers() {
+    assertThrows(IllegalArgumentException.class, () -> new Tournament(List.of(), 1));
+    assertThrows(IllegalArgumentException.class, () -> new Tournament(factories(), 0));
+  }
+}
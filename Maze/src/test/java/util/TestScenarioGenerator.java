@@ -0,0 +1,87 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import model.state.PlayerData;
+import model.state.State;
+import model.strategy.EuclidStrategy;
+import org.junit.jupiter.api.Test;
+import referee.Player;
+import referee.StrategyPlayer;
+
+public class TestScenarioGenerator {
+
+  @Test
+  public void testSameSeedSameScenario() {
+    ScenarioGenerator generator = new ScenarioGenerator(7, 7, 3);
+    State first = generator.generate(42, 4);
+    State second = generator.generate(42, 4);
+
+    assertEquals(first.getBoard(), second.getBoard());
+    assertEquals(first.getSpareTile(), second.getSpareTile());
+    assertEquals(first.getAdditionalGoals(), second.getAdditionalGoals());
+    for (int i = 0; i < 4; i++) {
+      PlayerData a = first.getPlayers().get(i);
+      PlayerData b = second.getPlayers().get(i);
+      assertEquals(a.getHomeLocation(), b.getHomeLocation());
+      assertEquals(a.getGoalLocation(), b.getGoalLocation());
+      assertEquals(a.getAvatar(), b.getAvatar());
+    }
+  }
+
+  @Test
+  public void testPlayersDoNotChangeTheScenario() {
+    ScenarioGenerator generator = new ScenarioGenerator(7, 7);
+    List<Player> players = List.of(new StrategyPlayer("a", new EuclidStrategy()),
+        new StrategyPlayer("b", new EuclidStrategy()));
+    State withPlayers = generator.generate(9, players);
+    State withoutPlayers = generator.generate(9, 2);
+
+    assertEquals(withoutPlayers.getBoard(), withPlayers.getBoard());
+    assertEquals(withoutPlayers.getPlayers().get(1).getGoalLocation(),
+        withPlayers.getPlayers().get(1).getGoalLocation());
+    assertTrue(withPlayers.getPlayers().get(0).getPlayerAPI().isPresent());
+  }
+
+  @Test
+  public void testConsecutiveSeedsProduceDistinctScenarios() {
+    ScenarioGenerator generator = new ScenarioGenerator(9, 7);
+    Set<Integer> boards = generator.stream(0, 3).limit(200)
+        .map(state -> state.getBoard().hashCode())
+        .collect(Collectors.toSet());
+
+    assertEquals(200, boards.size());
+    assertNotEquals(generator.generate(0, 3).getBoard(), generator.generate(1, 3).getBoard());
+  }
+
+  @Test
+  public void testScenariosAreValid() {
+    ScenarioGenerator generator = new ScenarioGenerator(11, 5, 2);
+    generator.stream(7, generator.getMaxPlayers()).limit(50).forEach(state -> {
+      assertEquals(11, state.getBoard().getBoardWidth());
+      assertTrue(state.getBoard().isBoardBuilt());
+      assertEquals(generator.getMaxPlayers(), state.getPlayers().stream()
+          .map(PlayerData::getHomeLocation).distinct().count());
+      for (PlayerData player : state.getPlayers()) {
+        assertNotEquals(player.getHomeLocation(), player.getGoalLocation());
+      }
+      assertEquals(2, state.getAdditionalGoals().size());
+    });
+  }
+
+  @Test
+  public void testLimits() {
+    assertEquals(9, new ScenarioGenerator(7, 7).getMaxPlayers());
+    assertEquals(10, new ScenarioGenerator(11, 5).getMaxPlayers());
+    assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(80, 80));
+    assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 7));
+    assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(7, 7).generate(0, 10));
+    assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(7, 7).generate(0, 0));
+  }
+}
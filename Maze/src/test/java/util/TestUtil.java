@@ -2,13 +2,18 @@ package util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import model.state.State;
+import model.strategy.EuclidStrategy;
 import org.junit.jupiter.api.Test;
+import referee.Player;
+import referee.StrategyPlayer;
 
 public class TestUtil {
 
@@ -44,4 +49,16 @@ public class TestUtil {
     Util.reverseList(list1);
     assertEquals(expected1, list1);
   }
+
+  @Test
+  public void testUnseededStatesDiffer() {
+    List<Player> players = List.of(new StrategyPlayer("a", new EuclidStrategy()),
+        new StrategyPlayer("b", new EuclidStrategy()));
+    State first = Util.createRandomState(players, 7, 7);
+    State second = Util.createRandomState(players, 7, 7);
+
+    assertNotEquals(first.getBoard(), second.getBoard());
+    assertEquals(Util.createRandomState(players, 7, 7, 5).getBoard(),
+        Util.createRandomState(players, 7, 7, 5).getBoard());
+  }
 }